@@ -0,0 +1,169 @@
+package benchmarks;
+
+import server.Config;
+import server.LegalityIndex;
+import server.MatchManager;
+import server.Overlay;
+import server.Player;
+import server.SReferences;
+import server.Window;
+import server.threads.GameManager;
+import shared.Dice;
+import shared.Packed;
+import shared.Position;
+import shared.PositionR;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * a game of a single player in the middle of a match: a window, an overlay filled with legal placements,
+ * a pool and a round track. Boards are built from a seed, so every run measures the same positions,
+ * and can be brought back to how they were built after a move changed them
+ */
+final class Board {
+
+    static final int POOL = 9;
+    static final int ROUNDS = 5;
+
+    private static int boards = 0;
+
+    final GameManager game;
+    final Player player;
+    final Window window;
+    final Overlay overlay;
+
+    private final Dice[] dices = new Dice[LegalityIndex.ROWS * LegalityIndex.COLUMNS];
+    private final List<Dice> pool = new ArrayList<>();
+    private final List<List<Dice>> rounds = new ArrayList<>();
+    private final List<Dice> bag;
+    private final Integer tokens;
+
+    /**
+     * build a board with about
+     * @param placed dices on the overlay, drawn with
+     * @param rand
+     */
+    private Board(int placed, Random rand) {
+        String uUID = "bench-" + boards++;
+        SReferences.addUuidRefEnhanced(uUID);
+        SReferences.addNickNameRef(uUID, uUID);
+        game = new GameManager(Collections.singletonList(uUID));
+        player = SReferences.getPlayerRef(uUID);
+        player.setWindow(rand.nextInt(MatchManager.getWindows().size()));
+        window = player.getWindow();
+        overlay = player.getOverlay();
+
+        // the first dice goes through the player, so that he is not at his first placement anymore
+        game.getPool().clear();
+        for (int attempts = 0; attempts < 100 && player.getOverlay().getLegality().getBusy() == 0; attempts++) {
+            Dice dice = randomDice(rand);
+            int cells = window.legalCells(overlay, true, dice, true, true);
+            if (cells == 0)
+                continue;
+            game.getPool().addDice(dice);
+            player.placeDice(game.getPool().getDices().size() - 1, pick(cells, rand));
+        }
+        for (int attempts = 0; attempts < 1000 && Integer.bitCount(overlay.getLegality().getBusy()) < placed; attempts++) {
+            Dice dice = randomDice(rand);
+            int cells = window.legalCells(overlay, false, dice, true, true) & ~overlay.getLegality().getBusy();
+            if (cells != 0)
+                overlay.setDicePosition(dice, pick(cells, rand));
+        }
+        player.clearUsedTcAndPlacedDice();
+
+        game.getPool().clear();
+        for (int i = 0; i < POOL; i++)
+            game.getPool().addDice(randomDice(rand));
+        for (int round = 0; round < ROUNDS; round++)
+            game.getRoundTrack().addDice(randomDice(rand), round);
+
+        for (int cell = 0; cell < dices.length; cell++)
+            dices[cell] = Packed.unpack(overlay.getPacked(cell));
+        pool.addAll(game.getPool().getDices());
+        for (List<Dice> round : game.getRoundTrack().getDices())
+            rounds.add(new ArrayList<>(round));
+        bag = new ArrayList<>(game.getDiceBag());
+        tokens = player.getTokens();
+    }
+
+    /**
+     * @return
+     * @param count boards with about
+     * @param placed dices each, always the same ones for the same
+     * @param seed
+     */
+    static Board[] build(int count, int placed, long seed) {
+        quiet();
+        Config.test();
+        Random rand = new Random(seed);
+        Board[] result = new Board[count];
+        for (int i = 0; i < count; i++)
+            result[i] = new Board(placed, rand);
+        return result;
+    }
+
+    /**
+     * bring back the overlay, the pool, the round track, the dice bag and the tokens of the player
+     * to how they were built, and let him place a dice and use a tool card again; the legality index
+     * is built already, as it is after a move
+     */
+    void restore() {
+        for (int cell = 0; cell < dices.length; cell++)
+            overlay.setDicePosition(null, position(cell));
+        for (int cell = 0; cell < dices.length; cell++)
+            if (dices[cell] != null)
+                overlay.setDicePosition(dices[cell], position(cell));
+        game.getPool().clear();
+        for (Dice dice : pool)
+            game.getPool().addDice(dice);
+        for (int round = 0; round < rounds.size(); round++)
+            for (int i = 0; i < rounds.get(round).size(); i++)
+                game.getRoundTrack().setDice(rounds.get(round).get(i), new PositionR(round, i));
+        game.getDiceBag().clear();
+        game.getDiceBag().addAll(bag);
+        player.setTokens(tokens);
+        player.clearUsedTcAndPlacedDice();
+        overlay.getLegality().getBusy();
+    }
+
+    static Dice randomDice(Random rand) {
+        return Dice.of(Packed.COLORS.charAt(rand.nextInt(Packed.COLORS.length())), 1 + rand.nextInt(Packed.SHADES));
+    }
+
+    static Position randomPosition(Random rand) {
+        return Position.of(rand.nextInt(LegalityIndex.ROWS), rand.nextInt(LegalityIndex.COLUMNS));
+    }
+
+    /**
+     * the server logs every move and every score: the benchmarks pay for building the lines, not for printing them
+     */
+    private static void quiet() {
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+                // discarded
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                // discarded
+            }
+        }));
+    }
+
+    private static Position pick(int cells, Random rand) {
+        int skip = rand.nextInt(Integer.bitCount(cells));
+        for (int i = 0; i < skip; i++)
+            cells &= cells - 1;
+        return position(Integer.numberOfTrailingZeros(cells));
+    }
+
+    private static Position position(int cell) {
+        return Position.of(cell / LegalityIndex.COLUMNS, cell % LegalityIndex.COLUMNS);
+    }
+}
@@ -0,0 +1,114 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import server.Overlay;
+import server.Pool;
+import server.RoundTrack;
+import shared.Dice;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * the copies of the state of a game made with the copy constructors, against the same copies made
+ * through Java serialization, as the server used to do
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CloneBenchmark {
+
+    private static final int BOARDS = 16;
+
+    private Overlay[] overlays;
+    private Dice[][][] matrices;
+    private Pool[] pools;
+    private List<List<Dice>> poolDices;
+    private RoundTrack[] roundTracks;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        Board[] boards = Board.build(BOARDS, 14, 2018L);
+        overlays = new Overlay[BOARDS];
+        matrices = new Dice[BOARDS][][];
+        pools = new Pool[BOARDS];
+        poolDices = new ArrayList<>();
+        roundTracks = new RoundTrack[BOARDS];
+        for (int i = 0; i < BOARDS; i++) {
+            overlays[i] = boards[i].overlay;
+            pools[i] = boards[i].game.getPool();
+            poolDices.add(pools[i].getDices());
+            roundTracks[i] = boards[i].game.getRoundTrack();
+        }
+        for (int i = 0; i < BOARDS; i++)
+            matrices[i] = overlays[i].copyDicePositions();
+    }
+
+    @Benchmark
+    public Dice[][] overlaySerialized() {
+        next = (next + 1) % BOARDS;
+        return serialized(matrices[next]);
+    }
+
+    @Benchmark
+    public Overlay overlay() {
+        next = (next + 1) % BOARDS;
+        return new Overlay(overlays[next]);
+    }
+
+    @Benchmark
+    public Dice[][] matrix() {
+        next = (next + 1) % BOARDS;
+        return Dice.copyOf(matrices[next]);
+    }
+
+    @Benchmark
+    public List<Dice> poolSerialized() {
+        next = (next + 1) % BOARDS;
+        return serialized(poolDices.get(next));
+    }
+
+    @Benchmark
+    public Pool pool() {
+        next = (next + 1) % BOARDS;
+        return new Pool(pools[next]);
+    }
+
+    @Benchmark
+    public RoundTrack roundTrack() {
+        next = (next + 1) % BOARDS;
+        return new RoundTrack(roundTracks[next]);
+    }
+
+    /**
+     * the deep copy through a serialization round trip which the copy constructors replaced
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T serialized(T object) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(bytes);
+            out.writeObject(object);
+            out.close();
+            return (T) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import shared.Cell;
+import shared.Dice;
+import shared.Position;
+import shared.TransferObjects.GameManagerT;
+import shared.TransferObjects.PlayerT;
+import shared.TransferObjects.ToolCT;
+import shared.TransferObjects.WindowT;
+import shared.network.socket.BinaryCodec;
+import shared.network.socket.PacketCodec;
+import shared.network.socket.SerialCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * the codecs of the socket requests, encoding and decoding a whole view of a game and the parameters of a move,
+ * the binary one against the Java serialization
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    private static final char[] COLORS = {'r', 'y', 'g', 'b', 'p'};
+
+    @Param({"serial", "binary"})
+    public String codec;
+
+    @Param({"game", "move"})
+    public String message;
+
+    private PacketCodec packetCodec;
+    private Object value;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() throws IOException {
+        packetCodec = codec.equals("binary") ? BinaryCodec.getInstance() : SerialCodec.getInstance();
+        value = message.equals("game") ? game(new Random(2018L)) : new Object[]{"player1", 3, Position.of(2, 4)};
+        bytes = encode();
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        packetCodec.encode(value, out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public Object decode() throws IOException, ClassNotFoundException {
+        return packetCodec.decode(new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * @return the view of a game of 4 players, half way through
+     */
+    private static GameManagerT game(Random random) {
+        List<PlayerT> players = new ArrayList<>();
+        List<String> online = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Cell[][] cells = new Cell[4][5];
+            Dice[][] overlay = new Dice[4][5];
+            for (int r = 0; r < 4; r++)
+                for (int c = 0; c < 5; c++) {
+                    int kind = random.nextInt(3);
+                    cells[r][c] = kind == 0 ? Cell.of(random.nextInt(6) + 1) :
+                            kind == 1 ? Cell.of(COLORS[random.nextInt(COLORS.length)]) : Cell.of();
+                    if (random.nextBoolean())
+                        overlay[r][c] = dice(random);
+                }
+            players.add(new PlayerT("player" + i, COLORS[i], new WindowT("Window " + i, cells), overlay,
+                    3, i, 0, 1, Position.of(1, 2)));
+            online.add("player" + i);
+        }
+        List<ArrayList<Dice>> roundTrack = new ArrayList<>();
+        for (int i = 0; i < 5; i++)
+            roundTrack.add(new ArrayList<>(Arrays.asList(dice(random), dice(random))));
+        List<Dice> pool = new ArrayList<>();
+        for (int i = 0; i < 9; i++)
+            pool.add(i == 4 ? null : dice(random));
+        List<ToolCT> tools = Arrays.asList(new ToolCT("tool1", 1), new ToolCT("tool6", 2), new ToolCT("tool11", 1));
+        return new GameManagerT(players, Arrays.asList("pub1", "pub5", "pub10"), tools, roundTrack, pool,
+                online, new ArrayList<>(), 2);
+    }
+
+    private static Dice dice(Random random) {
+        return Dice.of(COLORS[random.nextInt(COLORS.length)], random.nextInt(6) + 1);
+    }
+}
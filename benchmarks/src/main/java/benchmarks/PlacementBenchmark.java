@@ -0,0 +1,74 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import server.LegalityIndex;
+import shared.Dice;
+import shared.Position;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * placing a dice of the pool on the overlay, half of the times on a legal cell and half on a random one,
+ * and hinting every legal cell for a dice
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacementBenchmark {
+
+    private static final int BOARDS = 64;
+
+    @Param({"1", "8", "14"})
+    public int placed;
+
+    private Board[] boards;
+    private Integer[] indexes = new Integer[BOARDS];
+    private Position[] positions = new Position[BOARDS];
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        boards = Board.build(BOARDS, placed, 2018L);
+        Random rand = new Random(17L);
+        for (int i = 0; i < BOARDS; i++) {
+            Board board = boards[i];
+            indexes[i] = rand.nextInt(Board.POOL);
+            Dice dice = board.game.getPool().getDice(indexes[i]);
+            List<Position> legal = board.window.getLegalPositions(board.player, dice);
+            positions[i] = rand.nextBoolean() && !legal.isEmpty() ? legal.get(rand.nextInt(legal.size())) :
+                    Board.randomPosition(rand);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void restore() {
+        next = (next + 1) % BOARDS;
+        boards[next].restore();
+    }
+
+    @Benchmark
+    public Boolean placeDiceFromPool() {
+        Board board = boards[next];
+        return board.window.placeDiceFromPool(board.player, indexes[next], positions[next]);
+    }
+
+    @Benchmark
+    public int legalCells() {
+        Board board = boards[next];
+        return board.window.legalCells(board.overlay, false, board.game.getPool().getDice(indexes[next]), true, true) &
+                ~board.overlay.getLegality().getBusy() & LegalityIndex.ALL;
+    }
+}
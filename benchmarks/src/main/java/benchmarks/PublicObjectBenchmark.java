@@ -0,0 +1,75 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import server.Overlay;
+import server.executables.PublicObject;
+
+/**
+ * the public objective cards, over boards with more or less dices placed
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublicObjectBenchmark {
+
+    private static final int BOARDS = 64;
+
+    @Param({"1", "2", "3", "4", "5", "6", "7", "8", "9", "10"})
+    public int card;
+
+    @Param({"8", "14", "20"})
+    public int placed;
+
+    private Board[] boards;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        boards = Board.build(BOARDS, placed, 2018L);
+    }
+
+    private Board next() {
+        Board board = boards[next];
+        next = (next + 1) % BOARDS;
+        return board;
+    }
+
+    @Benchmark
+    public int publicObjective() {
+        Overlay overlay = next().overlay;
+        switch (card) {
+            case 1:
+                return PublicObject.use1(overlay);
+            case 2:
+                return PublicObject.use2(overlay);
+            case 3:
+                return PublicObject.use3(overlay);
+            case 4:
+                return PublicObject.use4(overlay);
+            case 5:
+                return PublicObject.use5(overlay);
+            case 6:
+                return PublicObject.use6(overlay);
+            case 7:
+                return PublicObject.use7(overlay);
+            case 8:
+                return PublicObject.use8(overlay);
+            case 9:
+                return PublicObject.use9(overlay);
+            default:
+                return PublicObject.use10(overlay);
+        }
+    }
+
+}
@@ -0,0 +1,206 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import server.Player;
+import server.SReferences;
+import server.threads.GameManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * the registry of the clients, a session map read without locks, against the parallel lists it replaced,
+ * scanned under the class lock: the lookups done on every call of a client, the reads of the access check
+ * of the moves, and a client joining and leaving, with all the threads on the same registry
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class ReferencesBenchmark {
+
+    @Param({"100", "1000"})
+    public int clients;
+
+    private final ListReferences lists = new ListReferences();
+    private final List<String> uuids = new ArrayList<>();
+
+    /**
+     * the clients each thread looks up, and the ones it makes join
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private static int threads = 0;
+
+        private final int thread;
+        private int next = 0;
+        private int joins = 0;
+
+        public Cursor() {
+            synchronized (Cursor.class) {
+                thread = threads++;
+            }
+        }
+
+        String nextOf(List<String> uuids) {
+            next = (next + 7) % uuids.size();
+            return uuids.get((thread * 31 + next) % uuids.size());
+        }
+
+        String nextJoin() {
+            return "bench-join-" + thread + "-" + joins++;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < clients; i++) {
+            String uuid = "bench-" + i;
+            uuids.add(uuid);
+            lists.addUuidRefEnhanced(uuid);
+            lists.addNickNameRef(uuid, "nick" + i);
+            lists.addPortRef(uuid, i);
+            SReferences.addUuidRefEnhanced(uuid);
+            SReferences.addNickNameRef(uuid, "nick" + i);
+            SReferences.addPortRef(uuid, i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (String uuid : uuids)
+            SReferences.removeRef(uuid);
+    }
+
+    @Benchmark
+    public String lookupLists(Cursor cursor) {
+        String uuid = cursor.nextOf(uuids);
+        return lists.getPortRef(uuid) + lists.getNickNameRef(uuid);
+    }
+
+    @Benchmark
+    public String lookup(Cursor cursor) {
+        String uuid = cursor.nextOf(uuids);
+        return SReferences.getPortRef(uuid) + SReferences.getNickNameRef(uuid);
+    }
+
+    @Benchmark
+    public boolean accessLists(Cursor cursor) {
+        String uuid = cursor.nextOf(uuids);
+        GameManager game = lists.getGameRef(uuid);
+        return game == null && lists.getPlayerRef(uuid) == null;
+    }
+
+    @Benchmark
+    public boolean access(Cursor cursor) {
+        String uuid = cursor.nextOf(uuids);
+        GameManager game = SReferences.getGameRef(uuid);
+        return game == null && SReferences.getPlayerRef(uuid) == null;
+    }
+
+    @Benchmark
+    public boolean joinLists(Cursor cursor) {
+        String uuid = cursor.nextJoin();
+        boolean joined = lists.addUuidRefEnhanced(uuid);
+        lists.addNickNameRef(uuid, uuid);
+        lists.removeRef(uuid);
+        return joined;
+    }
+
+    @Benchmark
+    public boolean join(Cursor cursor) {
+        String uuid = cursor.nextJoin();
+        boolean joined = SReferences.addUuidRefEnhanced(uuid);
+        SReferences.reserveNickNameRef(uuid, uuid);
+        SReferences.removeRef(uuid);
+        return joined;
+    }
+
+    /**
+     * the registry as it was: parallel lists, each lookup scans them under the class lock, and a client
+     * joining takes the first free slot
+     */
+    private static final class ListReferences {
+        private final ArrayList<String> uuidRef = new ArrayList<>();
+        private final ArrayList<Integer> portRef = new ArrayList<>();
+        private final ArrayList<String> nickNameRef = new ArrayList<>();
+        private final ArrayList<Player> playerRef = new ArrayList<>();
+        private final ArrayList<GameManager> gameRef = new ArrayList<>();
+
+        synchronized Integer getPortRef(String s) {
+            Integer index = uuidRef.indexOf(s);
+            if (index.equals(-1))
+                return null;
+            return portRef.get(index);
+        }
+
+        synchronized String getNickNameRef(String s) {
+            Integer index = uuidRef.indexOf(s);
+            if (index.equals(-1))
+                return null;
+            return nickNameRef.get(index);
+        }
+
+        synchronized Player getPlayerRef(String s) {
+            Integer index = uuidRef.indexOf(s);
+            if (index.equals(-1))
+                return null;
+            return playerRef.get(index);
+        }
+
+        synchronized GameManager getGameRef(String s) {
+            Integer index = uuidRef.indexOf(s);
+            if (index.equals(-1))
+                return null;
+            return gameRef.get(index);
+        }
+
+        synchronized void addPortRef(String s, Integer port) {
+            portRef.set(uuidRef.indexOf(s), port);
+        }
+
+        synchronized void addNickNameRef(String s, String nickName) {
+            nickNameRef.set(uuidRef.indexOf(s), nickName);
+        }
+
+        synchronized boolean addUuidRefEnhanced(String uUID) {
+            int i = 0;
+            if (uuidRef.contains(uUID))
+                return false;
+            while (i < uuidRef.size() && uuidRef.get(i) != null)
+                i++;
+            if (i == uuidRef.size()) {
+                uuidRef.add(uUID);
+                portRef.add(null);
+                nickNameRef.add(null);
+                playerRef.add(null);
+                gameRef.add(null);
+            } else {
+                uuidRef.set(i, uUID);
+            }
+            return true;
+        }
+
+        synchronized void removeRef(String s) {
+            Integer index = uuidRef.indexOf(s);
+            portRef.set(index, null);
+            nickNameRef.set(index, null);
+            playerRef.set(index, null);
+            gameRef.set(index, null);
+            uuidRef.set(index, null);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * the final score of a player: the three public objectives of his game, the private one and the tokens left
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoreBenchmark {
+
+    private static final int BOARDS = 64;
+
+    @Param({"8", "14", "20"})
+    public int placed;
+
+    private Board[] boards;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        boards = Board.build(BOARDS, placed, 2018L);
+    }
+
+    @Benchmark
+    public int score() {
+        next = (next + 1) % BOARDS;
+        return boards[next].player.getScore();
+    }
+}
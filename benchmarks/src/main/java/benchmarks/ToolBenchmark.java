@@ -0,0 +1,121 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import server.LegalityIndex;
+import server.Player;
+import server.executables.Tool;
+import shared.Position;
+import shared.PositionR;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * the tool cards, each one with random but plausible arguments: the dices to move are taken among the busy
+ * cells and the targets among the free ones, so that some uses are legal and some are refused by the rules
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToolBenchmark {
+
+    private static final int BOARDS = 64;
+    private static final Integer SLOT = 0;
+
+    @Param({"1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12"})
+    public int tool;
+
+    private Board[] boards;
+    private Move[] moves = new Move[BOARDS];
+    private int next = 0;
+
+    /**
+     * the arguments of a use of a tool card
+     */
+    private static final class Move {
+        private Position p1;
+        private Position p2;
+        private Position p3;
+        private Position p4;
+        private PositionR pr;
+        private Integer i2;
+        private Integer i3;
+    }
+
+    @Setup
+    public void setup() {
+        boards = Board.build(BOARDS, 10, 2018L);
+        Random rand = new Random(12L);
+        for (int i = 0; i < BOARDS; i++) {
+            int busy = boards[i].overlay.getLegality().getBusy();
+            int free = LegalityIndex.ALL & ~busy;
+            Move move = new Move();
+            boolean moves = tool == 2 || tool == 3 || tool == 4 || tool == 12;
+            move.p1 = pick(moves ? busy : free, rand);
+            move.p2 = pick(free, rand);
+            move.p3 = pick(busy, rand);
+            move.p4 = pick(free, rand);
+            move.pr = new PositionR(rand.nextInt(Board.ROUNDS), 0);
+            move.i2 = rand.nextInt(Board.POOL);
+            move.i3 = tool == 1 ? (rand.nextBoolean() ? 1 : -1) : 1 + rand.nextInt(6);
+            this.moves[i] = move;
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void restore() {
+        next = (next + 1) % BOARDS;
+        boards[next].restore();
+    }
+
+    @Benchmark
+    public Boolean use() {
+        Player player = boards[next].player;
+        Move m = moves[next];
+        switch (tool) {
+            case 1:
+                return Tool.use1(SLOT, player, m.p1, m.i2, m.i3);
+            case 2:
+                return Tool.use2(SLOT, player, m.p1, m.p2);
+            case 3:
+                return Tool.use3(SLOT, player, m.p1, m.p2);
+            case 4:
+                return Tool.use4(SLOT, player, m.p1, m.p2, m.p3, m.p4);
+            case 5:
+                return Tool.use5(SLOT, player, m.p1, m.pr, m.i2);
+            case 6:
+                return Tool.use6(SLOT, player, m.p1, m.i2);
+            case 7:
+                return Tool.use7(SLOT, player);
+            case 8:
+                return Tool.use8(SLOT, player, m.p1, m.i2);
+            case 9:
+                return Tool.use9(SLOT, player, m.p1, m.i2);
+            case 10:
+                return Tool.use10(SLOT, player, m.p1, m.i2);
+            case 11:
+                return Tool.use11(SLOT, player, m.p1, m.i2, m.i3);
+            default:
+                return Tool.use12(SLOT, player, m.p1, m.p2, m.p3, m.p4, m.pr);
+        }
+    }
+
+    private static Position pick(int cells, Random rand) {
+        if (cells == 0)
+            return Board.randomPosition(rand);
+        List<Position> positions = LegalityIndex.positions(cells);
+        return positions.get(rand.nextInt(positions.size()));
+    }
+}
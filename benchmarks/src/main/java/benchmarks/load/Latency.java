@@ -0,0 +1,64 @@
+package benchmarks.load;
+
+import java.util.Arrays;
+
+/**
+ * the round trips of one kind of call: every sample is kept, so the percentiles are exact,
+ * together with the calls which could not reach the server and the ones it refused
+ */
+final class Latency {
+
+    private long[] samples = new long[1024];
+    private int count = 0;
+    private long errors = 0;
+    private long refused = 0;
+
+    /**
+     * a call came back after
+     * @param nanos
+     */
+    synchronized void record(long nanos) {
+        if (count == samples.length)
+            samples = Arrays.copyOf(samples, count * 2);
+        samples[count++] = nanos;
+    }
+
+    /**
+     * a call could not reach the server
+     */
+    synchronized void failed() {
+        errors++;
+    }
+
+    /**
+     * a call came back with a refusal
+     */
+    synchronized void refused() {
+        refused++;
+    }
+
+    synchronized int getCount() {
+        return count;
+    }
+
+    synchronized long getErrors() {
+        return errors;
+    }
+
+    synchronized long getRefused() {
+        return refused;
+    }
+
+    /**
+     * @return in milliseconds, the round trip longer than a fraction
+     * @param q of the calls, or 0 if there was none
+     */
+    synchronized double percentile(double q) {
+        if (count == 0)
+            return 0;
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(q * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, rank))] / 1e6;
+    }
+}
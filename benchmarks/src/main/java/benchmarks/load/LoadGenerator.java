@@ -0,0 +1,233 @@
+package benchmarks.load;
+
+import server.threads.MainServer;
+import shared.network.Connection;
+import shared.network.MethodConnectionException;
+import shared.network.RemoteMethod;
+import shared.network.rmi.NetworkRmi;
+import shared.network.socket.NetworkSocket;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * a load test of the server: many simulated players, on sockets and on RMI, join the tables and play
+ * random legal moves for some minutes; at the end the join latency, the round trip of every method called
+ * on the server and the games completed per minute are reported. Options:
+ * <pre>
+ *   -server host   the server to load, the local one if missing
+ *   -embedded      start the server in this JVM, reading config.txt
+ *   -clients n     simulated players, 8 if missing
+ *   -rmi n         how many of them use RMI instead of sockets, half of them if missing
+ *   -minutes m     length of the test, 5 if missing
+ *   -think ms      wait before each move, 0 if missing
+ *   -tools p       chance of using a tool card in a turn instead of placing a dice, 0.2 if missing
+ *   -threads n     threads playing the moves of all the players, 8 if missing
+ * </pre>
+ * The log lines of the server and of the connections are discarded, so only the report is printed
+ */
+public final class LoadGenerator {
+
+    private final int think;
+    private final double toolChance;
+    private final ScheduledExecutorService scheduler;
+    private final Map<RemoteMethod, Latency> calls = new EnumMap<>(RemoteMethod.class);
+    private final Latency joins = new Latency();
+    private final Object gamesLock = new Object();
+    private double games = 0;
+    private volatile boolean running = true;
+
+    private LoadGenerator(int think, double toolChance, int threads) {
+        this.think = think;
+        this.toolChance = toolChance;
+        this.scheduler = Executors.newScheduledThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "simulated-player");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (RemoteMethod method : RemoteMethod.values())
+            calls.put(method, new Latency());
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    int getThink() {
+        return think;
+    }
+
+    double getToolChance() {
+        return toolChance;
+    }
+
+    ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * a player asked to join, and the server answered after
+     * @param nanos ; it
+     * @param accepted the player or refused it
+     */
+    void joined(long nanos, boolean accepted) {
+        joins.record(nanos);
+        if (!accepted)
+            joins.refused();
+    }
+
+    /**
+     * @param method came back after
+     * @param nanos , and the server
+     * @param refused the move
+     */
+    void called(RemoteMethod method, long nanos, boolean refused) {
+        Latency latency = calls.get(method);
+        latency.record(nanos);
+        if (refused)
+            latency.refused();
+    }
+
+    /**
+     * @param method could not reach the server
+     */
+    void failed(RemoteMethod method) {
+        calls.get(method).failed();
+    }
+
+    /**
+     * one of the
+     * @param players of a game saw it end
+     */
+    void finished(int players) {
+        if (!running)
+            return;
+        synchronized (gamesLock) {
+            games += 1.0 / players;
+        }
+    }
+
+    private void report(PrintStream out, List<SimulatedClient> clients, long nanos) {
+        int rmi = 0;
+        for (SimulatedClient client : clients)
+            if (!client.isSocket())
+                rmi++;
+        double minutes = nanos / 6e10;
+        double completed;
+        synchronized (gamesLock) {
+            completed = games;
+        }
+        out.println(String.format("%d players (%d socket, %d RMI) for %.1f minutes",
+                clients.size(), clients.size() - rmi, rmi, minutes));
+        out.println(String.format("joins: %d, %d refused, p50 %.2f ms, p99 %.2f ms",
+                joins.getCount(), joins.getRefused(), joins.percentile(0.5), joins.percentile(0.99)));
+        out.println(String.format("games completed: %.1f, %.2f per minute", completed, completed / minutes));
+        out.println(String.format("%-22s %8s %8s %8s %10s %10s", "method", "calls", "errors", "refused", "p50 ms", "p99 ms"));
+        for (Map.Entry<RemoteMethod, Latency> entry : calls.entrySet()) {
+            Latency latency = entry.getValue();
+            if (latency.getCount() == 0 && latency.getErrors() == 0)
+                continue;
+            out.println(String.format("%-22s %8d %8d %8d %10.2f %10.2f", entry.getKey(), latency.getCount(),
+                    latency.getErrors(), latency.getRefused(), latency.percentile(0.5), latency.percentile(0.99)));
+        }
+    }
+
+    public static void main(String[] args) {
+        PrintStream out = System.out;
+        try {
+            run(args, out);
+        } catch (MethodConnectionException | IllegalArgumentException e) {
+            out.println("Load test failed: " + e.getMessage());
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } finally {
+            System.exit(0);
+        }
+    }
+
+    private static void run(String[] args, PrintStream out) throws MethodConnectionException, InterruptedException {
+        String server = "";
+        boolean embedded = false;
+        int clients = 8;
+        Integer rmi = null;
+        double minutes = 5;
+        int think = 0;
+        double tools = 0.2;
+        int threads = 8;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-server":
+                    server = args[++i];
+                    break;
+                case "-embedded":
+                    embedded = true;
+                    break;
+                case "-clients":
+                    clients = Integer.parseInt(args[++i]);
+                    break;
+                case "-rmi":
+                    rmi = Integer.parseInt(args[++i]);
+                    break;
+                case "-minutes":
+                    minutes = Double.parseDouble(args[++i]);
+                    break;
+                case "-think":
+                    think = Integer.parseInt(args[++i]);
+                    break;
+                case "-tools":
+                    tools = Double.parseDouble(args[++i]);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+        if (rmi == null)
+            rmi = clients / 2;
+
+        quiet();
+        if (embedded && !MainServer.start())
+            throw new IllegalArgumentException("the server could not read config.txt");
+
+        LoadGenerator load = new LoadGenerator(think, tools, threads);
+        Connection consumer = rmi < clients ? new NetworkSocket(0) : null;
+        List<SimulatedClient> players = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            Connection connection = i < rmi ? new NetworkRmi(server) : new NetworkSocket(server);
+            players.add(new SimulatedClient(load, "sim" + i, connection, i < rmi ? null : consumer, i));
+        }
+
+        long start = System.nanoTime();
+        for (SimulatedClient player : players)
+            load.getScheduler().execute(player::join);
+        Thread.sleep((long) (minutes * 60000));
+        load.running = false;
+        load.report(out, players, System.nanoTime() - start);
+    }
+
+    /**
+     * the server and the connections log every call: the load test pays for building the lines, not for printing them
+     */
+    private static void quiet() {
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+                // discarded
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                // discarded
+            }
+        }));
+    }
+}
@@ -0,0 +1,353 @@
+package benchmarks.load;
+
+import server.LegalityIndex;
+import server.Overlay;
+import server.Window;
+import shared.Cell;
+import shared.Dice;
+import shared.Position;
+import shared.PositionR;
+import shared.TransferObjects.GameDeltaT;
+import shared.TransferObjects.GameManagerT;
+import shared.TransferObjects.PlayerT;
+import shared.TransferObjects.ToolCT;
+import shared.network.Connection;
+import shared.network.MethodConnectionException;
+import shared.network.RemoteMethod;
+import shared.network.SharedProxyClient;
+import shared.network.rmi.NetworkRmi;
+
+import java.rmi.Remote;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * a player without a view: it joins a table, chooses one of its windows at random and, in each of its turns,
+ * either uses a tool card with random but plausible arguments or places a random dice of the pool where the rules
+ * allow it, then ends the turn. Every call to the server is timed by the {@link LoadGenerator}; when a game is over
+ * the player joins another one, with a new uuid, until the load test ends
+ */
+final class SimulatedClient implements SharedProxyClient {
+
+    private static final String SERVER_INTERFACE = "ProxyServer";
+    private static final String TOOL_NAME = "ToolC";
+    private static final int WINDOW_ATTEMPTS = 20;
+
+    private final LoadGenerator load;
+    private final String name;
+    private final Connection connection;
+    private final Connection consumer;
+    private final boolean isSocket;
+    private final Random rand;
+
+    private final Object viewLock = new Object();
+    private GameManagerT view = null;
+    private Integer viewVersion = null;
+
+    private volatile String uuid;
+    private int games = 0;
+
+    /**
+     * build the player
+     * @param load which times its calls and runs its moves
+     * @param name unique among the simulated players
+     * @param connection towards the server, a {@code NetworkSocket} or a {@code NetworkRmi} client
+     * @param consumer the socket server which receives the calls of the server to the players on sockets,
+     *                 or null if this one is on RMI
+     * @param seed of its random moves
+     */
+    SimulatedClient(LoadGenerator load, String name, Connection connection, Connection consumer, long seed) {
+        this.load = load;
+        this.name = name;
+        this.connection = connection;
+        this.consumer = consumer;
+        this.isSocket = consumer != null;
+        this.rand = new Random(seed);
+        if (!isSocket)
+            NetworkRmi.remotize(this, 0);
+    }
+
+    boolean isSocket() {
+        return isSocket;
+    }
+
+    /**
+     * join a new table, with a new uuid, if the load test is still running
+     */
+    void join() {
+        if (!load.isRunning())
+            return;
+        games++;
+        uuid = name + "-" + games;
+        synchronized (viewLock) {
+            view = null;
+            viewVersion = null;
+        }
+        long start = System.nanoTime();
+        String answer = startGame(name + "#" + games);
+        load.joined(System.nanoTime() - start, answer != null && answer.startsWith("Connections successful"));
+    }
+
+    /**
+     * call
+     * @param method on the server, timing it, with
+     * @param args after the uuid
+     * @return the answer of the server, or null if it could not be reached
+     */
+    private Object call(RemoteMethod method, Object... args) {
+        Object[] argList = new Object[args.length + 1];
+        argList[0] = uuid;
+        System.arraycopy(args, 0, argList, 1, args.length);
+        return callRaw(method, argList);
+    }
+
+    private Object callRaw(RemoteMethod method, Object[] argList) {
+        long start = System.nanoTime();
+        try {
+            Object answer = connection.invokeMethod(SERVER_INTERFACE, method, argList);
+            load.called(method, System.nanoTime() - start, Boolean.FALSE.equals(answer));
+            return answer;
+        } catch (MethodConnectionException mce) {
+            load.failed(method);
+            return null;
+        }
+    }
+
+    /**
+     * play a turn on the status held, which the server updated before enabling this player
+     */
+    private void play() {
+        GameManagerT game;
+        synchronized (viewLock) {
+            game = view;
+        }
+        if (game != null && game.pos != null && game.pos >= 0 && game.pos < game.vPlayers.size()) {
+            PlayerT me = game.vPlayers.get(game.pos);
+            Overlay overlay = new Overlay();
+            for (int r = 0; r < LegalityIndex.ROWS; r++)
+                for (int c = 0; c < LegalityIndex.COLUMNS; c++)
+                    if (me.overlay[r][c] != null)
+                        overlay.setDicePosition(me.overlay[r][c], Position.of(r, c));
+            if (!(rand.nextDouble() < load.getToolChance() && useRandomTool(game, me, overlay)))
+                placeRandomDice(game, me, overlay);
+        }
+        endTurn();
+    }
+
+    /**
+     * place a dice of the pool in a cell where the rules allow it, if there is one
+     */
+    private void placeRandomDice(GameManagerT game, PlayerT me, Overlay overlay) {
+        Window window = new Window(me.window.cells, me.window.name, 0);
+        int busy = overlay.getLegality().getBusy();
+        List<Integer> dices = new ArrayList<>();
+        List<Integer> cells = new ArrayList<>();
+        for (int i = 0; i < game.pool.size(); i++) {
+            Dice dice = game.pool.get(i);
+            if (dice == null)
+                continue;
+            int legal = window.legalCells(overlay, busy == 0, dice, true, true) & ~busy;
+            if (legal != 0) {
+                dices.add(i);
+                cells.add(legal);
+            }
+        }
+        if (dices.isEmpty())
+            return;
+        int choice = rand.nextInt(dices.size());
+        placeDice(dices.get(choice), pick(cells.get(choice)));
+    }
+
+    /**
+     * use a random tool card the player can pay for, moving dices from busy cells to free ones
+     * @return if the server accepted it
+     */
+    private boolean useRandomTool(GameManagerT game, PlayerT me, Overlay overlay) {
+        if (game.toolCards.isEmpty() || game.pool.isEmpty())
+            return false;
+        int slot = rand.nextInt(game.toolCards.size());
+        ToolCT card = game.toolCards.get(slot);
+        if (me.tokens == null || card.tokensRequired == null || me.tokens < card.tokensRequired)
+            return false;
+        int tool;
+        try {
+            tool = Integer.parseInt(card.name.substring(TOOL_NAME.length()));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return false;
+        }
+        int busy = overlay.getLegality().getBusy();
+        int free = LegalityIndex.ALL & ~busy;
+        boolean moves = tool == 2 || tool == 3 || tool == 4 || tool == 12;
+        List<Integer> rounds = new ArrayList<>();
+        for (int i = 0; i < game.roundTrack.size(); i++)
+            if (!game.roundTrack.get(i).isEmpty())
+                rounds.add(i);
+        PositionR pr = rounds.isEmpty() ? new PositionR(0, 0) :
+                new PositionR(rounds.get(rand.nextInt(rounds.size())), 0);
+        Integer i3 = tool == 1 ? (rand.nextBoolean() ? 1 : -1) : 1 + rand.nextInt(6);
+        return Boolean.TRUE.equals(useToolC(slot, pick(moves ? busy : free), pick(free), pick(busy), pick(free), pr,
+                rand.nextInt(game.pool.size()), i3));
+    }
+
+    /**
+     * @return a random position among the
+     * @param cells , or anywhere if there is none
+     */
+    private Position pick(int cells) {
+        if (cells == 0)
+            return Position.of(rand.nextInt(LegalityIndex.ROWS), rand.nextInt(LegalityIndex.COLUMNS));
+        List<Position> positions = LegalityIndex.positions(cells);
+        return positions.get(rand.nextInt(positions.size()));
+    }
+
+    /**
+     * the game is over for this player: count the share of the game it played and join another one
+     */
+    private void gameOver() {
+        int players;
+        synchronized (viewLock) {
+            players = view == null ? 1 : Math.max(1, view.vPlayers.size());
+        }
+        load.finished(players);
+        load.getScheduler().schedule(this::join, load.getThink(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public String startGame(String nick) {
+        Remote stub = this;
+        Integer port = -1;
+        String ip = connection.getLocalIp();
+        if (isSocket) {
+            consumer.export(this, uuid);
+            port = consumer.getListeningPort();
+            ip = consumer.getLocalIp();
+            stub = null;
+        }
+        return (String) callRaw(RemoteMethod.START_GAME, new Object[]{uuid, nick, ip, port, isSocket, stub});
+    }
+
+    @Override
+    public void updateView(GameManagerT gameManager) {
+        synchronized (viewLock) {
+            view = gameManager;
+        }
+    }
+
+    /**
+     * the status held is patched as the client does, asking for a snapshot when an update was lost
+     * @param delta {@link GameDeltaT}
+     */
+    @Override
+    public void updateViewDelta(GameDeltaT delta) {
+        synchronized (viewLock) {
+            if (delta.isStaleFor(viewVersion))
+                return;
+            if (delta.isSnapshot()) {
+                view = delta.snapshot;
+            } else if (view != null && delta.baseVersion.equals(viewVersion)) {
+                view = delta.applyTo(view);
+            } else {
+                view = null;
+                viewVersion = null;
+                load.getScheduler().execute(this::resyncView);
+                return;
+            }
+            viewVersion = delta.version;
+        }
+    }
+
+    /**
+     * the server asks for the window while it is still sending the choices to the other players,
+     * so the answer is sent later, and again until the server is ready for it
+     */
+    @Override
+    public Boolean chooseWindow(ArrayList<Integer> windows, ArrayList<Cell[][]> matrices) {
+        Integer window = windows.get(rand.nextInt(windows.size()));
+        chooseWindowLater(window, WINDOW_ATTEMPTS);
+        return true;
+    }
+
+    private void chooseWindowLater(Integer window, int attempts) {
+        load.getScheduler().schedule(() -> {
+            if (!Boolean.TRUE.equals(chooseWindowBack(window)) && attempts > 1)
+                chooseWindowLater(window, attempts - 1);
+        }, Math.max(load.getThink(), 50), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Boolean ping() {
+        return true;
+    }
+
+    @Override
+    public void aPrioriWin() {
+        gameOver();
+    }
+
+    @Override
+    public void enable() {
+        load.getScheduler().schedule(this::play, load.getThink(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void shut() {
+        // the turn is over: nothing is shown
+    }
+
+    @Override
+    public void printScore(ArrayList<String> nicks, ArrayList<Integer> scores, ArrayList<Boolean> winner) {
+        gameOver();
+    }
+
+    @Override
+    public Boolean chooseWindowBack(Integer window) {
+        return (Boolean) call(RemoteMethod.CHOOSE_WINDOW_BACK, window);
+    }
+
+    @Override
+    public Boolean startGameViewForced() {
+        return true;
+    }
+
+    @Override
+    public Boolean placeDice(Integer index, Position p) {
+        return (Boolean) call(RemoteMethod.PLACE_DICE, index, p);
+    }
+
+    @Override
+    public Boolean useToolC(Integer i1, Position p1, Position p2, Position p3, Position p4, PositionR pr, Integer i2, Integer i3) {
+        return (Boolean) call(RemoteMethod.USE_TOOL_C, i1, p1, p2, p3, p4, pr, i2, i3);
+    }
+
+    @Override
+    public void exitGame2() {
+        call(RemoteMethod.EXIT_GAME_2);
+    }
+
+    @Override
+    public void endTurn() {
+        call(RemoteMethod.END_TURN);
+    }
+
+    @Override
+    public void updateViewFromC() {
+        call(RemoteMethod.UPDATE_VIEW_FROM_C);
+    }
+
+    @Override
+    public Boolean exitGame1() {
+        return (Boolean) call(RemoteMethod.EXIT_GAME_1);
+    }
+
+    @Override
+    public void onTimeStatus(String s1, String s2) {
+        // nothing is shown
+    }
+
+    @Override
+    public void resyncView() {
+        call(RemoteMethod.RESYNC_VIEW);
+    }
+}
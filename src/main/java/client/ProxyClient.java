@@ -4,8 +4,10 @@ import shared.Cell;
 import shared.Logger;
 import shared.Position;
 import shared.PositionR;
+import shared.TransferObjects.GameDeltaT;
 import shared.TransferObjects.GameManagerT;
 import shared.network.MethodConnectionException;
+import shared.network.RemoteMethod;
 import shared.network.SharedProxyClient;
 import shared.network.Connection;
 import shared.network.rmi.NetworkRmi;
@@ -31,6 +33,9 @@ public final class ProxyClient implements SharedProxyClient {
     private static Connection connection = null;
     private static Boolean isSocket = false;
     private static ProxyClient instance = new ProxyClient();
+    private static final Object viewLock = new Object();
+    private static GameManagerT view = null;
+    private static Integer viewVersion = null;
 
     /**
      * Private constructor, prevents external access and uncontrolled instantiation of the class: use the static method
@@ -98,9 +103,9 @@ public final class ProxyClient implements SharedProxyClient {
             stub = null;
         }
         Object[] args = {uuid, nick, connection.getLocalIp(), port, isSocket, stub};
-        String methodName = "startGame";
+        RemoteMethod method = RemoteMethod.START_GAME;
         try {
-            return (String) connection.invokeMethod(SERVER_INTERFACE, methodName, args);
+            return (String) connection.invokeMethod(SERVER_INTERFACE, method, args);
         } catch (MethodConnectionException mce) {
             return "Connection error";
         }
@@ -121,6 +126,43 @@ public final class ProxyClient implements SharedProxyClient {
         }
     }
 
+    /**
+     * <strong>Local</strong><br>
+     * The match status held by this class is replaced by a snapshot, or patched with a delta whose base version is the
+     * one held; a delta with any other base version means that some update was lost, so the status is dropped and a
+     * snapshot is requested to the server, on a separate thread since the server could be waiting for this call to
+     * return. Stale updates, with a version older than the one held, are ignored; an update with no changes from the
+     * version held answers a view asked by the <b>view</b> while the match did not change, so the status is shown again.<br>
+     * The <b>view</b> receives a copy of the status, so it can freely modify it
+     * @param delta {@link GameDeltaT}
+     * @see shared.network.SharedProxyClient#updateViewDelta(GameDeltaT)
+     */
+    @Override
+    public void updateViewDelta(GameDeltaT delta) {
+        GameManagerT next;
+        synchronized (viewLock) {
+            if (delta.isStaleFor(viewVersion)) {
+                return;
+            }
+            if (delta.isSnapshot()) {
+                view = delta.snapshot;
+            } else if (view != null && delta.baseVersion.equals(viewVersion)) {
+                view = delta.applyTo(view);
+            } else {
+                view = null;
+                viewVersion = null;
+                Thread resync = new Thread(this::resyncView, "view-resync");
+                resync.setDaemon(true);
+                resync.start();
+                return;
+            }
+            viewVersion = delta.version;
+            next = new GameManagerT(view.vPlayers, view.publicOCs, view.toolCards, view.roundTrack, view.pool,
+                    view.online, view.offline, view.pos);
+        }
+        updateView(next);
+    }
+
     /**
      * <strong>Local</strong><br>
      * @param windows {@code ArrayList<Integer>}
@@ -229,9 +271,9 @@ public final class ProxyClient implements SharedProxyClient {
      */
     public Boolean chooseWindowBack(Integer window) {
         Object[] args = {uuid, window};
-        String methodName = "chooseWindowBack";
+        RemoteMethod method = RemoteMethod.CHOOSE_WINDOW_BACK;
         try {
-            return (Boolean) connection.invokeMethod(SERVER_INTERFACE, methodName, args);
+            return (Boolean) connection.invokeMethod(SERVER_INTERFACE, method, args);
         } catch (MethodConnectionException mce) {
             return false;
         }
@@ -246,9 +288,9 @@ public final class ProxyClient implements SharedProxyClient {
      */
     public Boolean placeDice(Integer index, Position p) {
         Object[] args = {uuid, index, p};
-        String methodName = "placeDice";
+        RemoteMethod method = RemoteMethod.PLACE_DICE;
         try {
-            return (Boolean) connection.invokeMethod(SERVER_INTERFACE, methodName, args);
+            return (Boolean) connection.invokeMethod(SERVER_INTERFACE, method, args);
         } catch (MethodConnectionException mce) {
             return false;
         }
@@ -270,9 +312,9 @@ public final class ProxyClient implements SharedProxyClient {
     @Override
     public Boolean useToolC(Integer i1, Position p1, Position p2, Position p3, Position p4, PositionR pr, Integer i2, Integer i3) {
         Object[] args = {uuid, i1, p1, p2, p3, p4, pr, i2, i3};
-        String methodName = "useToolC";
+        RemoteMethod method = RemoteMethod.USE_TOOL_C;
         try {
-            return (Boolean) connection.invokeMethod(SERVER_INTERFACE, methodName, args);
+            return (Boolean) connection.invokeMethod(SERVER_INTERFACE, method, args);
         } catch (MethodConnectionException mce) {
             return false;
         }
@@ -285,9 +327,9 @@ public final class ProxyClient implements SharedProxyClient {
     @Override
     public void exitGame2() {
         Object[] args = {uuid};
-        String methodName = "exitGame2";
+        RemoteMethod method = RemoteMethod.EXIT_GAME_2;
         try {
-            connection.invokeMethod(SERVER_INTERFACE, methodName, args);
+            connection.invokeMethod(SERVER_INTERFACE, method, args);
         } catch (MethodConnectionException mce) {
             Logger.log("Unable to inform server of the log out");
         } finally {
@@ -302,9 +344,24 @@ public final class ProxyClient implements SharedProxyClient {
     @Override
     public void endTurn() {
         Object[] args = {uuid};
-        String methodName = "endTurn";
+        RemoteMethod method = RemoteMethod.END_TURN;
+        try {
+            connection.invokeMethod(SERVER_INTERFACE, method, args);
+        } catch (MethodConnectionException mce) {
+            Logger.strace(mce);
+        }
+    }
+
+    /**
+     * <strong>Remote</strong><br>
+     * @see shared.network.SharedProxyClient#resyncView()
+     */
+    @Override
+    public void resyncView() {
+        Object[] args = {uuid};
+        RemoteMethod method = RemoteMethod.RESYNC_VIEW;
         try {
-            connection.invokeMethod(SERVER_INTERFACE, methodName, args);
+            connection.invokeMethod(SERVER_INTERFACE, method, args);
         } catch (MethodConnectionException mce) {
             Logger.strace(mce);
         }
@@ -317,9 +374,9 @@ public final class ProxyClient implements SharedProxyClient {
     @Override
     public void updateViewFromC() {
         Object[] args = {uuid};
-        String methodName = "updateViewFromC";
+        RemoteMethod method = RemoteMethod.UPDATE_VIEW_FROM_C;
         try {
-            connection.invokeMethod(SERVER_INTERFACE, methodName, args);
+            connection.invokeMethod(SERVER_INTERFACE, method, args);
         } catch (MethodConnectionException mce) {
             Logger.strace(mce);
         }
@@ -333,9 +390,9 @@ public final class ProxyClient implements SharedProxyClient {
     @Override
     public Boolean exitGame1() {
         Object[] args = {uuid};
-        String methodName = "exitGame1";
+        RemoteMethod method = RemoteMethod.EXIT_GAME_1;
         try {
-            return (Boolean) connection.invokeMethod(SERVER_INTERFACE, methodName, args);
+            return (Boolean) connection.invokeMethod(SERVER_INTERFACE, method, args);
         } catch (MethodConnectionException mce) {
             Logger.log("Unable to inform server of the log out");
         } finally {
@@ -132,7 +132,7 @@ public class MainCLI {
         Integer c;
         r = readInput.nextInt();
         c = readInput.nextInt();
-        Position p = new Position(r - 1, c - 1);
+        Position p = Position.of(r - 1, c - 1);
         if (ProxyClient.getInstance().placeDice(index, p)) {
             ProxyClient.getInstance().updateViewFromC();
         } else {
@@ -165,7 +165,7 @@ public class MainCLI {
                         .a("Choose a placement position on the window (row column): ").fgDefault());
                 row = readInput.nextInt();
                 col = readInput.nextInt();
-                p1 = new Position(row, col);
+                p1 = Position.of(row, col);
                 break;
             case "ToolC2":
             case "ToolC3":
@@ -173,34 +173,34 @@ public class MainCLI {
                         .a("Starting position (row column): ").fgDefault());
                 row = readInput.nextInt();
                 col = readInput.nextInt();
-                p1 = new Position(row, col);
+                p1 = Position.of(row, col);
                 AnsiConsole.out().print(ansi().fgBrightRed()
                         .a("Desired position (row column): ").fgDefault());
                 row = readInput.nextInt();
                 col = readInput.nextInt();
-                p2 = new Position(row, col);
+                p2 = Position.of(row, col);
                 break;
             case "ToolC4":
                 AnsiConsole.out().print(ansi().fgBrightRed()
                         .a("First starting position (row column): ").fgDefault());
                 row = readInput.nextInt();
                 col = readInput.nextInt();
-                p1 = new Position(row, col);
+                p1 = Position.of(row, col);
                 AnsiConsole.out().print(ansi().fgBrightRed()
                         .a("First desired position (row column): ").fgDefault());
                 row = readInput.nextInt();
                 col = readInput.nextInt();
-                p2 = new Position(row, col);
+                p2 = Position.of(row, col);
                 AnsiConsole.out().print(ansi().fgBrightRed()
                         .a("Second starting position (row column): ").fgDefault());
                 row = readInput.nextInt();
                 col = readInput.nextInt();
-                p3 = new Position(row, col);
+                p3 = Position.of(row, col);
                 AnsiConsole.out().print(ansi().fgBrightRed()
                         .a("Second desired position (row column): ").fgDefault());
                 row = readInput.nextInt();
                 col = readInput.nextInt();
-                p4 = new Position(row, col);
+                p4 = Position.of(row, col);
                 break;
             case "ToolC5":
                 AnsiConsole.out().print(ansi().fgBrightRed()
@@ -209,7 +209,7 @@ public class MainCLI {
                         .a("Choose a placement position on the window (row column): ").fgDefault());
                 row = readInput.nextInt();
                 col = readInput.nextInt();
-                p1 = new Position(row, col);
+                p1 = Position.of(row, col);
                 AnsiConsole.out().print(ansi().fgBrightRed()
                         .a("Pick a position on the round track (column height): ").fgDefault());
                 col = readInput.nextInt();
@@ -227,7 +227,7 @@ public class MainCLI {
                         .a("Choose a placement position on the window (row column): ").fgDefault());
                 row = readInput.nextInt();
                 col = readInput.nextInt();
-                p1 = new Position(row, col);
+                p1 = Position.of(row, col);
                 break;
             case "ToolC11":
                 AnsiConsole.out().print(ansi().fgBrightRed()
@@ -237,7 +237,7 @@ public class MainCLI {
                         .a("Choose a placement position on the window (row column): ").fgDefault());
                 row = readInput.nextInt();
                 col = readInput.nextInt();
-                p1 = new Position(row, col);
+                p1 = Position.of(row, col);
                 AnsiConsole.out().print(ansi().fgBrightRed()
                         .a("Choose value for selected dice: ").fgDefault());
                 i3 = readInput.nextInt();
@@ -247,22 +247,22 @@ public class MainCLI {
                         .a("First starting position (row column): ").fgDefault());
                 row = readInput.nextInt();
                 col = readInput.nextInt();
-                p1 = new Position(row, col);
+                p1 = Position.of(row, col);
                 AnsiConsole.out().print(ansi().fgBrightRed()
                         .a("First desired position (row column): ").fgDefault());
                 row = readInput.nextInt();
                 col = readInput.nextInt();
-                p2 = new Position(row, col);
+                p2 = Position.of(row, col);
                 AnsiConsole.out().print(ansi().fgBrightRed()
                         .a("Second starting position (row column): ").fgDefault());
                 row = readInput.nextInt();
                 col = readInput.nextInt();
-                p3 = new Position(row, col);
+                p3 = Position.of(row, col);
                 AnsiConsole.out().print(ansi().fgBrightRed()
                         .a("Second desired position (row column): ").fgDefault());
                 row = readInput.nextInt();
                 col = readInput.nextInt();
-                p4 = new Position(row, col);
+                p4 = Position.of(row, col);
                 AnsiConsole.out().print(ansi().fgBrightRed()
                         .a("Pick a position on the round track (column height): ").fgDefault());
                 col = readInput.nextInt();
@@ -426,7 +426,7 @@ public class MainCLI {
     private void printPlayerInfo(PlayerT p) {
         AnsiConsole.out.println(ansi().fgBrightRed().a("Turn number: ").fgDefault().a(Integer.toString(p.turno)));
         AnsiConsole.out.print(ansi().fgBrightRed().a("Private objective: ").fgDefault());
-        printCell(new Cell(null, p.privateO));
+        printCell(Cell.of(null, p.privateO));
         AnsiConsole.out().print('\n');
         AnsiConsole.out.println(ansi().fgBrightRed().a("Public objectives:").fgDefault());
         for (String s : gm.publicOCs) {
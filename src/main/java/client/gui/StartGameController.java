@@ -330,7 +330,7 @@ public class StartGameController implements Initializable {
       */
     private void addPosition(int row, int column) {
         if (counterPositionGame < 4) {
-            positions[counterPositionGame] = new Position(row, column);
+            positions[counterPositionGame] = Position.of(row, column);
             counterPositionGame++;
         } else {
             Logger.log("Over limit of positions!");
@@ -448,9 +448,7 @@ public class StartGameController implements Initializable {
     @FXML
     private void placeDice(ActionEvent event) {
 
-        Position diceGridPosition = new Position();
-        diceGridPosition.setRow(rowIndex);
-        diceGridPosition.setColumn(colIndex);
+        Position diceGridPosition = Position.of(rowIndex, colIndex);
 
         Boolean placed = proxyClient.placeDice(positionPoolDice, diceGridPosition);
         if(placed==false){
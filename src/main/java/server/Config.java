@@ -9,12 +9,22 @@ import java.util.regex.Pattern;
 public class Config {
     /**
      * respectively,
-     * timeout of the GameGenerator
+     * timeout of the lobbies, to form a table which is not full
      * timeout for each player to play
      * timeout for initialization of graphics
      * timeout to show server status after its initialization
      * timeout of each real time online check
      * max number of players the server currently handles
+     * number of socket I/O threads (0 keeps a thread for each connection), optional
+     * number of threads running the socket requests in non blocking mode, with the cached executor backend, optional
+     * codec of the socket requests sent to the players (0 java serialization, 1 binary), optional
+     * backend of the executors of the server (0 cached, 1 fixed, 2 virtual threads), optional
+     * number of threads of each executor with the fixed backend, and of workers running the remote calls, optional
+     * seconds between two snapshots of the metrics written to metrics.txt (0 writes none), optional
+     * least severe level of the log (0 debug, 1 info, 2 warnings, 3 errors), optional
+     * size in MB after which the log file server.log is rolled (0 logs on the console), optional
+     * ms during which the views asked by a player are gathered in a single update, optional
+     * ms each socket call to a player waits for its answer, optional
      */
     private static Config config;
     public final Integer timeout1;
@@ -24,6 +34,16 @@ public class Config {
     public final Integer timeout5;
     public final Integer timeout6;
     public final Integer maxActivePlayerRefs;
+    public final Integer socketIoThreads;
+    public final Integer socketDispatchThreads;
+    public final Integer socketCodec;
+    public final Integer executor;
+    public final Integer executorThreads;
+    public final Integer metricsPeriod;
+    public final Integer logLevel;
+    public final Integer logFileSize;
+    public final Integer viewDebounce;
+    public final Integer socketCallTimeout;
 
     public Config(Boolean test) {
 
@@ -34,6 +54,16 @@ public class Config {
         this.timeout5 = 5000;
         this.timeout6 = 200;
         this.maxActivePlayerRefs = 6;
+        this.socketIoThreads = 0;
+        this.socketDispatchThreads = 8;
+        this.socketCodec = 1;
+        this.executor = 0;
+        this.executorThreads = 64;
+        this.metricsPeriod = 0;
+        this.logLevel = 1;
+        this.logFileSize = 0;
+        this.viewDebounce = 20;
+        this.socketCallTimeout = 15000;
     }
 
     public static void test(){
@@ -49,6 +79,26 @@ public class Config {
         timeout5 = timers.remove(0);
         timeout6 = timers.remove(0);
         maxActivePlayerRefs = timers.remove(0);
+        socketIoThreads = next(timers, 0);
+        socketDispatchThreads = next(timers, 8);
+        socketCodec = next(timers, 1);
+        executor = next(timers, 0);
+        executorThreads = next(timers, 64);
+        metricsPeriod = next(timers, 0);
+        logLevel = next(timers, 1);
+        logFileSize = next(timers, 0);
+        viewDebounce = next(timers, 20);
+        socketCallTimeout = next(timers, 15000);
+    }
+
+    /**
+     * @return the next value read from the config file, or
+     * @param defaultValue if the file ended before it
+     */
+    private static Integer next(List<Integer> timers, Integer defaultValue) {
+        if (timers.isEmpty())
+            return defaultValue;
+        return timers.remove(0);
     }
 
     public static Config getConfig() {
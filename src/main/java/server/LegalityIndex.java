@@ -0,0 +1,177 @@
+package server;
+
+import shared.Packed;
+import shared.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * this keeps, for the overlay of a player, the bitmasks which tell where a dice can be placed:
+ * the busy cells, the cells next to a busy one, and for each color and shade the cells orthogonally
+ * adjacent to a dice of that color or shade. The cell in row r and column c is the bit 5 * r + c.
+ * A new dice updates the masks in place; removing a dice, or handing out the matrix of dices,
+ * makes them be built again from scratch the next time they are read
+ */
+public final class LegalityIndex {
+
+    public static final int ROWS = 4;
+    public static final int COLUMNS = 5;
+    public static final int ALL = (1 << ROWS * COLUMNS) - 1;
+
+    /**
+     * the cells on the edge of the window
+     */
+    public static final int EDGE;
+    private static final int[] ORTHOGONAL = new int[ROWS * COLUMNS];
+    private static final int[] AROUND = new int[ROWS * COLUMNS];
+
+    static {
+        int edge = 0;
+        for (int r = 0; r < ROWS; r++) {
+            for (int c = 0; c < COLUMNS; c++) {
+                int cell = r * COLUMNS + c;
+                if (r == 0 || r == ROWS - 1 || c == 0 || c == COLUMNS - 1)
+                    edge |= 1 << cell;
+                for (int dr = -1; dr <= 1; dr++) {
+                    for (int dc = -1; dc <= 1; dc++) {
+                        int bit = bit(r + dr, c + dc);
+                        if (dr == 0 && dc == 0 || bit == 0)
+                            continue;
+                        AROUND[cell] |= bit;
+                        if (dr == 0 || dc == 0)
+                            ORTHOGONAL[cell] |= bit;
+                    }
+                }
+            }
+        }
+        EDGE = edge;
+    }
+
+    private final Overlay overlay;
+    private boolean valid = true;
+    private int busy;
+    private int around;
+    private final int[] colorNear = new int[Packed.COLORS.length()];
+    private final int[] shadeNear = new int[Packed.SHADES];
+
+    /**
+     * build the index of
+     * @param overlay , still empty
+     */
+    LegalityIndex(Overlay overlay) {
+        this.overlay = overlay;
+    }
+
+    /**
+     * take the masks of
+     * @param from , the index of the overlay this one is a copy of
+     */
+    void copy(LegalityIndex from) {
+        valid = from.valid;
+        busy = from.busy;
+        around = from.around;
+        System.arraycopy(from.colorNear, 0, colorNear, 0, colorNear.length);
+        System.arraycopy(from.shadeNear, 0, shadeNear, 0, shadeNear.length);
+    }
+
+    /**
+     * @return the bit of the cell in
+     * @param row and
+     * @param column , or 0 if it is out of the window
+     */
+    public static int bit(int row, int column) {
+        if (row < 0 || row >= ROWS || column < 0 || column >= COLUMNS)
+            return 0;
+        return 1 << row * COLUMNS + column;
+    }
+
+    /**
+     * @return the bit of
+     * @param position , or 0 if it is not a valid position of the window
+     */
+    public static int bit(Position position) {
+        if (position == null || position.getRow() == null || position.getColumn() == null)
+            return 0;
+        return bit(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * @return the positions of the cells in
+     * @param mask , row by row
+     */
+    public static List<Position> positions(int mask) {
+        List<Position> positions = new ArrayList<>(Integer.bitCount(mask));
+        for (int bits = mask & ALL; bits != 0; bits &= bits - 1) {
+            int cell = Integer.numberOfTrailingZeros(bits);
+            positions.add(Position.of(cell / COLUMNS, cell % COLUMNS));
+        }
+        return positions;
+    }
+
+    /**
+     * the overlay put
+     * @param dice , packed, in the empty
+     * @param cell
+     */
+    void placed(byte dice, int cell) {
+        if (valid)
+            add(dice, cell);
+    }
+
+    /**
+     * the dices can have changed in any way: build the masks again before the next read
+     */
+    void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * @return the cells with a dice
+     */
+    public int getBusy() {
+        validate();
+        return busy;
+    }
+
+    /**
+     * @return the cells with at least a dice among the eight around them
+     */
+    public int getAround() {
+        validate();
+        return around;
+    }
+
+    /**
+     * @return the cells orthogonally adjacent to a dice with the same color or shade of
+     * @param dice , packed
+     */
+    public int getConflicts(byte dice) {
+        validate();
+        return colorNear[Packed.color(dice)] | shadeNear[Packed.shade(dice) - 1];
+    }
+
+    private void validate() {
+        if (valid)
+            return;
+        busy = 0;
+        around = 0;
+        for (int i = 0; i < colorNear.length; i++)
+            colorNear[i] = 0;
+        for (int i = 0; i < shadeNear.length; i++)
+            shadeNear[i] = 0;
+        for (int cell = 0; cell < ROWS * COLUMNS; cell++) {
+            byte dice = overlay.getPacked(cell);
+            if (dice != Packed.EMPTY)
+                add(dice, cell);
+        }
+        valid = true;
+    }
+
+    private void add(byte dice, int cell) {
+        busy |= 1 << cell;
+        around |= AROUND[cell];
+        colorNear[Packed.color(dice)] |= ORTHOGONAL[cell];
+        shadeNear[Packed.shade(dice) - 1] |= ORTHOGONAL[cell];
+    }
+}
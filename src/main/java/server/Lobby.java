@@ -0,0 +1,140 @@
+package server;
+
+import server.concurrency.ConcurrencyManager;
+import server.concurrency.TimerWheel;
+import shared.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * this is a waiting room for the players with the same preferences.
+ * A table is formed as soon as it is full; when there are enough players, but not
+ * enough to fill it, the timer starts and the table is formed when it runs out
+ */
+public class Lobby {
+    static final int MIN_PLAYERS = 2;
+    static final int MAX_PLAYERS = 4;
+
+    private final String key;
+    private final int min;
+    private final int max;
+    private final Integer sleepTime = Config.getConfig().timeout1;
+    private final Consumer<List<String>> tables;
+    private final LinkedList<String> waiting = new LinkedList<>();
+    private TimerWheel.Timeout timer;
+    private int generation = 0;
+
+    /**
+     * build a lobby
+     *
+     * @param tableSize the number of players of each table, or null to form tables from 2 to 4 players
+     * @param isSocket the transport of all the players, or null if they can use different ones
+     * @param tables which receives the players of each table formed
+     */
+    Lobby(Integer tableSize, Boolean isSocket, Consumer<List<String>> tables) {
+        this.key = keyOf(tableSize, isSocket);
+        this.min = tableSize == null ? MIN_PLAYERS : tableSize;
+        this.max = tableSize == null ? MAX_PLAYERS : tableSize;
+        this.tables = tables;
+    }
+
+    /**
+     * @return the name of the lobby for the given preferences
+     * @see #Lobby(Integer, Boolean, Consumer)
+     */
+    static String keyOf(Integer tableSize, Boolean isSocket) {
+        return (tableSize == null ? "any" : tableSize.toString()) + "/" +
+                (isSocket == null ? "any" : isSocket ? "socket" : "rmi");
+    }
+
+    /**
+     * put
+     *
+     * @param uUID in the queue, and form a table if it is full
+     */
+    void join(String uUID) {
+        List<String> table = null;
+        synchronized (this) {
+            waiting.addLast(uUID);
+            if (waiting.size() >= max) {
+                table = take();
+            } else if (waiting.size() >= min && timer == null) {
+                Logger.log(this + ": timer started, it runs out in " + sleepTime / 1000 + "s");
+                startTimer();
+            }
+        }
+        if (table != null)
+            tables.accept(table);
+    }
+
+    /**
+     * remove
+     *
+     * @param uUID from the queue, stopping the timer if there are not enough players anymore
+     * @return false if the player was not waiting here, for example because its table has been formed
+     */
+    synchronized boolean leave(String uUID) {
+        if (!waiting.remove(uUID))
+            return false;
+        if (waiting.size() < min)
+            stopTimer();
+        return true;
+    }
+
+    /**
+     * @return the players waiting, in order of arrival
+     */
+    synchronized List<String> getWaiting() {
+        return new ArrayList<>(waiting);
+    }
+
+    /**
+     * @param generation of the timer which ran out: if it has been stopped meanwhile, nothing happens
+     */
+    private void expired(int generation) {
+        List<String> table = null;
+        synchronized (this) {
+            if (generation != this.generation)
+                return;
+            timer = null;
+            if (waiting.size() >= min)
+                table = take();
+        }
+        if (table != null)
+            tables.accept(table);
+    }
+
+    /**
+     * @return the first players of the queue, as many as a table can hold
+     */
+    private List<String> take() {
+        stopTimer();
+        List<String> table = new ArrayList<>();
+        while (table.size() < max && !waiting.isEmpty())
+            table.add(waiting.removeFirst());
+        if (waiting.size() >= min)
+            startTimer();
+        return table;
+    }
+
+    private void startTimer() {
+        int current = ++generation;
+        timer = ConcurrencyManager.schedule(() -> expired(current), sleepTime);
+    }
+
+    private void stopTimer() {
+        if (timer != null) {
+            generation++;
+            timer.cancel();
+            timer = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Lobby " + key;
+    }
+}
@@ -2,13 +2,36 @@ package server;
 
 
 import shared.Dice;
+import shared.Packed;
 import shared.Position;
 
 import java.io.*;
 
+/**
+ * the dices placed by a player. Besides the matrix of dices, each cell is kept packed in a byte
+ * (see {@link Packed}), which is what the checks and the scores read
+ */
 public class Overlay {
 
     private Dice[][] dicePositions = new Dice[4][5];
+    private final byte[] packed = new byte[LegalityIndex.ROWS * LegalityIndex.COLUMNS];
+    private boolean stale = false;
+    private final LegalityIndex legality = new LegalityIndex(this);
+
+    public Overlay() {
+    }
+
+    /**
+     * copy
+     * @param overlay with its dices (the same ones, which never change), packed cells and legality masks,
+     * so nothing has to be built again
+     */
+    public Overlay(Overlay overlay) {
+        dicePositions = Dice.copyOf(overlay.dicePositions);
+        System.arraycopy(overlay.packed, 0, packed, 0, packed.length);
+        stale = overlay.stale;
+        legality.copy(overlay.legality);
+    }
 
     /**
      * check whether the position
@@ -72,12 +95,60 @@ public class Overlay {
         return str;
     }
 
+    /**
+     * the matrix can be changed by the caller, so the packed cells and the legality index are built again
+     * before their next use: to only read the dices, use {@link #copyDicePositions()}
+     */
     public Dice[][] getDicePositions() {
+        stale = true;
+        legality.invalidate();
         return this.dicePositions;
     }
 
+    /**
+     * @return a copy of the matrix of the dices, leaving the packed cells and the legality index as they are
+     */
+    public Dice[][] copyDicePositions() {
+        return Dice.copyOf(dicePositions);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the dice can't be packed
+     * @see Packed#pack(Dice)
+     */
     public void setDicePosition(Dice dice, Position position) {
+        byte cell = Packed.pack(dice);
+        int index = position.getRow() * LegalityIndex.COLUMNS + position.getColumn();
+        Dice old = this.dicePositions[position.getRow()][position.getColumn()];
         this.dicePositions[position.getRow()][position.getColumn()] = dice;
+        if (stale)
+            return;
+        packed[index] = cell;
+        if (dice != null && old == null)
+            legality.placed(cell, index);
+        else
+            legality.invalidate();
+    }
+
+    /**
+     * @return the dice in the
+     * @param cell , row * 5 + column, packed in a byte
+     */
+    public byte getPacked(int cell) {
+        if (stale) {
+            for (int r = 0; r < LegalityIndex.ROWS; r++)
+                for (int c = 0; c < LegalityIndex.COLUMNS; c++)
+                    packed[r * LegalityIndex.COLUMNS + c] = Packed.pack(dicePositions[r][c]);
+            stale = false;
+        }
+        return packed[cell];
+    }
+
+    /**
+     * @return the masks of the cells where the dices can be placed
+     */
+    public LegalityIndex getLegality() {
+        return legality;
     }
 
 }
\ No newline at end of file
@@ -28,7 +28,7 @@ public class Player {
     public Player(GameManager gameManager, String uUID) {
         this.uUID = uUID;
         this.game = gameManager;
-        this.lastPlacedFromPool = new Position(-1, -1);
+        this.lastPlacedFromPool = Position.of(-1, -1);
         this.pool = gameManager.getPool();
         this.nickName = SReferences.getNickNameRef(uUID);
     }
@@ -129,12 +129,12 @@ public class Player {
                 game.addTCtokens(i1);
 
 
-                Logger.log(game + " player " + uUID + " effectively used " +
+                Logger.tagged(game, "player " + uUID + " effectively used " +
                         game.revealToolCard(nCard));
                 return true;
             }
         }
-        Logger.log(game + " player " + uUID + " attempt of unauthorized usage of ToolCard");
+        Logger.tagged(game, "player " + uUID + " attempt of unauthorized usage of ToolCard");
         return false;
 
     }
@@ -143,13 +143,23 @@ public class Player {
      * this is a updateview called from client. It comes in handy when the client
      * want to know immediately how things are.
      * each player can request this only in their turn.
+     * the update is only queued, so asking it many times does not hold the player nor build many views.
      *
      * @param uUID is the code of the player
      */
-    public synchronized void updateViewFromC(String uUID) {
+    public void updateViewFromC(String uUID) {
         game.updateView(uUID);
     }
 
+    /**
+     * called from client when it lost some update: next one will be a full snapshot
+     *
+     * @param uUID is the code of the player
+     */
+    public void resyncView(String uUID) {
+        game.resyncView(uUID);
+    }
+
     /**
      * @param possibleWindows are the windows the server allows to each player
      *                        during initialization of game
@@ -169,20 +179,14 @@ public class Player {
 
         score = game.usePublicO(this.overlay);
 
-        int i = 0;
-        int j = 0;
-
-        while (i < 4) {
-            while (j < 5) {
-                Dice dice = overlay.getDice(new Position(i, j));
-                if (dice != null && dice.getColor().equals(privateO))
-                    score = score + dice.getValue();
-                j++;
-            }
-            j = 0;
-            i++;
+        int color = privateO == null ? -1 : Packed.COLORS.indexOf(privateO);
+        int shades = 0;
+        for (int cell = 0; cell < LegalityIndex.ROWS * LegalityIndex.COLUMNS; cell++) {
+            byte dice = overlay.getPacked(cell);
+            if (dice != Packed.EMPTY && Packed.color(dice) == color)
+                shades += Packed.shade(dice);
         }
-        score = score + tokens;
+        score = score + shades + tokens;
         Logger.log("Player: " + uUID + " total score is " + score);
 
         return score;
@@ -193,7 +197,7 @@ public class Player {
      */
     private void hack() {
         if (nickName.equals("arna") || nickName.equals("fili") || nickName.equals("affo") || nickName.equals("cugola")) {
-            this.window = MatchManager.getWindows().get(0);
+            this.window = new Window(MatchManager.getWindows().get(0));
             this.setTokens();
         }
     }
@@ -303,7 +307,7 @@ public class Player {
             return false;
         }
         if (n != null && this.possibleWindows.contains(n)) {
-            this.window = MatchManager.getWindows().get(n);
+            this.window = new Window(MatchManager.getWindows().get(n));
             setTokens();
             hack();
             Logger.log("Player: " + uUID + " choose " + game.revealWindow(n) + ". It has: " + window.getTokens() + " tokens");
@@ -319,10 +323,10 @@ public class Player {
      * @param n to this player
      */
     public synchronized void setWindow(Integer n) {
-        this.window = MatchManager.getWindows().get(n);
+        this.window = new Window(MatchManager.getWindows().get(n));
         setTokens();
         hack();
-        Logger.log(game + " player " + uUID + " server assigned Window n° " + n + ". It has " + window.getTokens() +
+        Logger.tagged(game, "player " + uUID + " server assigned Window n° " + n + ". It has " + window.getTokens() +
                 " tokens. Will be forced start client-side");
     }
 
@@ -350,12 +354,12 @@ public class Player {
             if (window.placeDiceFromPool(this, index, position)) {
                 placedDiceA();
                 lastPlacedFromPool = position;
-                Logger.log(game + " player " + uUID + " effectively placed dice " +
+                Logger.tagged(game, "player " + uUID + " effectively placed dice " +
                         dice + " in position " + position);
                 return true;
             }
         }
-        Logger.log(game + " player " + uUID + " attempt of unauthorized placement of dice " +
+        Logger.tagged(game, "player " + uUID + " attempt of unauthorized placement of dice " +
                 "in position " + position);
         return false;
     }
@@ -9,6 +9,17 @@ import java.util.Random;
 public class Pool {
     private ArrayList<Dice> poolOfDice = new ArrayList<>();
 
+    public Pool() {
+    }
+
+    /**
+     * copy
+     * @param pool : the copy holds the same dices, which never change
+     */
+    public Pool(Pool pool) {
+        poolOfDice.addAll(pool.poolOfDice);
+    }
+
     public List<Dice> getDices() {
         return poolOfDice;
     }
@@ -19,10 +30,10 @@ public class Pool {
 
     public void shuffle() {
         Random rand = new Random();
-        for (Dice d :
-                poolOfDice) {
+        for (int i = 0; i < poolOfDice.size(); i++) {
+            Dice d = poolOfDice.get(i);
             if (d != null)
-                d.setValue(1 + rand.nextInt(6));
+                poolOfDice.set(i, d.withValue(1 + rand.nextInt(6)));
         }
     }
 
@@ -31,7 +42,7 @@ public class Pool {
         int i = 1;
         while (i < 7) {
             if (value == i) {
-                getDice(index).setValue(7 - i);
+                setDice(index, getDice(index).withValue(7 - i));
                 break;
             }
             i++;
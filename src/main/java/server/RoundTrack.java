@@ -16,6 +16,16 @@ public class RoundTrack {
         }
     }
 
+    /**
+     * copy
+     * @param roundTrack : the copy holds the same dices, which never change
+     */
+    public RoundTrack(RoundTrack roundTrack) {
+        for (List<Dice> round :
+                roundTrack.dices)
+            dices.add(new ArrayList<>(round));
+    }
+
     public List<ArrayList<Dice>> getDices() {
         return dices;
     }
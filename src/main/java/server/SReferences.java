@@ -2,14 +2,19 @@ package server;
 
 import server.threads.GameManager;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * this is where every information about the clients is stored. It gives
  * the number of currently playing clients,
  * the reference of the virtual player, and the reference of the gameManager,
- * among high granular details
+ * among high granular details.
+ * Each client has its own session, found by its uUID without any lock;
+ * only adding and removing a client synchronize, to recycle the slots
  */
 public class SReferences {
 
@@ -17,145 +22,210 @@ public class SReferences {
 
     //CAUTION: Do not synchronize on MatchManager.obj2, possible deadlock
 
-    private static Integer activePlayer = 0;
-
-    private static ArrayList<String> uuidRef = new ArrayList<>();
-    private static ArrayList<String> ipRef = new ArrayList<>();
-    private static ArrayList<Integer> portRef = new ArrayList<>();
-    private static ArrayList<Boolean> isSocketRef = new ArrayList<>();
-    private static ArrayList<String> nickNameRef = new ArrayList<>();
-    private static ArrayList<Player> playerRef = new ArrayList<>();
-    private static ArrayList<GameManager> gameRef = new ArrayList<>();
-
-
-    public static synchronized Integer getActivePlayer() {
-        return activePlayer;
+    private static final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private static final Map<String, Set<String>> nickNames = new ConcurrentHashMap<>();
+    private static final BitSet slots = new BitSet();
+
+    /**
+     * everything known about a client; the slot is the position it would have had in the old lists,
+     * the lowest one free when it connected
+     */
+    private static final class Session {
+        private final int slot;
+        private volatile String ip;
+        private volatile Integer port;
+        private volatile Boolean isSocket;
+        private volatile String nickName;
+        private volatile Player player;
+        private volatile GameManager game;
+
+        private Session(int slot) {
+            this.slot = slot;
+        }
     }
 
-    public static synchronized Boolean getIsSocketRef(String s) {
-        Integer index = uuidRef.indexOf(s);
-        if (index.equals(-1))
-            return null;
-        return isSocketRef.get(index);
+    public static Integer getActivePlayer() {
+        return sessions.size();
     }
 
-    public static synchronized GameManager getGameRef(String s) {
-        Integer index = uuidRef.indexOf(s);
-        if (index.equals(-1))
-            return null;
-        return gameRef.get(index);
+    public static Boolean getIsSocketRef(String s) {
+        Session session = get(s);
+        return session == null ? null : session.isSocket;
     }
 
-    public static synchronized Integer getPortRef(String s) {
-        Integer index = uuidRef.indexOf(s);
-        if (index.equals(-1))
-            return null;
-        return portRef.get(index);
+    public static GameManager getGameRef(String s) {
+        Session session = get(s);
+        return session == null ? null : session.game;
     }
 
-    public static synchronized Player getPlayerRef(String s) {
-        Integer index = uuidRef.indexOf(s);
-        if (index.equals(-1))
-            return null;
-        return playerRef.get(index);
+    public static Integer getPortRef(String s) {
+        Session session = get(s);
+        return session == null ? null : session.port;
     }
 
-    public static synchronized String getIpRef(String s) {
-        Integer index = uuidRef.indexOf(s);
-        if (index.equals(-1))
-            return null;
-        return ipRef.get(index);
+    public static Player getPlayerRef(String s) {
+        Session session = get(s);
+        return session == null ? null : session.player;
     }
 
-    public static synchronized String getNickNameRef(String s) {
-        Integer index = uuidRef.indexOf(s);
-        if (index.equals(-1))
-            return null;
-        return nickNameRef.get(index);
+    public static String getIpRef(String s) {
+        Session session = get(s);
+        return session == null ? null : session.ip;
     }
 
-    public static synchronized void addGameRef(String s, GameManager gameRef) {
-        Integer index = uuidRef.indexOf(s);
-        SReferences.gameRef.set(index, gameRef);
+    public static String getNickNameRef(String s) {
+        Session session = get(s);
+        return session == null ? null : session.nickName;
     }
 
-    public static synchronized Integer getIndexOfGameRef(GameManager gameManager){
-        return gameRef.indexOf(gameManager);
+    public static void addGameRef(String s, GameManager gameRef) {
+        Session session = get(s);
+        if (session != null)
+            session.game = gameRef;
     }
 
-    public static synchronized void addIpRef(String s, String ipRef) {
-        Integer index = uuidRef.indexOf(s);
-        SReferences.ipRef.set(index, ipRef);
+    /**
+     * @return the lowest slot among the clients playing in
+     * @param gameManager , or -1 if nobody plays in it
+     */
+    public static Integer getIndexOfGameRef(GameManager gameManager){
+        int index = -1;
+        for (Session session :
+                sessions.values()) {
+            if (session.game == gameManager && (index == -1 || session.slot < index))
+                index = session.slot;
+        }
+        return index;
     }
 
-    public static synchronized void addIsSocketRef(String s, Boolean isSocketRef) {
-        Integer index = uuidRef.indexOf(s);
-        SReferences.isSocketRef.set(index, isSocketRef);
+    public static void addIpRef(String s, String ipRef) {
+        Session session = get(s);
+        if (session != null)
+            session.ip = ipRef;
     }
 
-    public static synchronized void addPlayerRef(String s, Player playerRef) {
-        Integer index = uuidRef.indexOf(s);
-        SReferences.playerRef.set(index, playerRef);
+    public static void addIsSocketRef(String s, Boolean isSocketRef) {
+        Session session = get(s);
+        if (session != null)
+            session.isSocket = isSocketRef;
     }
 
-    public static synchronized void addPortRef(String s, Integer portRef) {
-        Integer index = uuidRef.indexOf(s);
-        SReferences.portRef.set(index, portRef);
+    public static void addPlayerRef(String s, Player playerRef) {
+        Session session = get(s);
+        if (session != null)
+            session.player = playerRef;
     }
 
-    public static synchronized void addNickNameRef(String s, String nickNameRef) {
-        Integer index = uuidRef.indexOf(s);
-        SReferences.nickNameRef.set(index, nickNameRef);
+    public static void addPortRef(String s, Integer portRef) {
+        Session session = get(s);
+        if (session != null)
+            session.port = portRef;
     }
 
-    public static synchronized Boolean addUuidRefEnhanced(String uUID) {
-        int i = 0;
-
-        if (uuidRef.contains(uUID))
+    public static synchronized void addNickNameRef(String s, String nickNameRef) {
+        Session session = get(s);
+        if (session == null)
+            return;
+        unindex(s, session.nickName);
+        session.nickName = nickNameRef;
+        if (nickNameRef != null)
+            nickNames.computeIfAbsent(nickNameRef, nick -> ConcurrentHashMap.newKeySet()).add(s);
+    }
+
+    /**
+     * add a new client, in the lowest free slot
+     *
+     * @param uUID of the client
+     * @return false if the client was already there
+     */
+    public static Boolean addUuidRefEnhanced(String uUID) {
+        return addUuidRefEnhanced(uUID, Integer.MAX_VALUE);
+    }
+
+    /**
+     * add a new client, in the lowest free slot, only if there are less than
+     *
+     * @param max clients
+     * @param uUID of the client
+     * @return false if the client was already there, or there was no room for him
+     */
+    public static synchronized Boolean addUuidRefEnhanced(String uUID, Integer max) {
+        if (sessions.containsKey(uUID) || sessions.size() >= max)
             return false;
 
-        while (i < uuidRef.size() && uuidRef.get(i) != null)
-            i++;
-
-        if (i == uuidRef.size()) {
-            SReferences.uuidRef.add(uUID);
-            SReferences.portRef.add(null);
-            SReferences.playerRef.add(null);
-            SReferences.isSocketRef.add(null);
-            SReferences.ipRef.add(null);
-            SReferences.gameRef.add(null);
-            SReferences.nickNameRef.add(null);
-        } else {
-            SReferences.uuidRef.set(i, uUID);
-        }
-        SReferences.activePlayer++;
+        int slot = slots.nextClearBit(0);
+        slots.set(slot);
+        sessions.put(uUID, new Session(slot));
         return true;
     }
 
-    public static synchronized Boolean contains(String s) {
-        return uuidRef.contains(s);
+    public static Boolean contains(String s) {
+        return s != null && sessions.containsKey(s);
     }
 
-    public static synchronized Boolean checkNickNameRef(String nickNameRef, List<String> queue) {
+    /**
+     * @return false if a client in
+     * @param queue already uses
+     * @param nickNameRef
+     */
+    public static Boolean checkNickNameRef(String nickNameRef, Collection<String> queue) {
+        Set<String> uUIDs = nickNames.get(nickNameRef);
+        if (uUIDs == null)
+            return true;
         for (String uUID :
-                queue) {
-            String nick = getNickNameRef(uUID);
-            if (nick != null && nick.equals(nickNameRef))
+                uUIDs) {
+            if (queue.contains(uUID))
                 return false;
         }
         return true;
     }
 
+    /**
+     * give
+     *
+     * @param uUID , already added,
+     * @param nickNameRef if no other client which is not playing yet uses it: checking and taking the
+     * nickname is a single step, so two clients joining at the same time can't both get it
+     * @return whether the client got the nickname
+     */
+    public static synchronized Boolean reserveNickNameRef(String uUID, String nickNameRef) {
+        Session session = get(uUID);
+        if (session == null)
+            return false;
+        Set<String> uUIDs = nickNames.get(nickNameRef);
+        if (uUIDs != null) {
+            for (String other :
+                    uUIDs) {
+                Session otherSession = get(other);
+                if (!other.equals(uUID) && otherSession != null && otherSession.game == null)
+                    return false;
+            }
+        }
+        addNickNameRef(uUID, nickNameRef);
+        return true;
+    }
+
     public static synchronized void removeRef(String s) {
-        Integer index = uuidRef.indexOf(s);
-        SReferences.gameRef.set(index, null);
-        SReferences.ipRef.set(index, null);
-        SReferences.isSocketRef.set(index, null);
-        SReferences.playerRef.set(index, null);
-        SReferences.portRef.set(index, null);
-        SReferences.nickNameRef.set(index, null);
-        SReferences.uuidRef.set(index, null);
-        SReferences.activePlayer--;
-    }
-
-}
\ No newline at end of file
+        Session session = s == null ? null : sessions.remove(s);
+        if (session == null)
+            return;
+        unindex(s, session.nickName);
+        slots.clear(session.slot);
+    }
+
+    private static Session get(String s) {
+        return s == null ? null : sessions.get(s);
+    }
+
+    private static void unindex(String s, String nickName) {
+        if (nickName == null)
+            return;
+        Set<String> uUIDs = nickNames.get(nickName);
+        if (uUIDs != null) {
+            uUIDs.remove(s);
+            if (uUIDs.isEmpty())
+                nickNames.remove(nickName);
+        }
+    }
+
+}
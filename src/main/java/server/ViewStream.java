@@ -0,0 +1,125 @@
+package server;
+
+import shared.Dice;
+import shared.TransferObjects.GameDeltaT;
+import shared.TransferObjects.GameManagerT;
+import shared.TransferObjects.PlayerT;
+import shared.network.socket.BinaryCodec;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * this keeps the status of a game as it was last published, with its version, and for each player the version
+ * sent to him, so that only the changes are sent on the following updates. A status is copied once for all the
+ * players, and the players which hold the same version get the same changes, which the socket codec encodes once
+ */
+public class ViewStream {
+
+    private final Map<String, GameManagerT> sent = new HashMap<>();
+    private final Map<String, Integer> versions = new HashMap<>();
+    private final Map<GameManagerT, GameDeltaT> deltas = new IdentityHashMap<>();
+    private GameManagerT current;
+    private int version = 0;
+
+    /**
+     * @return what has to be sent to
+     * @param uUID to bring his view to
+     * @param view , which is published first: a full snapshot the first time (or after a reset), the changes since
+     * the last one otherwise
+     */
+    public synchronized GameDeltaT next(String uUID, GameManagerT view) {
+        publish(view);
+        return next(uUID, view.pos);
+    }
+
+    /**
+     * the status of the game is now
+     * @param view , whose position of the receiver is ignored
+     */
+    public synchronized void publish(GameManagerT view) {
+        current = copyOf(view);
+        version++;
+        deltas.clear();
+    }
+
+    /**
+     * the status of the game is now
+     * @param view , only if it differs from the last one published: otherwise the version and the changes already
+     * computed for the players are kept
+     * @return whether the view was published
+     */
+    public synchronized boolean publishIfChanged(GameManagerT view) {
+        GameManagerT copy = copyOf(view);
+        if (current != null) {
+            GameDeltaT delta = GameDeltaT.between(current, copy, version, version);
+            if (delta != null && delta.isEmpty())
+                return false;
+        }
+        current = copy;
+        version++;
+        deltas.clear();
+        return true;
+    }
+
+    /**
+     * @return what has to be sent to
+     * @param uUID to bring his view to the last status published: a full snapshot the first time (or after a reset),
+     * the changes since the last one otherwise
+     * @param pos of the player among the players of the game
+     */
+    public synchronized GameDeltaT next(String uUID, Integer pos) {
+        GameManagerT last = sent.get(uUID);
+        GameDeltaT delta = null;
+        if (last != null) {
+            if (deltas.containsKey(last)) {
+                delta = deltas.get(last);
+            } else {
+                delta = GameDeltaT.between(last, current, versions.get(uUID), version);
+                if (delta != null)
+                    BinaryCodec.share(delta);
+                deltas.put(last, delta);
+            }
+        }
+        if (delta == null)
+            delta = new GameDeltaT(version, new GameManagerT(current.vPlayers, current.publicOCs, current.toolCards,
+                    current.roundTrack, current.pool, current.online, current.offline, pos));
+        sent.put(uUID, current);
+        versions.put(uUID, version);
+        return delta;
+    }
+
+    /**
+     * the next update of
+     * @param uUID will be a full snapshot
+     */
+    public synchronized void reset(String uUID) {
+        sent.remove(uUID);
+    }
+
+    /**
+     * copy of the lists and matrices: the views are built on the live ones of the game, which change after
+     * they are sent, while the dices and positions in them never do
+     */
+    private static GameManagerT copyOf(GameManagerT view) {
+        ArrayList<PlayerT> players = new ArrayList<>();
+        for (PlayerT p :
+                view.vPlayers) {
+            players.add(new PlayerT(p.nickName, p.privateO, p.window, Dice.copyOf(p.overlay), p.tokens, p.turno, p.score,
+                    p.privateTurn, p.lastPlaced));
+        }
+        List<ArrayList<Dice>> roundTrack = new ArrayList<>();
+        for (List<Dice> round :
+                view.roundTrack)
+            roundTrack.add(copyOf(round));
+        return new GameManagerT(players, view.publicOCs, view.toolCards, roundTrack, copyOf(view.pool),
+                view.online, view.offline, null);
+    }
+
+    private static ArrayList<Dice> copyOf(List<Dice> dices) {
+        return new ArrayList<>(dices);
+    }
+}
@@ -2,14 +2,17 @@ package server;
 
 import server.threads.GameManager;
 import shared.*;
+import shared.TransferObjects.WindowT;
 
-import java.io.Serializable;
+import java.util.List;
 
 public class Window {
 
-    private final Cell[][] matrices;
+    private Cell[][] matrices;
     private final Integer tokens;
     private final String name;
+    private volatile Requirements requirements;
+    private WindowPattern pattern;
 
     /**
      * build a new window, where
@@ -23,10 +26,46 @@ public class Window {
         this.tokens = tokens;
     }
 
+    /**
+     * build the window of a player on
+     * @param pattern of the catalog, whose cells and requirements are shared until {@link #getMatrices()} is called
+     */
+    public Window(WindowPattern pattern) {
+        this.name = pattern.getName();
+        this.matrices = pattern.getCells();
+        this.tokens = pattern.getTokens();
+        this.requirements = pattern.getRequirements();
+        this.pattern = pattern;
+    }
+
+    /**
+     * the matrix can be changed by the caller, so the cells are packed again before their next use;
+     * a window built on a pattern gets its own copy of the cells first
+     */
     public Cell[][] getMatrices() {
+        if (pattern != null) {
+            matrices = Window.copyOf(matrices);
+            pattern = null;
+        }
+        requirements = null;
         return matrices;
     }
 
+    /**
+     * @return the window as it is sent to the clients: the shared one of the pattern, unless the cells were changed
+     */
+    public WindowT getTransfer() {
+        WindowPattern shared = pattern;
+        return shared != null ? shared.getTransfer() : new WindowT(name, matrices);
+    }
+
+    private static Cell[][] copyOf(Cell[][] matrices) {
+        Cell[][] copy = new Cell[matrices.length][];
+        for (int r = 0; r < matrices.length; r++)
+            copy[r] = matrices[r].clone();
+        return copy;
+    }
+
     public Integer getTokens() {
         return tokens;
     }
@@ -47,103 +86,103 @@ public class Window {
      * @return gives true if this is tha case, false otherwise
      */
     private Boolean checkFirstTurn(Player player) {
-        return player.getLastPlacedFromPool().equals(new Position(-1, -1));
+        return player.getLastPlacedFromPool().equals(Position.of(-1, -1));
     }
 
     /**
-     * check wheter in the
-     * @param overlay in the
-     * @param position there is a diagonally adjacent dice which has
-     *                the same color or shade of the following
-     * @param dice
+     * the cells of the window packed in a byte each, and the ones which accept a dice of each color
+     * and shade, as bitmasks of {@link LegalityIndex}
      */
-    private Boolean checkSideBySide(Overlay overlay, Position position, Dice dice) {
-        Position positionAdj;
-        Dice adj;
-        Integer row = position.getRow();
-        Integer col = position.getColumn();
-        Boolean esito = true;
-
-        positionAdj = new Position(row, col - 1);
-        if (overlay.validateBusy(positionAdj)) {
-            adj = overlay.getDice(positionAdj);
-            if (dice.isCloseTo(adj))
-                esito = false;
-        }
-        positionAdj = new Position(row - 1, col);
-        if (overlay.validateBusy(positionAdj)) {
-            adj = overlay.getDice(positionAdj);
-            if (dice.isCloseTo(adj))
-                esito = false;
-        }
-        positionAdj = new Position(row, col + 1);
-        if (overlay.validateBusy(positionAdj)) {
-            adj = overlay.getDice(positionAdj);
-            if (dice.isCloseTo(adj))
-                esito = false;
-        }
-        positionAdj = new Position(row + 1, col);
-        if (overlay.validateBusy(positionAdj)) {
-            adj = overlay.getDice(positionAdj);
-            if (dice.isCloseTo(adj))
-                esito = false;
+    static final class Requirements {
+        private final byte[] packed = new byte[LegalityIndex.ROWS * LegalityIndex.COLUMNS];
+        private final int[] colorCells = new int[Packed.COLORS.length()];
+        private final int[] shadeCells = new int[Packed.SHADES];
+
+        Requirements(Cell[][] matrices) {
+            int anyColor = 0;
+            int anyShade = 0;
+            for (int cell = 0; cell < packed.length; cell++) {
+                packed[cell] = Packed.pack(matrices[cell / LegalityIndex.COLUMNS][cell % LegalityIndex.COLUMNS]);
+                int color = Packed.color(packed[cell]);
+                int shade = Packed.shade(packed[cell]);
+                if (color < 0)
+                    anyColor |= 1 << cell;
+                else
+                    colorCells[color] |= 1 << cell;
+                if (shade == 0)
+                    anyShade |= 1 << cell;
+                else
+                    shadeCells[shade - 1] |= 1 << cell;
+            }
+            for (int i = 0; i < colorCells.length; i++)
+                colorCells[i] |= anyColor;
+            for (int i = 0; i < shadeCells.length; i++)
+                shadeCells[i] |= anyShade;
         }
-        return esito;
-    }
-
-    /**
-     * check if the
-     * @param position is on the edge of the overlay
-     */
-    private Boolean checkEdgePosTurn(Position position) {
-        return position.getRow().equals(0) || position.getRow().equals(3) || position.getColumn().equals(0) || position.getColumn().equals(4);
     }
 
-    private Boolean checkAdjDicesFull(Overlay overlay, Position position, Dice dice) {
-        return checkSideBySide(overlay, position, dice) && checkAdjacentToAny(overlay, position);
+    private Requirements getRequirements() {
+        Requirements result = requirements;
+        if (result == null) {
+            result = new Requirements(matrices);
+            requirements = result;
+        }
+        return result;
     }
 
     /**
-     * check if in the
-     * @param overlay, on
-     * @param position1 there is at least an adjacent dice
+     * @return the requirements of the
+     * @param cell , row * 5 + column, packed in a byte
      */
-    private Boolean checkAdjacentToAny(Overlay overlay, Position position1) {
-        return (overlay.validateBusy(new Position(position1.getRow() - 1, position1.getColumn() - 1)) || (overlay.validateBusy(new Position(position1.getRow(), position1.getColumn() - 1))) || (overlay.validateBusy(new Position(position1.getRow() + 1, position1.getColumn() - 1))) || (overlay.validateBusy(new Position(position1.getRow() - 1, position1.getColumn()))) || (overlay.validateBusy(new Position(position1.getRow() + 1, position1.getColumn()))) || (overlay.validateBusy(new Position(position1.getRow() - 1, position1.getColumn() + 1))) || (overlay.validateBusy(new Position(position1.getRow(), position1.getColumn() + 1))) || (overlay.validateBusy(new Position(position1.getRow() + 1, position1.getColumn() + 1))));
+    public byte getPacked(int cell) {
+        return getRequirements().packed[cell];
     }
 
     /**
-     * check if in the
-     * @param overlay on
-     * @param position1 there are no adjacent dices
+     * the cells where a dice can be placed, as a bitmask of {@link LegalityIndex}
+     *
+     * @param overlay of the player
+     * @param firstTurn whether the player hasn't placed dices yet
+     * @param dice to be placed
+     * @param color whether the color of the cell must be matched
+     * @param shade whether the shade of the cell must be matched
+     * @return the cells next to a dice and not orthogonally adjacent to a dice of the same color or shade,
+     * or on the edge if this is the first dice
+     * @throws IllegalArgumentException if the dice can't be packed
      */
-    private Boolean checkFreeSpaceAround(Overlay overlay, Position position1) {
-        return overlay.validateFree(new Position(position1.getRow() - 1, position1.getColumn() - 1)) && (overlay.validateFree(new Position(position1.getRow(), position1.getColumn() - 1))) && (overlay.validateFree(new Position(position1.getRow() + 1, position1.getColumn() - 1))) && (overlay.validateFree(new Position(position1.getRow() - 1, position1.getColumn()))) && (overlay.validateFree(new Position(position1.getRow() + 1, position1.getColumn()))) && (overlay.validateFree(new Position(position1.getRow() - 1, position1.getColumn() + 1))) && (overlay.validateFree(new Position(position1.getRow(), position1.getColumn() + 1))) && (overlay.validateFree(new Position(position1.getRow() + 1, position1.getColumn() + 1)));
+    public int legalCells(Overlay overlay, boolean firstTurn, Dice dice, boolean color, boolean shade) {
+        byte packed = Packed.pack(dice);
+        LegalityIndex legality = overlay.getLegality();
+        int cells = firstTurn ? LegalityIndex.EDGE : legality.getAround() & ~legality.getConflicts(packed);
+        return cells & requirements(packed, color, shade);
     }
 
     /**
-     * check if the
-     * @param dice in
-     * @param position match the color of the window
+     * the cells where a dice can be placed with no dice around it, as a bitmask of {@link LegalityIndex}
+     *
+     * @see #legalCells(Overlay, boolean, Dice, boolean, boolean)
      */
-    private Boolean checkPlaceColorRequirements(Dice dice, Position position) {
-        if (getCell(position).getColor() == null)
-            return true;
-        return dice.getColor().equals(getCell(position).getColor());
+    public int aloneCells(Overlay overlay, boolean firstTurn, Dice dice) {
+        int cells = firstTurn ? LegalityIndex.EDGE : LegalityIndex.ALL & ~overlay.getLegality().getAround();
+        return cells & requirements(Packed.pack(dice), true, true);
     }
+
     /**
-     * check if the
-     * @param dice in
-     * @param position match the shade of the window
+     * hint where
+     * @param player could place
+     * @param dice , following every rule
+     * @return the positions, row by row
      */
-    private Boolean checkPlaceValueRequirements(Dice dice, Position position) {
-        if (getCell(position).getValue() == null)
-            return true;
-        return dice.getValue().equals(getCell(position).getValue());
+    public List<Position> getLegalPositions(Player player, Dice dice) {
+        Overlay overlay = player.getOverlay();
+        return LegalityIndex.positions(legalCells(overlay, checkFirstTurn(player), dice, true, true) &
+                ~overlay.getLegality().getBusy());
     }
 
-    private Boolean checkPlaceRequirements(Dice dice, Position position) {
-        return checkPlaceValueRequirements(dice, position) && checkPlaceColorRequirements(dice, position);
+    private int requirements(byte dice, boolean color, boolean shade) {
+        Requirements req = getRequirements();
+        return (color ? req.colorCells[Packed.color(dice)] : LegalityIndex.ALL) &
+                (shade ? req.shadeCells[Packed.shade(dice) - 1] : LegalityIndex.ALL);
     }
 
     /**
@@ -210,8 +249,7 @@ public class Window {
     }
 
     private Boolean checkDice(Player player, Dice dice, Position position) {
-        Overlay overlay = player.getOverlay();
-        return (!checkFirstTurn(player) && checkAdjDicesFull(overlay, position, dice) || checkFirstTurn(player) && checkEdgePosTurn(position)) && checkPlaceRequirements(dice, position);
+        return (legalCells(player.getOverlay(), checkFirstTurn(player), dice, true, true) & LegalityIndex.bit(position)) != 0;
     }
 
     public Boolean moveDiceNoShade(Player player, Position p1, Position p2) {
@@ -228,10 +266,7 @@ public class Window {
     }
 
     private Boolean checkDiceNoShade(Player player, Dice dice, Position position) {
-        Overlay overlay = player.getOverlay();
-        return (!checkFirstTurn(player) && checkAdjDicesFull(overlay, position, dice) || checkFirstTurn(player) && checkEdgePosTurn(position)) && checkPlaceColorRequirements(dice, position);
-
-
+        return (legalCells(player.getOverlay(), checkFirstTurn(player), dice, true, false) & LegalityIndex.bit(position)) != 0;
     }
 
     public Boolean moveDiceNoColor(Player player, Position p1, Position p2) {
@@ -248,8 +283,7 @@ public class Window {
     }
 
     private Boolean checkDiceNoColor(Player player, Dice dice, Position position) {
-        Overlay overlay = player.getOverlay();
-        return (!checkFirstTurn(player) && checkAdjDicesFull(overlay, position, dice) || checkFirstTurn(player) && checkEdgePosTurn(position)) && checkPlaceValueRequirements(dice, position);
+        return (legalCells(player.getOverlay(), checkFirstTurn(player), dice, false, true) & LegalityIndex.bit(position)) != 0;
     }
 
     public Boolean moveDiceWindowRoundtrack(Player player, Integer pos, Position p1, PositionR pr) {
@@ -278,7 +312,7 @@ public class Window {
         Overlay overlay = player.getOverlay();
 
         Dice dice = pool.getDice(index);
-        if ((!checkFirstTurn(player) && checkFreeSpaceAround(overlay, position) || checkFirstTurn(player) && checkEdgePosTurn(position)) && checkPlaceRequirements(dice, position)) {
+        if ((aloneCells(overlay, checkFirstTurn(player), dice) & LegalityIndex.bit(position)) != 0) {
             player.getOverlay().setDicePosition(dice, position);
             pool.setDice(index, null);
             return true;
@@ -0,0 +1,142 @@
+package server;
+
+import shared.Cell;
+import shared.Packed;
+import shared.TransferObjects.WindowT;
+import shared.network.socket.BinaryCodec;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * a window of the catalog, as printed on the card: it never changes, so its cells are packed, and the
+ * cells which accept each color and shade are computed, once for all the games. The players get a
+ * {@link Window} built on it, and the clients the same transfer object, whose cells the socket codec
+ * writes by copying the bytes it encoded the first time
+ */
+public final class WindowPattern {
+
+    private static final String CATALOG = "/Windows/patterns.txt";
+    private static final char BLANK = '.';
+
+    private final String name;
+    private final Integer tokens;
+    private final Cell[][] cells;
+    private final Window.Requirements requirements;
+    private final WindowT transfer;
+
+    /**
+     * build the pattern
+     * @param name of the window
+     * @param tokens the card gives the player
+     * @param cells , which are not changed afterwards
+     */
+    WindowPattern(String name, Integer tokens, Cell[][] cells) {
+        this.name = name;
+        this.tokens = tokens;
+        this.cells = cells;
+        this.requirements = new Window.Requirements(cells);
+        this.transfer = new WindowT(name, cells);
+        BinaryCodec.share(cells);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Integer getTokens() {
+        return tokens;
+    }
+
+    /**
+     * @return the cell in
+     * @param row and
+     * @param column
+     */
+    public Cell getCell(int row, int column) {
+        return cells[row][column];
+    }
+
+    /**
+     * @return the window as it is sent to the clients, always the same object: it must not be changed
+     */
+    public WindowT getTransfer() {
+        return transfer;
+    }
+
+    Cell[][] getCells() {
+        return cells;
+    }
+
+    Window.Requirements getRequirements() {
+        return requirements;
+    }
+
+    /**
+     * @return the patterns of the catalog shipped with the server, in their order
+     * @throws IllegalStateException if the catalog is missing or malformed
+     */
+    public static List<WindowPattern> loadCatalog() {
+        try (InputStream in = WindowPattern.class.getResourceAsStream(CATALOG)) {
+            if (in == null)
+                throw new IllegalStateException("window catalog " + CATALOG + " not found");
+            return Collections.unmodifiableList(parse(in));
+        } catch (IOException ioe) {
+            throw new IllegalStateException("can't read the window catalog " + CATALOG, ioe);
+        }
+    }
+
+    /**
+     * @return the patterns read from
+     * @param in : one per line, name, tokens and the rows of cells, each cell '.' (no requirement),
+     * a color or a shade; empty lines and lines starting with '#' are skipped
+     * @throws IllegalStateException if a line is malformed
+     */
+    static List<WindowPattern> parse(InputStream in) throws IOException {
+        List<WindowPattern> patterns = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        int number = 0;
+        while ((line = reader.readLine()) != null) {
+            number++;
+            line = line.trim();
+            if (line.isEmpty() || line.charAt(0) == '#')
+                continue;
+            String[] fields = line.split("\\s+");
+            if (fields.length != 2 + LegalityIndex.ROWS)
+                throw new IllegalStateException("window catalog, line " + number + ": expected name, tokens and "
+                        + LegalityIndex.ROWS + " rows");
+            Cell[][] cells = new Cell[LegalityIndex.ROWS][LegalityIndex.COLUMNS];
+            for (int r = 0; r < LegalityIndex.ROWS; r++) {
+                String row = fields[2 + r];
+                if (row.length() != LegalityIndex.COLUMNS)
+                    throw new IllegalStateException("window catalog, line " + number + ": row " + r + " is not "
+                            + LegalityIndex.COLUMNS + " cells long");
+                for (int c = 0; c < LegalityIndex.COLUMNS; c++)
+                    cells[r][c] = cell(row.charAt(c), number);
+            }
+            try {
+                patterns.add(new WindowPattern(fields[0], Integer.valueOf(fields[1]), cells));
+            } catch (NumberFormatException nfe) {
+                throw new IllegalStateException("window catalog, line " + number + ": bad tokens " + fields[1]);
+            }
+        }
+        return patterns;
+    }
+
+    private static Cell cell(char symbol, int number) {
+        if (symbol == BLANK)
+            return Cell.of();
+        if (symbol >= '1' && symbol < '1' + Packed.SHADES)
+            return Cell.of(symbol - '0');
+        if (Packed.COLORS.indexOf(symbol) >= 0)
+            return Cell.of(symbol);
+        throw new IllegalStateException("window catalog, line " + number + ": unknown cell " + symbol);
+    }
+}
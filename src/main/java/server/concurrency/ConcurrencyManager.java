@@ -1,7 +1,16 @@
 package server.concurrency;
 
+import server.Config;
+import shared.Logger;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 public class ConcurrencyManager {
@@ -16,7 +25,26 @@ public class ConcurrencyManager {
     //4 call ConcurrencyManager.submit(turnM)
 
 
-    private static final ExecutorService ThreadManager = Executors.newCachedThreadPool();
+    //The tasks are split by kind, each kind with its own threads: the games and the other GeneralTasks, the single
+    //calls of the broadcasts, and the expired timers, which run the steps of the games. This way the tasks waiting
+    //for the remote calls can never take all the threads the calls need, even with bounded executors.
+    //Config.executor chooses the backend of the games and of the timers: 0 cached, 1 fixed of Config.executorThreads threads each,
+    //2 a virtual thread for each task, on the JVMs which have them (otherwise cached).
+    //The calls are run by Config.executorThreads workers, which take them from the bounded lanes of a LaneScheduler:
+    //the calls of the moves first, then the updates of the views, the pings and finally the logs. The workers are
+    //platform threads of their own whatever the backend, since they live as long as the server; the lanes count
+    //and time their tasks.
+
+    public static final int CACHED = 0;
+    public static final int FIXED = 1;
+    public static final int VIRTUAL = 2;
+
+    private static final long TICK = 10;
+    private static final int BUCKETS = 512;
+    private static final GaugedExecutor ThreadManager = newExecutor("games");
+    private static final LaneScheduler Lanes = new LaneScheduler(workers(), named("calls"));
+    private static final GaugedExecutor Expired = newExecutor("timers");
+    private static final TimerWheel Timers = new TimerWheel("timer-wheel", TICK, BUCKETS, Expired);
 
     private ConcurrencyManager() {
     }
@@ -25,9 +53,129 @@ public class ConcurrencyManager {
         ThreadManager.submit(task);
     }
 
+    /**
+     * run a short task whose result is needed, like a single call of a broadcast
+     *
+     * @return the future result of
+     * @param task
+     */
+    public static <T> Future<T> submit(Callable<T> task) {
+        return Lanes.submit(LaneScheduler.Lane.MOVE, null, task);
+    }
+
+    /**
+     * run a short task whose result is needed in
+     *
+     * @param lane , replacing the task with the same
+     * @param key still queued, if any
+     * @param task
+     * @return the future result of the task, cancelled if the task is dropped because the lane is full, which runs
+     * the actions added to it when it is done
+     * @see LaneScheduler#submit(LaneScheduler.Lane, Object, Callable)
+     */
+    public static <T> LaneScheduler.Call<T> submit(LaneScheduler.Lane lane, Object key, Callable<T> task) {
+        return Lanes.submit(lane, key, task);
+    }
+
+    /**
+     * run
+     * @param task on the pool after
+     * @param delay ms: no thread is held while waiting, so a game waiting for a move costs nothing
+     * @return the handle to cancel the task, if it has not started yet
+     * @see TimerWheel
+     */
+    public static TimerWheel.Timeout schedule(Runnable task, long delay) {
+        if (delay <= 0) {
+            Expired.execute(task);
+            return EXPIRED;
+        }
+        return Timers.schedule(task, delay);
+    }
+
     public static void shutdown() {
+        Timers.stop();
         ThreadManager.shutdown();
+        Lanes.shutdown();
+        Expired.shutdown();
+    }
+
+    /**
+     * @return the scheduler of the calls, with the depth and the counters of its lanes
+     */
+    public static LaneScheduler getLanes() {
+        return Lanes;
     }
-}
 
+    private static int workers() {
+        Config config = Config.getConfig();
+        return config == null ? 64 : Math.max(1, config.executorThreads);
+    }
+
+    /**
+     * @return the executors of each kind of task, with their counters
+     */
+    public static List<GaugedExecutor> getExecutors() {
+        return Arrays.asList(ThreadManager, Expired);
+    }
+
+    /**
+     * build an executor with the backend chosen in the configuration, or a cached one if there is no configuration
+     *
+     * @param name of the executor, and prefix of its threads
+     * @return the executor, wrapped to count its tasks
+     */
+    public static GaugedExecutor newExecutor(String name) {
+        Config config = Config.getConfig();
+        int backend = config == null ? CACHED : config.executor;
+        int threads = config == null ? 0 : config.executorThreads;
+        if (backend == VIRTUAL) {
+            ExecutorService virtual = newVirtualExecutor();
+            if (virtual != null)
+                return new GaugedExecutor(name, "virtual", virtual);
+            Logger.log("Virtual threads are not available on this JVM, executor " + name + " is cached");
+        }
+        if (backend == FIXED && threads > 0)
+            return new GaugedExecutor(name, "fixed " + threads, Executors.newFixedThreadPool(threads, named(name)));
+        return new GaugedExecutor(name, "cached", Executors.newCachedThreadPool(named(name)));
+    }
+
+    /**
+     * the virtual threads are looked up by reflection, since the server is built for older JVMs too
+     *
+     * @return an executor which starts a virtual thread for each task, or null if the JVM has no virtual threads
+     */
+    private static ExecutorService newVirtualExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory named(String name) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory threads = Executors.defaultThreadFactory();
+        return task -> {
+            Thread thread = threads.newThread(task);
+            thread.setName(name + "-" + count.incrementAndGet());
+            return thread;
+        };
+    }
 
+    private static final TimerWheel.Timeout EXPIRED = new TimerWheel.Timeout() {
+        @Override
+        public boolean cancel() {
+            return false;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+}
@@ -0,0 +1,108 @@
+package server.concurrency;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * this wraps the executor of a kind of task, counting its tasks the same way
+ * whatever the backend is: the ones waiting for a thread, the running ones and the completed ones
+ */
+public final class GaugedExecutor extends AbstractExecutorService {
+
+    private final String name;
+    private final String backend;
+    private final ExecutorService delegate;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+
+    GaugedExecutor(String name, String backend, ExecutorService delegate) {
+        this.name = name;
+        this.backend = backend;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        queued.incrementAndGet();
+        try {
+            delegate.execute(() -> {
+                queued.decrementAndGet();
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    active.decrementAndGet();
+                    completed.incrementAndGet();
+                }
+            });
+        } catch (RuntimeException re) {
+            queued.decrementAndGet();
+            throw re;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the backend of the executor: cached, fixed or virtual
+     */
+    public String getBackend() {
+        return backend;
+    }
+
+    /**
+     * @return the tasks submitted and not started yet
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * @return the tasks running now, each one on its own thread
+     */
+    public int getActive() {
+        return active.get();
+    }
+
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + backend + "): " + queued.get() + " queued, " + active.get() + " active, " +
+                completed.get() + " completed";
+    }
+}
@@ -0,0 +1,403 @@
+package server.concurrency;
+
+import shared.metrics.Meter;
+import shared.metrics.Metrics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * this runs the tasks on a fixed number of workers, taking them from bounded queues, one for each lane:
+ * a worker always takes the first task of the most important lane which has one.
+ * When a lane is full its policy decides what to give up, so a flood of tasks never grows
+ * the memory or the threads of the server. A task with a key replaces the one of the same lane
+ * and key still queued, if any: the two submitters share the result of the newest one.
+ * The future of a task runs the actions added to it when the task is done, so that the submitter can go on
+ * from its result without holding a thread while it waits.
+ * The workers are threads of their own, which live as long as the scheduler; the tasks of each lane
+ * are counted here, and timed by the {@code lane.*} meters of the {@link Metrics} registry
+ */
+public final class LaneScheduler {
+
+    /**
+     * what happens to a task submitted to a full lane
+     */
+    public enum Policy {
+        /**
+         * the task runs on the thread of the submitter, which is slowed down but never loses it
+         */
+        CALLER_RUNS,
+        /**
+         * the oldest task of the lane is dropped, to make room for the new one
+         */
+        DROP_OLDEST,
+        /**
+         * the new task is dropped
+         */
+        DROP_NEWEST
+    }
+
+    /**
+     * the lanes, from the most important one
+     */
+    public enum Lane {
+        MOVE(1024, Policy.CALLER_RUNS),
+        VIEW(4096, Policy.DROP_OLDEST),
+        PING(1024, Policy.DROP_OLDEST),
+        LOG(4096, Policy.DROP_NEWEST);
+
+        private final int capacity;
+        private final Policy policy;
+
+        Lane(int capacity, Policy policy) {
+            this.capacity = capacity;
+            this.policy = policy;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public Policy getPolicy() {
+            return policy;
+        }
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition ready = lock.newCondition();
+    private final LaneQueue[] queues = new LaneQueue[Lane.values().length];
+    private boolean shutdown = false;
+
+    /**
+     * build the scheduler, starting
+     *
+     * @param workers threads, which take the tasks from the lanes
+     * @param threads which builds the workers
+     */
+    public LaneScheduler(int workers, ThreadFactory threads) {
+        for (Lane lane : Lane.values())
+            queues[lane.ordinal()] = new LaneQueue(lane);
+        for (int i = 0; i < workers; i++)
+            threads.newThread(this::work).start();
+    }
+
+    /**
+     * the future of a task, which runs the actions added with {@link #whenDone(Runnable)} as soon as the task
+     * is done, dropped or cancelled
+     */
+    public static final class Call<T> extends FutureTask<T> {
+        private List<Runnable> actions = new ArrayList<>();
+
+        private Call(Callable<T> callable) {
+            super(callable);
+        }
+
+        /**
+         * run
+         *
+         * @param action on the thread which completes the task, or at once if it is already done: it must be short
+         */
+        public void whenDone(Runnable action) {
+            synchronized (this) {
+                if (actions != null) {
+                    actions.add(action);
+                    return;
+                }
+            }
+            action.run();
+        }
+
+        @Override
+        protected void done() {
+            List<Runnable> done;
+            synchronized (this) {
+                done = actions;
+                actions = null;
+            }
+            for (Runnable action : done)
+                action.run();
+        }
+    }
+
+    /**
+     * queue a task; the future of a dropped task is cancelled
+     *
+     * @param lane of the task
+     * @param key of the task, or null if it never replaces another one
+     * @param task to be run
+     * @return the result of the task, or of the newer task which replaced it
+     * @throws RejectedExecutionException if the scheduler has been shut down
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Call<T> submit(Lane lane, Object key, Callable<T> task) {
+        LaneQueue queue = queues[lane.ordinal()];
+        Task dropped = null;
+        Task added;
+        boolean callerRuns = false;
+        lock.lock();
+        try {
+            if (shutdown)
+                throw new RejectedExecutionException("scheduler shut down");
+            queue.submitted++;
+            if (key != null) {
+                Task queued = queue.byKey.get(key);
+                if (queued != null) {
+                    queued.callable = task;
+                    queue.coalesced++;
+                    return (Call<T>) queued.future;
+                }
+            }
+            added = new Task(queue, key, task);
+            if (queue.tasks.size() >= lane.capacity) {
+                switch (lane.policy) {
+                    case CALLER_RUNS:
+                        queue.callerRuns++;
+                        callerRuns = true;
+                        break;
+                    case DROP_OLDEST:
+                        dropped = queue.poll();
+                        queue.dropped++;
+                        break;
+                    default:
+                        queue.dropped++;
+                        dropped = added;
+                }
+            }
+            if (!callerRuns && dropped != added) {
+                queue.add(added);
+                ready.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        // the actions of a dropped task run out of the lock, as the ones of the tasks run by the workers
+        if (dropped != null)
+            dropped.future.cancel(false);
+        if (callerRuns)
+            added.future.run();
+        return (Call<T>) added.future;
+    }
+
+    /**
+     * queue a task whose result is not needed
+     *
+     * @see #submit(Lane, Object, Callable)
+     */
+    public void execute(Lane lane, Runnable task) {
+        submit(lane, null, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return the tasks waiting in
+     * @param lane
+     */
+    public int getDepth(Lane lane) {
+        lock.lock();
+        try {
+            return queues[lane.ordinal()].tasks.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the tasks of
+     * @param lane running now
+     */
+    public int getActive(Lane lane) {
+        return queues[lane.ordinal()].active.get();
+    }
+
+    /**
+     * @return the tasks of
+     * @param lane which have been run, by a worker or by their submitter
+     */
+    public long getCompleted(Lane lane) {
+        return queues[lane.ordinal()].completed.get();
+    }
+
+    /**
+     * @return the tasks of
+     * @param lane dropped because it was full
+     */
+    public long getDropped(Lane lane) {
+        lock.lock();
+        try {
+            return queues[lane.ordinal()].dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the tasks of
+     * @param lane replaced by a newer one with the same key
+     */
+    public long getCoalesced(Lane lane) {
+        lock.lock();
+        try {
+            return queues[lane.ordinal()].coalesced;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the tasks of
+     * @param lane run by their submitter because it was full
+     */
+    public long getCallerRuns(Lane lane) {
+        lock.lock();
+        try {
+            return queues[lane.ordinal()].callerRuns;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * stop the workers once the tasks already queued are done
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            ready.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void work() {
+        while (true) {
+            Task task = null;
+            lock.lock();
+            try {
+                while (task == null) {
+                    for (LaneQueue queue : queues) {
+                        task = queue.poll();
+                        if (task != null)
+                            break;
+                    }
+                    if (task == null) {
+                        if (shutdown)
+                            return;
+                        try {
+                            ready.await();
+                        } catch (InterruptedException ie) {
+                            // a cancelled task interrupted this worker after its end: go on
+                        }
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            task.future.run();
+            Thread.interrupted();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        lock.lock();
+        try {
+            for (LaneQueue queue : queues) {
+                if (sb.length() > 0)
+                    sb.append("; ");
+                sb.append(queue);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return sb.toString();
+    }
+
+    private static final class Task {
+        private final Object key;
+        private volatile Callable<?> callable;
+        private final Call<Object> future;
+
+        private Task(LaneQueue queue, Object key, Callable<?> callable) {
+            this.key = key;
+            this.callable = callable;
+            this.future = new Call<>(() -> queue.run(this.callable));
+        }
+    }
+
+    /**
+     * the tasks of a lane and its counters, guarded by the lock of the scheduler but for the ones of the tasks
+     * running, which are updated by the tasks themselves
+     */
+    private static final class LaneQueue {
+        private final Lane lane;
+        private final ArrayDeque<Task> tasks = new ArrayDeque<>();
+        private final Map<Object, Task> byKey = new HashMap<>();
+        private final Meter meter;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicLong completed = new AtomicLong();
+        private long submitted;
+        private long coalesced;
+        private long dropped;
+        private long callerRuns;
+
+        private LaneQueue(Lane lane) {
+            this.lane = lane;
+            this.meter = Metrics.meter("lane." + lane.name().toLowerCase(Locale.ROOT));
+        }
+
+        /**
+         * @return the result of
+         * @param callable , counted and timed among the tasks of the lane
+         */
+        private Object run(Callable<?> callable) throws Exception {
+            active.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                return callable.call();
+            } catch (Exception | Error e) {
+                meter.error();
+                throw e;
+            } finally {
+                meter.since(start);
+                active.decrementAndGet();
+                completed.incrementAndGet();
+            }
+        }
+
+        private void add(Task task) {
+            tasks.addLast(task);
+            if (task.key != null)
+                byKey.put(task.key, task);
+        }
+
+        private Task poll() {
+            Task task = tasks.pollFirst();
+            if (task != null && task.key != null)
+                byKey.remove(task.key);
+            return task;
+        }
+
+        @Override
+        public String toString() {
+            return lane + ": " + tasks.size() + " queued, " + active.get() + " active, " + completed.get() +
+                    " completed, " + submitted + " submitted, " + coalesced + " coalesced, " + dropped + " dropped, " +
+                    callerRuns + " run by the caller";
+        }
+    }
+}
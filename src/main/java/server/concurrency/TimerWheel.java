@@ -0,0 +1,199 @@
+package server.concurrency;
+
+import shared.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * this is a hashed timer wheel: a single thread advances a wheel of buckets one tick at a time,
+ * and hands the timeouts of the bucket it reaches to an executor. A timeout longer than a whole
+ * turn of the wheel waits in its bucket for the rounds left, so a timer costs a small object
+ * in a list, whatever its delay, instead of a sleeping thread.
+ * Timeouts run at most one tick later than asked.
+ */
+public final class TimerWheel {
+
+    /**
+     * the handle of a task scheduled on the wheel
+     */
+    public interface Timeout {
+        /**
+         * prevent the task from running
+         *
+         * @return false if the task had already run, or had already been cancelled
+         */
+        boolean cancel();
+
+        /**
+         * @return if the task has been handed to the executor
+         */
+        boolean isExpired();
+
+        /**
+         * @return if the task was cancelled before running
+         */
+        boolean isCancelled();
+    }
+
+    private static final int WAITING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final long tick;
+    private final List<Handle>[] wheel;
+    private final int mask;
+    private final Executor executor;
+    private final Queue<Handle> added = new ConcurrentLinkedQueue<>();
+    private final String name;
+    private volatile Thread worker;
+    private volatile long start;
+    private long current = 0;
+
+    /**
+     * build a wheel, whose thread starts with the first timeout
+     *
+     * @param name of the thread of the wheel
+     * @param tickMillis the duration of a tick, the precision of the timeouts
+     * @param buckets how many ticks a turn of the wheel lasts, rounded up to a power of two
+     * @param executor where the expired tasks are run
+     */
+    @SuppressWarnings("unchecked")
+    public TimerWheel(String name, long tickMillis, int buckets, Executor executor) {
+        int size = Integer.highestOneBit(Math.max(1, buckets - 1)) << 1;
+        this.name = name;
+        this.tick = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.wheel = (List<Handle>[]) new List<?>[size];
+        for (int i = 0; i < size; i++)
+            wheel[i] = new ArrayList<>();
+        this.mask = size - 1;
+        this.executor = executor;
+    }
+
+    /**
+     * run
+     *
+     * @param task on the executor after
+     * @param delayMillis ms
+     * @return the handle to cancel the task
+     */
+    public Timeout schedule(Runnable task, long delayMillis) {
+        start();
+        Handle handle = new Handle(task, System.nanoTime() - start + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+        added.add(handle);
+        return handle;
+    }
+
+    /**
+     * stop the thread of the wheel: the timeouts not expired yet will never run
+     */
+    public synchronized void stop() {
+        if (worker != null)
+            worker.interrupt();
+    }
+
+    private synchronized void start() {
+        if (worker == null) {
+            start = System.nanoTime();
+            worker = new Thread(this::turn, name);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * main loop of the thread of the wheel
+     */
+    private void turn() {
+        while (!Thread.currentThread().isInterrupted()) {
+            long deadline = (current + 1) * tick;
+            long sleep = deadline - (System.nanoTime() - start);
+            if (sleep > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            transferAdded();
+            expire(wheel[(int) (current & mask)], deadline);
+            current++;
+        }
+    }
+
+    /**
+     * move the new timeouts in their buckets
+     */
+    private void transferAdded() {
+        Handle handle;
+        while ((handle = added.poll()) != null) {
+            if (handle.state != WAITING)
+                continue;
+            long ticks = Math.max(handle.deadline / tick, current);
+            handle.rounds = (ticks - current) / wheel.length;
+            wheel[(int) (ticks & mask)].add(handle);
+        }
+    }
+
+    private void expire(List<Handle> bucket, long deadline) {
+        int kept = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            Handle handle = bucket.get(i);
+            if (handle.state != WAITING)
+                continue;
+            if (handle.rounds <= 0 && handle.deadline <= deadline) {
+                if (STATE.compareAndSet(handle, WAITING, EXPIRED))
+                    run(handle.task);
+            } else {
+                handle.rounds--;
+                bucket.set(kept++, handle);
+            }
+        }
+        bucket.subList(kept, bucket.size()).clear();
+    }
+
+    private void run(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RuntimeException re) {
+            Logger.log(name + " could not run an expired task");
+            Logger.strace(re);
+        }
+    }
+
+    private static final AtomicIntegerFieldUpdater<Handle> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Handle.class, "state");
+
+    private static final class Handle implements Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private long rounds;
+        private volatile int state = WAITING;
+
+        private Handle(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            return STATE.compareAndSet(this, WAITING, CANCELLED);
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package server.connection;
+
+import shared.network.RemoteMethod;
+
+import java.util.*;
+
+/**
+ * <p>This class collects the outcome of a {@link ProxyServer#broadcast(Collection, RemoteMethod, java.util.function.Function, long)}:
+ * every player the method was called on is either among the delivered ones, together with the value returned by its
+ * client, among the failed ones, if its client could not be reached, among the timed out ones, if its client did not
+ * answer before the deadline, or among the dropped ones, if the call was never made because the server was too busy</p>
+ * @see ProxyServer
+ */
+public class BroadcastResult {
+    private final RemoteMethod method;
+    private final Map<String, Object> delivered = new LinkedHashMap<>();
+    private final List<String> failed = new ArrayList<>();
+    private final List<String> timedOut = new ArrayList<>();
+    private final List<String> dropped = new ArrayList<>();
+
+    BroadcastResult(RemoteMethod method) {
+        this.method = method;
+    }
+
+    void delivered(String uuid, Object value) {
+        delivered.put(uuid, value);
+    }
+
+    void failed(String uuid) {
+        failed.add(uuid);
+    }
+
+    void timedOut(String uuid) {
+        timedOut.add(uuid);
+    }
+
+    void dropped(String uuid) {
+        dropped.add(uuid);
+    }
+
+    /**
+     * @return the players whose client answered in time, each with the value returned by the method
+     */
+    public Map<String, Object> getDelivered() {
+        return Collections.unmodifiableMap(delivered);
+    }
+
+    /**
+     * @return the players whose client could not be reached
+     */
+    public List<String> getFailed() {
+        return Collections.unmodifiableList(failed);
+    }
+
+    /**
+     * @return the players whose client did not answer before the deadline
+     */
+    public List<String> getTimedOut() {
+        return Collections.unmodifiableList(timedOut);
+    }
+
+    /**
+     * @return the players whose call was never made, because the server was too busy
+     */
+    public List<String> getDropped() {
+        return Collections.unmodifiableList(dropped);
+    }
+
+    /**
+     * @return {@code true} if every client answered in time
+     */
+    public Boolean isComplete() {
+        return failed.isEmpty() && timedOut.isEmpty() && dropped.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return method + ": " + delivered.size() + " delivered, " + failed.size() + " failed " + failed +
+                ", " + timedOut.size() + " timed out " + timedOut +
+                (dropped.isEmpty() ? "" : ", " + dropped.size() + " dropped " + dropped);
+    }
+}
@@ -0,0 +1,160 @@
+package server.connection;
+
+import server.Config;
+import server.concurrency.ConcurrencyManager;
+import shared.network.RemoteMethod;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>This class keeps track, for the whole server, of which players are reachable: every call received from a client,
+ * and every call to a client which succeeds, counts as a sign of life of that player, and is recorded as its last
+ * seen time through {@link HeartbeatService#seen(String)}.</p><br>
+ * <p>A single timer checks the watched players every {@code timeout6} milliseconds: only the players which were not
+ * seen since the last check are pinged, all together with a {@link ProxyServer#broadcast(Collection, RemoteMethod, java.util.function.Function, long)};
+ * a player becomes offline when its ping fails, and online again as soon as it is seen; a ping dropped because the
+ * server is too busy changes nothing.</p><br>
+ * <p>The games interested in some players register a {@link Listener} with {@link HeartbeatService#watch(Collection, Listener)},
+ * and are notified of every transition of those players between online and offline; the players nobody watches are
+ * forgotten. This class implements the <strong>singleton</strong> design pattern.</p>
+ * @see ProxyServer#ping(String)
+ */
+public final class HeartbeatService {
+    private static final long PING_TIMEOUT = 2000;
+    private static HeartbeatService instance = new HeartbeatService();
+
+    private final Map<String, Long> lastSeen = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> online = new ConcurrentHashMap<>();
+    private final Map<String, List<Listener>> listeners = new ConcurrentHashMap<>();
+    private boolean running = false;
+
+    /**
+     * Receives the transitions of the watched players between online and offline
+     */
+    public interface Listener {
+        /**
+         * @param uuid the player whose status changed
+         * @param online {@code true} if the player is now reachable, {@code false} if it is not anymore
+         */
+        void onStatus(String uuid, boolean online);
+    }
+
+    private HeartbeatService() {
+    }
+
+    /**
+     * Obtain a reference to the class' instance
+     * @return always the same instance, saved as a {@code private static} reference in the class
+     */
+    public static HeartbeatService getInstance() {
+        return instance;
+    }
+
+    /**
+     * Record a sign of life of a player; if the player was offline, its listeners are notified that it is back
+     * @param uuid see {@link shared.network.SharedProxyClient} for more about the first parameter
+     */
+    public void seen(String uuid) {
+        if (uuid == null || !listeners.containsKey(uuid)) {
+            return;
+        }
+        lastSeen.put(uuid, System.nanoTime());
+        changeStatus(uuid, true);
+    }
+
+    /**
+     * @param uuid see {@link shared.network.SharedProxyClient} for more about the first parameter
+     * @return {@code true} if the player is watched and was reachable the last time it was checked
+     */
+    public boolean isOnline(String uuid) {
+        return online.getOrDefault(uuid, false);
+    }
+
+    /**
+     * Start watching some players, which are assumed online until their first failed ping; the listener is immediately
+     * notified of the current status of each of them
+     * @param uuids the players to be watched
+     * @param listener the object to be notified of their transitions
+     */
+    public void watch(Collection<String> uuids, Listener listener) {
+        for (String uuid : uuids) {
+            listeners.computeIfAbsent(uuid, key -> new CopyOnWriteArrayList<>()).add(listener);
+            lastSeen.putIfAbsent(uuid, System.nanoTime());
+            online.putIfAbsent(uuid, true);
+        }
+        for (String uuid : uuids) {
+            listener.onStatus(uuid, isOnline(uuid));
+        }
+        start();
+    }
+
+    /**
+     * Stop notifying a listener of the transitions of some players; the players which are not watched anymore are
+     * not pinged and forgotten
+     * @param uuids the players the listener was watching
+     * @param listener the object which was notified of their transitions
+     */
+    public void unwatch(Collection<String> uuids, Listener listener) {
+        for (String uuid : uuids) {
+            List<Listener> watching = listeners.get(uuid);
+            if (watching != null) {
+                watching.remove(listener);
+                if (watching.isEmpty()) {
+                    listeners.remove(uuid);
+                    lastSeen.remove(uuid);
+                    online.remove(uuid);
+                }
+            }
+        }
+    }
+
+    private synchronized void start() {
+        if (!running) {
+            running = true;
+            ConcurrencyManager.schedule(this::check, period());
+        }
+    }
+
+    /**
+     * Ping together all the watched players which were not seen during the last period, then schedule the next check
+     */
+    private void check() {
+        try {
+            long since = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(period());
+            List<String> due = new ArrayList<>();
+            for (Map.Entry<String, Long> entry : lastSeen.entrySet()) {
+                if (entry.getValue() - since <= 0) {
+                    due.add(entry.getKey());
+                }
+            }
+            if (!due.isEmpty()) {
+                Map<String, Boolean> answers = ProxyServer.getInstance().pingAll(due, PING_TIMEOUT);
+                for (Map.Entry<String, Boolean> answer : answers.entrySet()) {
+                    if (answer.getValue()) {
+                        seen(answer.getKey());
+                    } else if (listeners.containsKey(answer.getKey())) {
+                        changeStatus(answer.getKey(), false);
+                    }
+                }
+            }
+        } finally {
+            ConcurrencyManager.schedule(this::check, period());
+        }
+    }
+
+    private static long period() {
+        return Config.getConfig().timeout6;
+    }
+
+    private void changeStatus(String uuid, boolean status) {
+        Boolean previous = online.put(uuid, status);
+        if (previous != null && previous != status) {
+            for (Listener listener : listeners.getOrDefault(uuid, Collections.emptyList())) {
+                listener.onStatus(uuid, status);
+            }
+        }
+    }
+}
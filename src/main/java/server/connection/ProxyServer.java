@@ -2,39 +2,81 @@ package server.connection;
 
 import server.MatchManager;
 import server.SReferences;
+import server.concurrency.ConcurrencyManager;
+import server.concurrency.LaneScheduler;
+import server.concurrency.TimerWheel;
 import server.threads.GameManager;
 import shared.Cell;
 import shared.Logger;
 import shared.Position;
 import shared.PositionR;
+import shared.TransferObjects.GameDeltaT;
 import shared.TransferObjects.GameManagerT;
+import shared.logging.Level;
+import shared.metrics.Meter;
+import shared.metrics.Metrics;
 import shared.network.Connection;
 import shared.network.MethodConnectionException;
+import shared.network.RemoteMethod;
 import shared.network.SharedProxyServer;
 import shared.network.rmi.NetworkRmi;
 import shared.network.socket.NetworkSocket;
 
 import java.rmi.Remote;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * <p>This class implements {@code SharedProxyServer} and all its methods, making them interact with the correct <b>controller</b>
  * components (if they are local) or routing them with the correct parameters to the client (if they are remote)</p><br>
  * <p>This class implements the <strong>singleton</strong> design pattern, having just one instance of it available per JVM;
  * this instance can be accessed through the static class' methods.</p><br>
- * <p>This class holds both a {@code NetworkRmi} and a {@code NetworkSocket} static references, constructed as servers.</p>
+ * <p>This class holds both a {@code NetworkRmi} and a {@code NetworkSocket} static references, constructed as servers;
+ * the {@code NetworkSocket} clients used to call methods on the players connected through sockets are kept open in a
+ * map, one for each player's endpoint, so that every call after the first one reuses the same connection; a connection
+ * is closed only when the last player calling back on its endpoint is released.</p>
  * <p>Finally, the private attribute {@code Boolean test} is used to determine whether this class should be used in a testing
- * environment: this means that some methods which try to use a connection will instead fallback to a mock</p>
+ * environment: this means that some methods which try to use a connection will instead fallback to a mock</p><br>
+ * <p>The calls to the clients are measured by the {@code client.*} meters of the {@link Metrics} registry, and the
+ * calls of the clients by the {@code server.*} ones</p>
  * @see SharedProxyServer
  * @see Connection
  */
 public final class ProxyServer implements SharedProxyServer {
     private static final String SERVER_INTERFACE = "ProxyServer";
+    public static final long BROADCAST_TIMEOUT = 5000;
 
     private static Connection serverSocket = new NetworkSocket();
     private static Connection serverRmi = new NetworkRmi();
+    private static Map<String, Endpoint> socketClients = new ConcurrentHashMap<>();
     private static ProxyServer instance = new ProxyServer();
     private static Boolean test = false;
+    private static final Metrics.MethodMeters outbound = Metrics.perMethod("client.");
+    private static final Metrics.MethodMeters inbound = Metrics.perMethod("server.");
+    private final HeartbeatService heartbeat = HeartbeatService.getInstance();
+
+    /**
+     * The socket connection towards an endpoint, and the players calling back on it
+     */
+    private static final class Endpoint {
+        private final Connection connection;
+        private final Set<String> players = ConcurrentHashMap.newKeySet();
+
+        private Endpoint(Connection connection) {
+            this.connection = connection;
+        }
+    }
 
     /**
      * Private constructor, prevents external access and uncontrolled instantiation of the class: use the static method
@@ -78,24 +120,55 @@ public final class ProxyServer implements SharedProxyServer {
         test = true;
     }
 
-    /**true
+    /**
+     * <strong>Remote</strong><br>
+     * Call a method on a client, logging the connection errors instead of raising them
+     * @param uuid see {@link shared.network.SharedProxyClient} for more about the first parameter
+     * @param method the method to be called on the client
+     * @param args array of object representing the method's parameters, in the exact order as in the signature
+     * @return the return value from the method invocation (if the invoked method was void, or the call failed, it will
+     *         be {@code null})
+     * @see #invokeClient(String, RemoteMethod, Object[])
+     */
+    private Object forwardMethod(String uuid, RemoteMethod method, Object[] args) {
+        try {
+            return invokeClient(uuid, method, args);
+        } catch (MethodConnectionException mce) {
+            return null;
+        }
+    }
+
+    /**
      * <strong>Remote</strong><br>
      * This method will choose the {@code Connection} attribute, among the Socket or RMI one, to call a method on the
      * client with; since the player communicates its connection preferences when it calls {@link SharedProxyServer#startGame(String, String, String, Integer, Boolean, Remote)}
      * the server will register it in an {@link SReferences} class instance, allowing any object on the server to use
      * static getters to access those data.<br>
-     * If the player connected using RMI, the method call is performed straightforward using {@link Connection#invokeMethod(String, String, Object[])};
+     * If the player connected using RMI, the method call is performed straightforward using {@link Connection#invokeMethod(String, RemoteMethod, Object[])};
      * however, if the player connected using Socket, it is the necessary to connect the server to the player's client
-     * with a new {@link NetworkSocket} instance, constructed on the player's IP and listening port
+     * with a {@link NetworkSocket} instance, constructed on the player's IP and listening port the first time and then
+     * kept open for the following calls (see {@link #socketClient(String)})
      * @param uuid see {@link shared.network.SharedProxyClient} for more about the first parameter
-     * @param methodName text representing the method name, should be the same as in the signature
+     * @param method the method to be called on the client
      * @param args array of object representing the method's parameters, in the exact order as in the signature
      * @return the return value from the method invocation (if the invoked method was void, it will be {@code null})
+     * @throws MethodConnectionException if the client could not be reached; the error is logged before being thrown
      * @see SReferences#getIsSocketRef(String)
      * @see SReferences#getIpRef(String)
      * @see SReferences#getPortRef(String)
      */
-    private Object forwardMethod(String uuid, String methodName, Object[] args) {
+    private Object invokeClient(String uuid, RemoteMethod method, Object[] args) throws MethodConnectionException {
+        Meter meter = outbound.of(method);
+        long start = System.nanoTime();
+        try {
+            return invokeClient(uuid, method, args, meter);
+        } finally {
+            meter.since(start);
+        }
+    }
+
+    private Object invokeClient(String uuid, RemoteMethod method, Object[] args, Meter meter)
+            throws MethodConnectionException {
         boolean useSocket = false;
         try {
             useSocket = SReferences.getIsSocketRef(uuid);
@@ -103,36 +176,276 @@ public final class ProxyServer implements SharedProxyServer {
             Logger.log("Unable to find player with UUID: " + uuid);
         }
         if (useSocket) {
-            Connection client = null;
             try {
-                client = new NetworkSocket(SReferences.getIpRef(uuid), SReferences.getPortRef(uuid));
-                return client.invokeMethod(uuid, methodName, args);
+                Object ret = socketClient(uuid).invokeMethod(uuid, method, args);
+                heartbeat.seen(uuid);
+                return ret;
             } catch (MethodConnectionException mce) {
-                Logger.log(SReferences.getGameRef(uuid) + " player " + uuid + " socket error occurred while invoking method " + methodName);
-            } finally {
-                if (client != null) {
-                    client.close();
-                }
+                meter.error();
+                Logger.tagged(Level.WARN, SReferences.getGameRef(uuid), "player " + uuid + " socket error occurred while invoking method " + method);
+                throw mce;
             }
         } else {
             try {
-                return serverRmi.invokeMethod(uuid, methodName, args);
+                Object ret = serverRmi.invokeMethod(uuid, method, args);
+                heartbeat.seen(uuid);
+                return ret;
             } catch (MethodConnectionException mce) {
-                Logger.log(SReferences.getGameRef(uuid) + " player " + uuid + " RMI error occurred while invoking method " + methodName);
+                meter.error();
+                Logger.tagged(Level.WARN, SReferences.getGameRef(uuid), "player " + uuid + " RMI error occurred while invoking method " + method);
+                throw mce;
+            }
+        }
+    }
+
+    /**
+     * <strong>Remote</strong><br>
+     * Call the same method on many clients at once, waiting at most {@link #BROADCAST_TIMEOUT} milliseconds
+     * @see #broadcast(Collection, RemoteMethod, Function, long)
+     */
+    public BroadcastResult broadcast(Collection<String> uuids, RemoteMethod method, Function<String, Object[]> args) {
+        return broadcast(uuids, method, args, BROADCAST_TIMEOUT);
+    }
+
+    /**
+     * <strong>Remote</strong><br>
+     * Call the same method on many clients at once: every call runs on its own thread, so a slow or unreachable client
+     * only delays its own call, and the whole broadcast lasts as long as the slowest client which answers in time.
+     * The calls still running when the deadline expires are cancelled, and reported as timed out in the result.<br>
+     * The calls are queued in the lane of the method (see {@link #laneOf(RemoteMethod)}): a view update or a ping still
+     * queued for a player is replaced by the newer one, whose parameters are built when it runs, and the calls dropped
+     * because their lane is full are reported as dropped
+     * @param uuids the players the method will be called on
+     * @param method the method to be called on each client
+     * @param args function building the parameters of the call for each player; it is run on the thread of the call
+     * @param timeout milliseconds after which the calls still running are cancelled
+     * @return summary of the outcome of every call
+     */
+    public BroadcastResult broadcast(Collection<String> uuids, RemoteMethod method, Function<String, Object[]> args,
+                                     long timeout) {
+        Map<String, Future<Object>> calls = new LinkedHashMap<>();
+        for (String uuid : uuids) {
+            calls.put(uuid, enqueue(uuid, method, args));
+        }
+        BroadcastResult result = new BroadcastResult(method);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        for (Map.Entry<String, Future<Object>> call : calls.entrySet()) {
+            try {
+                long left = Math.max(0, deadline - System.nanoTime());
+                result.delivered(call.getKey(), call.getValue().get(left, TimeUnit.NANOSECONDS));
+            } catch (ExecutionException ee) {
+                result.failed(call.getKey());
+            } catch (CancellationException ce) {
+                result.dropped(call.getKey());
+            } catch (TimeoutException te) {
+                call.getValue().cancel(true);
+                result.timedOut(call.getKey());
+            } catch (InterruptedException ie) {
+                call.getValue().cancel(true);
+                result.timedOut(call.getKey());
+                deadline = System.nanoTime();
+                Thread.currentThread().interrupt();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * <strong>Remote</strong><br>
+     * Call the same method on many clients at once, as {@link #broadcast(Collection, RemoteMethod, Function, long)}
+     * does, but without waiting for them: no thread is held until every call is done, or the deadline expires and
+     * the calls still running are cancelled; then the summary is handed over to {@code then}, on the thread which
+     * completed the last call or on the one of the timer, so it must be short
+     * @param uuids the players the method will be called on
+     * @param method the method to be called on each client
+     * @param args function building the parameters of the call for each player; it is run on the thread of the call
+     * @param timeout milliseconds after which the calls still running are cancelled
+     * @param then receiver of the summary of the outcome of every call
+     */
+    public void broadcast(Collection<String> uuids, RemoteMethod method, Function<String, Object[]> args, long timeout,
+                          Consumer<BroadcastResult> then) {
+        Map<String, LaneScheduler.Call<Object>> calls = new LinkedHashMap<>();
+        for (String uuid : uuids) {
+            calls.put(uuid, enqueue(uuid, method, args));
+        }
+        Set<String> expired = ConcurrentHashMap.newKeySet();
+        TimerWheel.Timeout deadline = ConcurrencyManager.schedule(() -> {
+            for (Map.Entry<String, LaneScheduler.Call<Object>> call : calls.entrySet()) {
+                if (!call.getValue().isDone()) {
+                    expired.add(call.getKey());
+                    call.getValue().cancel(true);
+                }
+            }
+        }, timeout);
+        // one more than the calls, so that the summary is not handed over before every call has been watched
+        AtomicInteger pending = new AtomicInteger(calls.size() + 1);
+        Runnable done = () -> {
+            if (pending.decrementAndGet() == 0) {
+                deadline.cancel();
+                then.accept(summaryOf(method, calls, expired));
+            }
+        };
+        for (LaneScheduler.Call<Object> call : calls.values()) {
+            call.whenDone(done);
+        }
+        done.run();
+    }
+
+    /**
+     * @return the outcome of the calls of a broadcast, all of them done
+     */
+    private static BroadcastResult summaryOf(RemoteMethod method, Map<String, LaneScheduler.Call<Object>> calls,
+                                             Set<String> expired) {
+        BroadcastResult result = new BroadcastResult(method);
+        for (Map.Entry<String, LaneScheduler.Call<Object>> call : calls.entrySet()) {
+            try {
+                result.delivered(call.getKey(), call.getValue().get());
+            } catch (ExecutionException ee) {
+                result.failed(call.getKey());
+            } catch (CancellationException ce) {
+                if (expired.contains(call.getKey()))
+                    result.timedOut(call.getKey());
+                else
+                    result.dropped(call.getKey());
+            } catch (InterruptedException ie) {
+                // the calls are done, so they never wait
+                Thread.currentThread().interrupt();
+                result.timedOut(call.getKey());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * <strong>Remote</strong><br>
+     * Queue a call of the method on a client, without waiting for it: the call is queued in the lane of the method
+     * as the ones of {@link #broadcast(Collection, RemoteMethod, Function, long)}, so a view update still queued for
+     * the player, either broadcast or asked by the player, is replaced by this one
+     * @param uuid see {@link shared.network.SharedProxyClient} for more about the first parameter
+     * @param method the method to be called on the client
+     * @param args function building the parameters of the call; it is run on the thread of the call
+     * @return the future return value of the call, failed if the client could not be reached and cancelled if the
+     *         call was dropped because its lane is full
+     */
+    public LaneScheduler.Call<Object> enqueue(String uuid, RemoteMethod method, Function<String, Object[]> args) {
+        LaneScheduler.Lane lane = laneOf(method);
+        Object key = lane == LaneScheduler.Lane.MOVE || method == RemoteMethod.ON_TIME_STATUS ?
+                null : method + ":" + uuid;
+        return ConcurrencyManager.submit(lane, key, () -> invokeClient(uuid, method, args.apply(uuid)));
+    }
+
+    /**
+     * Choose the lane of the {@link ConcurrencyManager} where the calls of a broadcast are queued
+     * @param method the method called by the broadcast
+     * @return {@code VIEW} for the updates of the view and of the status of the other players, {@code PING} for the
+     *         pings, {@code MOVE} for all the methods which make the game go on
+     */
+    private static LaneScheduler.Lane laneOf(RemoteMethod method) {
+        switch (method) {
+            case UPDATE_VIEW:
+            case UPDATE_VIEW_DELTA:
+            case ON_TIME_STATUS:
+                return LaneScheduler.Lane.VIEW;
+            case PING:
+                return LaneScheduler.Lane.PING;
+            default:
+                return LaneScheduler.Lane.MOVE;
+        }
+    }
+
+    /**
+     * <strong>Remote</strong><br>
+     * Ping many clients at once; if the attribute {@code test} is true, all of them are assumed to answer
+     * @param uuids the players to be pinged
+     * @param timeout milliseconds after which the players which did not answer are considered unreachable
+     * @return for each player pinged, whether its client answered in time; the players whose ping was dropped, because
+     *         too many were queued, are missing
+     * @see HeartbeatService
+     */
+    public Map<String, Boolean> pingAll(Collection<String> uuids, long timeout) {
+        Map<String, Boolean> answers = new HashMap<>();
+        if (test) {
+            for (String uuid : uuids) {
+                answers.put(uuid, true);
+            }
+            return answers;
+        }
+        BroadcastResult result = broadcast(uuids, RemoteMethod.PING, uuid -> null, timeout);
+        for (String uuid : uuids) {
+            if (!result.getDropped().contains(uuid)) {
+                answers.put(uuid, Boolean.TRUE.equals(result.getDelivered().get(uuid)));
+            }
+        }
+        return answers;
+    }
+
+    /**
+     * Obtain the socket connection towards the endpoint of a player, opening it if this is the first call to that
+     * endpoint; connections are shared by all the players exported on the same endpoint, and the player is counted
+     * among the users of the connection until it is released
+     * @param uuid see {@link shared.network.SharedProxyClient} for more about the first parameter
+     * @return the cached {@code NetworkSocket} client for the player's IP and listening port
+     * @throws MethodConnectionException if the connection to the player's endpoint cannot be established
+     * @see #releaseClient(String)
+     */
+    private Connection socketClient(String uuid) throws MethodConnectionException {
+        String ip = SReferences.getIpRef(uuid);
+        Integer port = SReferences.getPortRef(uuid);
+        String endpoint = ip + ":" + port;
+        Endpoint client = socketClients.get(endpoint);
+        if (client != null && client.players.contains(uuid)) {
+            return client.connection;
+        }
+        Connection opened = client == null ? new NetworkSocket(ip, port) : null;
+        synchronized (socketClients) {
+            client = socketClients.get(endpoint);
+            if (client == null) {
+                client = new Endpoint(opened != null ? opened : new NetworkSocket(ip, port));
+                socketClients.put(endpoint, client);
+                opened = null;
             }
+            client.players.add(uuid);
+        }
+        if (opened != null) {
+            opened.close();
+        }
+        return client.connection;
+    }
+
+    /**
+     * Stop counting a player among the users of the cached socket connections, closing the ones no other player calls
+     * back on anymore; this should be called before the player's references are removed from {@link SReferences}
+     * @param uuid see {@link shared.network.SharedProxyClient} for more about the first parameter
+     */
+    public void releaseClient(String uuid) {
+        List<Connection> unused = new ArrayList<>();
+        synchronized (socketClients) {
+            Iterator<Endpoint> endpoints = socketClients.values().iterator();
+            while (endpoints.hasNext()) {
+                Endpoint client = endpoints.next();
+                if (client.players.remove(uuid) && client.players.isEmpty()) {
+                    endpoints.remove();
+                    unused.add(client.connection);
+                }
+            }
+        }
+        for (Connection client : unused) {
+            client.close();
         }
-        return null;
     }
 
     /**
      * <strong>Local</strong><br>
      * Whenever a client calls a method on the server, this method should be called first, to check if the client involved
-     * in the call has been authorized to call methods (e.g. a player will not have such authorization unless during its turn)
+     * in the call has been authorized to call methods (e.g. a player will not have such authorization unless during its turn);
+     * the call is also recorded as a sign of life of the player by the {@link HeartbeatService}
      * @param uuid see {@link shared.network.SharedProxyClient} for more about the first parameter
+     * @param method the method called, whose meter counts the denial as an error
      * @return boolean value representing the <b>denial</b> of the authorization: it will be {@code true} if the player
      *         with UUID {@code uuid} has no authorization
      */
-    private Boolean deniedAccess(String uuid) {
+    private Boolean deniedAccess(String uuid, RemoteMethod method) {
+        heartbeat.seen(uuid);
         try {
             GameManager game = SReferences.getGameRef(uuid);
             String expected = game.getExpected();
@@ -141,14 +454,68 @@ public final class ProxyServer implements SharedProxyServer {
                 return false;
             else if (expected.equals("none") || !expected.equals(uuid)) {
                 Logger.log("Denied access for UUID " + uuid);
+                inbound.of(method).error();
                 return true;
             }
             return false;
         } catch (NullPointerException npe) {
+            inbound.of(method).error();
             return true;
         }
     }
 
+    /**
+     * <strong>Local</strong><br>
+     * Run the body of a method called by a client, timing it on the {@code server.*} meter of the method
+     * @param method the method called
+     * @param call the body of the method
+     * @return the value returned by the body
+     */
+    private <T> T timed(RemoteMethod method, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            inbound.of(method).since(start);
+        }
+    }
+
+    /**
+     * <strong>Local</strong><br>
+     * Run the body of a method called by a client, timing it on the {@code server.*} meter of the method; the player
+     * or its game may be missing, because it has left or never joined, and then the call counts as an error
+     * @param method the method called
+     * @param missing the value returned when the player or its game is missing
+     * @param failure the message logged when the player or its game is missing, or {@code null} for none
+     * @param call the body of the method
+     * @return the value returned by the body, or {@code missing}
+     */
+    private <T> T timed(RemoteMethod method, T missing, String failure, Supplier<T> call) {
+        return timed(method, () -> {
+            try {
+                return call.get();
+            } catch (NullPointerException npe) {
+                inbound.of(method).error();
+                if (failure != null) {
+                    Logger.log(failure);
+                }
+                return missing;
+            }
+        });
+    }
+
+    /**
+     * <strong>Local</strong><br>
+     * Run the body of a method called by a client which returns nothing, as the ones which return a value
+     * @see #timed(RemoteMethod, Object, String, Supplier)
+     */
+    private void timed(RemoteMethod method, String failure, Runnable call) {
+        timed(method, null, failure, () -> {
+            call.run();
+            return null;
+        });
+    }
+
     /**
      * <strong>Local</strong><br>
      * This method is called whenever a player asks to register on the server; moreover, if that player connected using
@@ -165,11 +532,13 @@ public final class ProxyServer implements SharedProxyServer {
      */
     @Override
     public String startGame(String uuid, String nick, String ip, Integer port, Boolean isSocket, Remote stub) {
-        if (!isSocket) {
-            // Export given stub to let the server call the client's methods
-            serverRmi.export(stub, uuid);
-        }
-        return MatchManager.startGame(uuid, nick, ip, port, isSocket);
+        return timed(RemoteMethod.START_GAME, () -> {
+            if (!isSocket) {
+                // Export given stub to let the server call the client's methods
+                serverRmi.export(stub, uuid);
+            }
+            return MatchManager.startGame(uuid, nick, ip, port, isSocket);
+        });
     }
 
     /**
@@ -180,7 +549,18 @@ public final class ProxyServer implements SharedProxyServer {
      */
     @Override
     public void updateView(String uuid, GameManagerT gameManager) {
-        forwardMethod(uuid, "updateView", new Object[]{gameManager});
+        forwardMethod(uuid, RemoteMethod.UPDATE_VIEW, new Object[]{gameManager});
+    }
+
+    /**
+     * <strong>Remote</strong><br>
+     * @param uuid see {@link shared.network.SharedProxyClient} for more about the first parameter
+     * @param delta {@link GameDeltaT}
+     * @see shared.network.SharedProxyServer#updateViewDelta(String, GameDeltaT)
+     */
+    @Override
+    public void updateViewDelta(String uuid, GameDeltaT delta) {
+        forwardMethod(uuid, RemoteMethod.UPDATE_VIEW_DELTA, new Object[]{delta});
     }
 
     /**
@@ -193,7 +573,7 @@ public final class ProxyServer implements SharedProxyServer {
      */
     @Override
     public Boolean chooseWindow(String uuid, ArrayList<Integer> windows, ArrayList<Cell[][]> matrices) {
-        Boolean ret = (Boolean) forwardMethod(uuid, "chooseWindow", new Object[]{windows, matrices});
+        Boolean ret = (Boolean) forwardMethod(uuid, RemoteMethod.CHOOSE_WINDOW, new Object[]{windows, matrices});
         if (ret != null) {
             return ret;
         } else {
@@ -214,7 +594,7 @@ public final class ProxyServer implements SharedProxyServer {
         if(test) {
             return true;
         } else {
-            Boolean ret = (Boolean) forwardMethod(uuid, "ping", null);
+            Boolean ret = (Boolean) forwardMethod(uuid, RemoteMethod.PING, null);
             if (ret != null) {
                 return ret;
             } else {
@@ -230,7 +610,7 @@ public final class ProxyServer implements SharedProxyServer {
      */
     @Override
     public void tavoloWin(String uuid) {
-        forwardMethod(uuid, "tavoloWin", null);
+        forwardMethod(uuid, RemoteMethod.TAVOLO_WIN, null);
     }
 
     /**
@@ -240,7 +620,7 @@ public final class ProxyServer implements SharedProxyServer {
      */
     @Override
     public void enable(String uuid) {
-        forwardMethod(uuid, "enable", null);
+        forwardMethod(uuid, RemoteMethod.ENABLE, null);
     }
 
     /**
@@ -250,7 +630,7 @@ public final class ProxyServer implements SharedProxyServer {
      */
     @Override
     public void shut(String uuid) {
-        forwardMethod(uuid, "shut", null);
+        forwardMethod(uuid, RemoteMethod.SHUT, null);
     }
 
     /**
@@ -260,7 +640,7 @@ public final class ProxyServer implements SharedProxyServer {
      */
     @Override
     public void printScore(String uuid, ArrayList<String> nicks, ArrayList<Integer> scores, ArrayList<Boolean> winner) {
-        forwardMethod(uuid, "printScore", new Object[]{nicks, scores, winner});
+        forwardMethod(uuid, RemoteMethod.PRINT_SCORE, new Object[]{nicks, scores, winner});
     }
 
     /**
@@ -272,13 +652,11 @@ public final class ProxyServer implements SharedProxyServer {
      */
     @Override
     public Boolean chooseWindowBack(String uuid, Integer window) {
-        try {
-            if (deniedAccess(uuid))
+        return timed(RemoteMethod.CHOOSE_WINDOW_BACK, false, null, () -> {
+            if (deniedAccess(uuid, RemoteMethod.CHOOSE_WINDOW_BACK))
                 return false;
             return SReferences.getPlayerRef(uuid).setWindowFromC(window);
-        } catch (NullPointerException npe) {
-            return false;
-        }
+        });
     }
 
     /**
@@ -289,7 +667,7 @@ public final class ProxyServer implements SharedProxyServer {
      */
     @Override
     public Boolean startGameViewForced(String uuid) {
-        Boolean ret = (Boolean) forwardMethod(uuid, "startGameViewForced", null);
+        Boolean ret = (Boolean) forwardMethod(uuid, RemoteMethod.START_GAME_VIEW_FORCED, null);
         if (ret != null) {
             return ret;
         } else {
@@ -307,16 +685,12 @@ public final class ProxyServer implements SharedProxyServer {
      */
     @Override
     public Boolean placeDice(String uuid, Integer index, Position p) {
-        try {
-            if (deniedAccess(uuid)) {
+        return timed(RemoteMethod.PLACE_DICE, false, null, () -> {
+            if (deniedAccess(uuid, RemoteMethod.PLACE_DICE)) {
                 return false;
             }
-            Boolean value;
-            value = SReferences.getPlayerRef(uuid).placeDice(index, p);
-            return value;
-        } catch (NullPointerException npe) {
-            return false;
-        }
+            return SReferences.getPlayerRef(uuid).placeDice(index, p);
+        });
     }
 
     /**
@@ -335,16 +709,12 @@ public final class ProxyServer implements SharedProxyServer {
      */
     @Override
     public Boolean useToolC(String uuid, Integer i1, Position p1, Position p2, Position p3, Position p4, PositionR pr, Integer i2, Integer i3) {
-        try {
-            if (deniedAccess(uuid)) {
+        return timed(RemoteMethod.USE_TOOL_C, false, null, () -> {
+            if (deniedAccess(uuid, RemoteMethod.USE_TOOL_C)) {
                 return false;
             }
-            Boolean value;
-            value = SReferences.getPlayerRef(uuid).useTool(i1, p1, p2, p3, p4, pr, i2, i3);
-            return value;
-        } catch (NullPointerException npe) {
-            return false;
-        }
+            return SReferences.getPlayerRef(uuid).useTool(i1, p1, p2, p3, p4, pr, i2, i3);
+        });
     }
 
     /**
@@ -354,11 +724,7 @@ public final class ProxyServer implements SharedProxyServer {
      */
     @Override
     public void exitGame2(String uuid) {
-        try {
-            SReferences.getGameRef(uuid).exitGame2(uuid);
-        } catch (NullPointerException npe) {
-            //Logger.log("Player " + uuid + " has disconnected");
-        }
+        timed(RemoteMethod.EXIT_GAME_2, null, () -> SReferences.getGameRef(uuid).exitGame2(uuid));
     }
 
     /**
@@ -368,14 +734,11 @@ public final class ProxyServer implements SharedProxyServer {
      */
     @Override
     public void endTurn(String uuid) {
-        try {
-            if (deniedAccess(uuid)) {
-                return;
+        timed(RemoteMethod.END_TURN, "Unable to terminate turn for player with UUID " + uuid, () -> {
+            if (!deniedAccess(uuid, RemoteMethod.END_TURN)) {
+                SReferences.getGameRef(uuid).endTurn();
             }
-            SReferences.getGameRef(uuid).endTurn();
-        } catch (NullPointerException npe) {
-            Logger.log("Unable to terminate turn for player with UUID " + uuid);
-        }
+        });
     }
 
     /**
@@ -385,14 +748,22 @@ public final class ProxyServer implements SharedProxyServer {
      */
     @Override
     public void updateViewFromC(String uuid) {
-        try {
-            if (deniedAccess(uuid)) {
-                return;
+        timed(RemoteMethod.UPDATE_VIEW_FROM_C, "Unable to update the view of player with UUID " + uuid, () -> {
+            if (!deniedAccess(uuid, RemoteMethod.UPDATE_VIEW_FROM_C)) {
+                SReferences.getPlayerRef(uuid).updateViewFromC(uuid);
             }
-            SReferences.getPlayerRef(uuid).updateViewFromC(uuid);
-        } catch (NullPointerException npe) {
-            Logger.log("Unable to update teh view of player with UUID " + uuid);
-        }
+        });
+    }
+
+    /**
+     * <strong>Local</strong><br>
+     * @param uuid see {@link shared.network.SharedProxyClient} for more about the first parameter
+     * @see shared.network.SharedProxyServer#resyncView(String)
+     */
+    @Override
+    public void resyncView(String uuid) {
+        timed(RemoteMethod.RESYNC_VIEW, "Unable to resync the view of player with UUID " + uuid,
+                () -> SReferences.getPlayerRef(uuid).resyncView(uuid));
     }
 
     /**
@@ -403,12 +774,8 @@ public final class ProxyServer implements SharedProxyServer {
      */
     @Override
     public Boolean exitGame1(String uuid) {
-        try {
-            return MatchManager.exitGame1(uuid);
-        } catch (NullPointerException npe) {
-            Logger.log("Unable to log out player with UUID " + uuid);
-        }
-        return false;
+        return timed(RemoteMethod.EXIT_GAME_1, false, "Unable to log out player with UUID " + uuid,
+                () -> MatchManager.exitGame1(uuid));
     }
 
     /**
@@ -420,6 +787,6 @@ public final class ProxyServer implements SharedProxyServer {
      */
     @Override
     public void onTimeStatus(String uuid, String s1, String s2) {
-        forwardMethod(uuid, "onTimeStatus", new Object[]{s1, s2});
+        forwardMethod(uuid, RemoteMethod.ON_TIME_STATUS, new Object[]{s1, s2});
     }
 }
\ No newline at end of file
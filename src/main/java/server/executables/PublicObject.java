@@ -1,15 +1,19 @@
 package server.executables;
 
-import server.threads.MainServer;
-import shared.Dice;
+import server.LegalityIndex;
 import server.Overlay;
+import shared.Packed;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Set;
-
+/**
+ * the public objective cards. Each one reads the packed cells of the overlay and keeps what it has seen
+ * in the bits of an int (a bit for each color or shade) or in the bytes of a long (a counter for each
+ * color or shade), so scoring a player allocates nothing
+ */
 public class PublicObject {
 
+    private static final int ROWS = LegalityIndex.ROWS;
+    private static final int COLUMNS = LegalityIndex.COLUMNS;
+
     private PublicObject() {
     }
 
@@ -19,29 +23,10 @@ public class PublicObject {
      * @return the score gained
      */
     public static Integer use1(Overlay overlay) {
-        int i = 0;
-        int j = 0;
         int sum = 0;
-        int esito = 1;
-
-        Dice dice;
-
-        Set<Character> colors = new HashSet<>();
-
-        while (i < 4) {
-            colors.clear();
-            while (j < 5) {
-                dice = overlay.getDicePositions()[i][j];
-                if (dice == null || !colors.add(dice.getColor()))
-                    esito = 0;
-                j++;
-            }
-            j = 0;
-            i++;
-            if (esito == 1)
+        for (int r = 0; r < ROWS; r++)
+            if (distinct(overlay, r * COLUMNS, 1, COLUMNS, true))
                 sum = sum + 6;
-            esito = 1;
-        }
         return sum;
     }
 
@@ -51,29 +36,10 @@ public class PublicObject {
      * @return the score gained
      */
     public static Integer use2(Overlay overlay) {
-        int i = 0;
-        int j = 0;
         int sum = 0;
-        int esito = 1;
-
-        Dice dice;
-
-        Set<Character> colors = new HashSet<>();
-
-        while (i < 5) {
-            colors.clear();
-            while (j < 4) {
-                dice = overlay.getDicePositions()[j][i];
-                if (dice == null || !colors.add(dice.getColor()))
-                    esito = 0;
-                j++;
-            }
-            j = 0;
-            i++;
-            if (esito == 1)
+        for (int c = 0; c < COLUMNS; c++)
+            if (distinct(overlay, c, COLUMNS, ROWS, true))
                 sum = sum + 5;
-            esito = 1;
-        }
         return sum;
     }
 
@@ -83,29 +49,10 @@ public class PublicObject {
      * @return the score gained
      */
     public static Integer use3(Overlay overlay) {
-        int i = 0;
-        int j = 0;
         int sum = 0;
-        int esito = 1;
-
-        Dice dice;
-
-        Set<Integer> numbers = new HashSet<>();
-
-        while (i < 5) {
-            numbers.clear();
-            while (j < 4) {
-                dice = overlay.getDicePositions()[j][i];
-                if (dice == null || !numbers.add(dice.getValue()))
-                    esito = 0;
-                j++;
-            }
-            j = 0;
-            i++;
-            if (esito == 1)
+        for (int c = 0; c < COLUMNS; c++)
+            if (distinct(overlay, c, COLUMNS, ROWS, false))
                 sum = sum + 4;
-            esito = 1;
-        }
         return sum;
     }
 
@@ -115,29 +62,10 @@ public class PublicObject {
      * @return the score gained
      */
     public static Integer use4(Overlay overlay) {
-        int i = 0;
-        int j = 0;
         int sum = 0;
-        int esito = 1;
-
-        Dice dice;
-
-        Set<Integer> numbers = new HashSet<>();
-
-        while (i < 4) {
-            numbers.clear();
-            while (j < 5) {
-                dice = overlay.getDicePositions()[i][j];
-                if (dice == null || !numbers.add(dice.getValue()))
-                    esito = 0;
-                j++;
-            }
-            j = 0;
-            i++;
-            if (esito == 1)
+        for (int r = 0; r < ROWS; r++)
+            if (distinct(overlay, r * COLUMNS, 1, COLUMNS, false))
                 sum = sum + 5;
-            esito = 1;
-        }
         return sum;
     }
 
@@ -147,40 +75,7 @@ public class PublicObject {
      * @return the score gained
      */
     public static Integer use5(Overlay overlay) {
-        int i = 0;
-        int j = 0;
-        int sum = 0;
-
-        Dice dice;
-        Set<Character> colors1 = new HashSet<>();
-        Set<Character> colors2 = new HashSet<>();
-        Set<Character> colors3 = new HashSet<>();
-        Set<Character> colors4 = new HashSet<>();
-
-        while (i < 4) {
-            while (j < 5) {
-                dice = overlay.getDicePositions()[i][j];
-                if (dice != null)
-                    if (!colors1.add(dice.getColor()))
-                        if (!colors2.add(dice.getColor()))
-                            if (!colors3.add(dice.getColor()))
-                                colors4.add(dice.getColor());
-                j++;
-            }
-            j = 0;
-            i++;
-        }
-
-        if (colors1.size() == 5)
-            sum = sum + 4;
-        if (colors2.size() == 5)
-            sum = sum + 4;
-        if (colors3.size() == 5)
-            sum = sum + 4;
-        if (colors4.size() == 5)
-            sum = sum + 4;
-
-        return sum;
+        return 4 * sets(count(overlay, true), Packed.COLORS.length());
     }
 
     /**
@@ -189,40 +84,7 @@ public class PublicObject {
      * @return the score gained
      */
     public static Integer use6(Overlay overlay) {
-        int i = 0;
-        int j = 0;
-        int sum = 0;
-
-        Dice dice;
-        Set<Integer> shades1 = new HashSet<>();
-        Set<Integer> shades2 = new HashSet<>();
-        Set<Integer> shades3 = new HashSet<>();
-        Set<Integer> shades4 = new HashSet<>();
-
-        while (i < 4) {
-            while (j < 5) {
-                dice = overlay.getDicePositions()[i][j];
-                if (dice != null)
-                    if (!shades1.add(dice.getValue()))
-                        if (!shades2.add(dice.getValue()))
-                            if (!shades3.add(dice.getValue()))
-                                shades4.add(dice.getValue());
-                j++;
-            }
-            j = 0;
-            i++;
-        }
-
-        if (shades1.size() == 6)
-            sum = sum + 5;
-        if (shades2.size() == 6)
-            sum = sum + 5;
-        if (shades3.size() == 6)
-            sum = sum + 5;
-        if (shades4.size() == 6)
-            sum = sum + 5;
-
-        return sum;
+        return 5 * sets(count(overlay, false), Packed.SHADES);
     }
 
     /**
@@ -231,31 +93,7 @@ public class PublicObject {
      * @return the score gained
      */
     public static Integer use7(Overlay overlay) {
-        int i = 0;
-        int j = 0;
-
-        Dice dice;
-        ArrayList<Boolean> shades5 = new ArrayList<>();
-        ArrayList<Boolean> shades6 = new ArrayList<>();
-
-        while (i < 4) {
-            while (j < 5) {
-                dice = overlay.getDicePositions()[i][j];
-                if (dice != null)
-                    if (dice.getValue().equals(5))
-                        shades5.add(true);
-                    else if (dice.getValue().equals(6))
-                        shades6.add(true);
-                j++;
-            }
-            j = 0;
-            i++;
-        }
-
-        shades5.trimToSize();
-        shades6.trimToSize();
-
-        return Math.min(shades5.size(), shades6.size()) * 2;
+        return pairs(count(overlay, false), 5, 6);
     }
 
     /**
@@ -264,31 +102,7 @@ public class PublicObject {
      * @return the score gained
      */
     public static Integer use8(Overlay overlay) {
-        int i = 0;
-        int j = 0;
-
-        Dice dice;
-        ArrayList<Boolean> shades3 = new ArrayList<>();
-        ArrayList<Boolean> shades4 = new ArrayList<>();
-
-        while (i < 4) {
-            while (j < 5) {
-                dice = overlay.getDicePositions()[i][j];
-                if (dice != null)
-                    if (dice.getValue().equals(3))
-                        shades3.add(true);
-                    else if (dice.getValue().equals(4))
-                        shades4.add(true);
-                j++;
-            }
-            j = 0;
-            i++;
-        }
-
-        shades3.trimToSize();
-        shades4.trimToSize();
-
-        return Math.min(shades3.size(), shades4.size()) * 2;
+        return pairs(count(overlay, false), 3, 4);
     }
 
     /**
@@ -297,76 +111,80 @@ public class PublicObject {
      * @return the score gained
      */
     public static Integer use9(Overlay overlay) {
-        int i = 0;
-        int j = 0;
-
-        Dice dice;
-        ArrayList<Boolean> shades1 = new ArrayList<>();
-        ArrayList<Boolean> shades2 = new ArrayList<>();
-
-        while (i < 4) {
-            while (j < 5) {
-                dice = overlay.getDicePositions()[i][j];
-                if (dice != null)
-                    if (dice.getValue().equals(1))
-                        shades1.add(true);
-                    else if (dice.getValue().equals(2))
-                        shades2.add(true);
-                j++;
-            }
-            j = 0;
-            i++;
-        }
-
-        shades1.trimToSize();
-        shades2.trimToSize();
-
-        return Math.min(shades1.size(), shades2.size()) * 2;
+        return pairs(count(overlay, false), 1, 2);
     }
 
     /**
-     * player gains points for every diagonally adjacent and same color dice
+     * player gains points for every diagonally adjacent and same color dice.
+     * The flood fill this card always did moves on to the color of any diagonal neighbour it meets,
+     * so every dice ends up in exactly one group: the score is the number of dices placed
      * @param overlay is where the dices are placed
      * @return the score gained
      */
     public static Integer use10(Overlay overlay) {
-        Dice[][] dices = MainServer.deepClone(overlay.getDicePositions());
-        int i = 0;
-        int j;
-        int sum = 0;
-        while (i < 4) {
-            j = 0;
-            while (j < 5) {
-                sum = sum + computate(dices, 'a', i, j);
-                j++;
-            }
-            i++;
+        return Integer.bitCount(overlay.getLegality().getBusy());
+    }
+
+    /**
+     * @return whether the
+     * @param length cells of the overlay from
+     * @param first , each
+     * @param step cells after the previous one, all hold a dice and have different colors (or shades, if not
+     * @param color )
+     */
+    private static boolean distinct(Overlay overlay, int first, int step, int length, boolean color) {
+        int seen = 0;
+        for (int i = 0, cell = first; i < length; i++, cell += step) {
+            byte dice = overlay.getPacked(cell);
+            if (dice == Packed.EMPTY)
+                return false;
+            int bit = 1 << (color ? Packed.color(dice) : Packed.shade(dice));
+            if ((seen & bit) != 0)
+                return false;
+            seen |= bit;
         }
-        return sum;
+        return true;
     }
 
     /**
-     * @see #use10(Overlay)'s core
-     * @param dices the matrix that resides in overlay
-     * @param color the color of the dice
-     * @param r row in the matrix
-     * @param c column in the matrix
-     * @return the score gained
+     * @return how many dices of each color (or shade, if not
+     * @param color ) the
+     * @param overlay holds, a byte for each: color index i or shade i + 1 is in byte i
+     */
+    private static long count(Overlay overlay, boolean color) {
+        long counts = 0;
+        for (int cell = 0; cell < ROWS * COLUMNS; cell++) {
+            byte dice = overlay.getPacked(cell);
+            if (dice != Packed.EMPTY)
+                counts += 1L << 8 * (color ? Packed.color(dice) : Packed.shade(dice) - 1);
+        }
+        return counts;
+    }
+
+    private static int countOf(long counts, int index) {
+        return (int) (counts >>> 8 * index) & 0xff;
+    }
+
+    /**
+     * @return how many complete sets of the first
+     * @param kinds in
+     * @param counts can be made, at most four
      */
-    private static Integer computate(Dice[][] dices, Character color,
-                                     Integer r, Integer c) {
+    private static int sets(long counts, int kinds) {
+        int sets = 4;
+        for (int i = 0; i < kinds; i++)
+            sets = Math.min(sets, countOf(counts, i));
+        return sets;
+    }
 
-        if (r > 3 || r < 0 || c > 4 || c < 0)
-            return 0;
-        if (dices[r][c] == null)
-            return 0;
-        if (!dices[r][c].getColor().equals(color))
-            return computate(dices, dices[r][c].getColor(), r, c);
-        dices[r][c] = null;
-        return 1 + computate(dices, color, r - 1, c - 1) +
-                computate(dices, color, r - 1, c + 1) +
-                computate(dices, color, r + 1, c + 1) +
-                computate(dices, color, r + 1, c - 1);
+    /**
+     * @return the points of the pairs of the shades
+     * @param a and
+     * @param b found in
+     * @param counts
+     */
+    private static int pairs(long counts, int a, int b) {
+        return Math.min(countOf(counts, a - 1), countOf(counts, b - 1)) * 2;
     }
 
-}
\ No newline at end of file
+}
@@ -62,11 +62,11 @@ public class Tool {
         if (i3.equals(-1)) {
             if (dice.getValue().equals(1))
                 return false;
-            dice.setValue(dice.getValue() - 1);
+            pool.setDice(i2, dice.withValue(dice.getValue() - 1));
         } else if (i3.equals(1)) {
             if (dice.getValue().equals(6))
                 return false;
-            dice.setValue(dice.getValue() + 1);
+            pool.setDice(i2, dice.withValue(dice.getValue() + 1));
         } else return false;
 
         return player.getWindow().placeDiceFromPool(player, i2, p1);
@@ -160,7 +160,7 @@ public class Tool {
 
         Dice dice = pool.getDice(i2);
         Random rand = new Random();
-        dice.setValue(1 + rand.nextInt(6));
+        pool.setDice(i2, dice.withValue(1 + rand.nextInt(6)));
 
         return player.getWindow().placeDiceFromPool(player, i2, p1);
 
@@ -265,8 +265,7 @@ public class Tool {
         Dice dice;
         Random rand = new Random();
         int k = rand.nextInt(diceBag.size());
-        dice = diceBag.get(k);
-        dice.setValue(i3);
+        dice = diceBag.get(k).withValue(i3);
         diceBag.set(k, pool.getDice(i2));
         pool.setDice(i2, dice);
 
@@ -2,36 +2,63 @@ package server.threads;
 
 import server.*;
 import server.concurrency.ConcurrencyManager;
+import server.concurrency.TimerWheel;
+import server.connection.BroadcastResult;
+import server.connection.HeartbeatService;
 import server.connection.ProxyServer;
 import server.executables.PublicObject;
 import server.Window;
 import shared.*;
 import server.Player;
 import shared.TransferObjects.*;
+import shared.logging.Level;
+import shared.metrics.Meter;
+import shared.metrics.Metrics;
+import shared.network.RemoteMethod;
 import server.concurrency.GeneralTask;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * this class regulates the events in the game, and let them happen
  */
 public class GameManager extends GeneralTask {
 
+    /**
+     * the phases of all the games: the steps run, the choice of the windows, the rounds, the turns
+     * (the ones ended by the timeout are errors), the updates of the views, the time from a view asked by a
+     * player to its update being built, and the scoring
+     */
+    private static final Meter steps = Metrics.meter("game.step");
+    private static final Meter windows = Metrics.meter("game.windows");
+    private static final Meter rounds = Metrics.meter("game.round");
+    private static final Meter turns = Metrics.meter("game.turn");
+    private static final Meter viewUpdates = Metrics.meter("game.view");
+    private static final Meter askedViews = Metrics.meter("game.view.asked");
+    private static final Meter scoring = Metrics.meter("game.scoring");
+
     private Integer code;
     private final ArrayList<String> publicRef = new ArrayList<>();
     private ProxyServer proxyServer = ProxyServer.getInstance();
+    private HeartbeatService heartbeat = HeartbeatService.getInstance();
+    private RealTimeStatus realTimeStatus;
     private final ArrayList<String> players = new ArrayList<>();
     private ArrayList<String> players2 = new ArrayList<>();
     private final Integer timeout1; //timer to play for each player config
     private final Integer timeout2; //for window back
     private final Integer timeout3; //time for graphics
     private final Integer timeout4; //to show results
+    private final Integer viewDebounce; //to gather the views asked by a player
     private final ArrayList<Player> vPlayersFixed = new ArrayList<>();
     private ArrayList<Player> vPlayers = new ArrayList<>();
-    private boolean action = false;
     private ArrayList<Integer> publicOCs = new ArrayList<>();
     private ArrayList<Integer> toolCards = new ArrayList<>();
+    private final ArrayList<String> publicNames = new ArrayList<>();
+    private final ArrayList<String> toolNames = new ArrayList<>();
     private ArrayList<Integer> tCtokens = new ArrayList<>();
     private Set<String> left = Collections.synchronizedSet(new HashSet<>());
     private Vector<String> jump = new Vector<>();
@@ -41,7 +68,27 @@ public class GameManager extends GeneralTask {
     private RoundTrack roundTrack = new RoundTrack();
     private ArrayList<Dice> diceBag = new ArrayList<>();
     private Pool pool = new Pool();
+    private final ViewStream views = new ViewStream();
+    private final Set<String> viewsAsked = ConcurrentHashMap.newKeySet();
     private final Object obj = new Object();
+    private Phase phase = Phase.CREATED;
+    private ArrayList<Integer> windowChoices = new ArrayList<>();
+    private final ArrayList<String> turnOrder = new ArrayList<>();
+    private int round = 0;
+    private int turn = 0;
+    private String current;
+    private volatile int turnToken = 0;
+    private TimerWheel.Timeout turnTimeout;
+    private long windowsStart;
+    private long roundStart;
+    private long turnStart;
+
+    /**
+     * the phases of the game: each one ends with a timeout or, for the turns, when the player ends it
+     */
+    private enum Phase {
+        CREATED, WINDOWS, TURN, SCORING, CLOSED
+    }
 
     /**
      * build a new Game with
@@ -56,6 +103,7 @@ public class GameManager extends GeneralTask {
         this.timeout2 = Config.getConfig().timeout3;
         this.timeout3 = Config.getConfig().timeout4;
         this.timeout4 = Config.getConfig().timeout5;
+        this.viewDebounce = Config.getConfig().viewDebounce;
 
         for (String p :
                 publicRef) {
@@ -64,21 +112,14 @@ public class GameManager extends GeneralTask {
 
         this.code = SReferences.getIndexOfGameRef(this) + 1;
 
-        System.out.println("\n");
-
-        Logger.log(this + ". Game started with " + players.size() +
-                " players. They are: ");
-        for (String player :
-                players) {
-            Logger.log(player + "; ");
-        }
-        System.out.println("\nServer wishes them good luck.\n");
+        Logger.tagged(this, "Game started with " + players.size() +
+                " players. They are: " + String.join("; ", players) + ". Server wishes them good luck.");
 
-        System.out.println(this + ", those are the configuration parameters: \n" +
+        Logger.tagged(this, "those are the configuration parameters: \n" +
                 "time given to\n" +
                 "\teach player to choose what to do: " + timeout1 / 1000 + "s\n" +
                 "\tallow initialization of GUI environment " + timeout2 / 1000 + "s\n" +
-                "\teach player to choose the appropriate window: " + timeout3 / 1000 + "s\n");
+                "\teach player to choose the appropriate window: " + timeout3 / 1000 + "s");
 
         int i = 0;
 
@@ -127,7 +168,7 @@ public class GameManager extends GeneralTask {
         toolCards.add(a.get(0));
         toolCards.add(a.get(1));
         toolCards.add(a.get(2));
-        Logger.log(this + " assigned " +
+        Logger.tagged(this, "assigned " +
                 "Tool cards n° " + revealToolCard(a.get(0)) + ", " + revealToolCard(a.get(1))
                 + ", " + revealToolCard(a.get(2)));
 
@@ -137,37 +178,37 @@ public class GameManager extends GeneralTask {
         publicOCs.add(a.get(0));
         publicOCs.add(a.get(1));
         publicOCs.add(a.get(2));
-        Logger.log(this + " assigned " +
+        nameCards();
+        Logger.tagged(this, "assigned " +
                 "Public Objective cards n° " + revealPublicOC(a.get(0)) + ", "
                 + revealPublicOC(a.get(1)) + ", " + revealPublicOC(a.get(2)));
 
         //initialize some dice
-        pool.addDice(new Dice('y', 2));
-        pool.addDice(new Dice('b', 3));
-        pool.addDice(new Dice('r', 6));
-        pool.addDice(new Dice('b', 5));
-        pool.addDice(new Dice('v', 1));
-        pool.addDice(new Dice('g', 4));
-        pool.addDice(new Dice('y', 6));
-        pool.addDice(new Dice('g', 5));
-        pool.addDice(new Dice('v', 2));
-        pool.addDice(new Dice('b', 4));
-        pool.addDice(new Dice('v', 2));
-        pool.addDice(new Dice('r', 6));
-        pool.addDice(new Dice('g', 4));
-        pool.addDice(new Dice('g', 2));
-        pool.addDice(new Dice('y', 3));
-        pool.addDice(new Dice('v', 2));
-        pool.addDice(new Dice('b', 5));
-        pool.addDice(new Dice('y', 3));
-        pool.addDice(new Dice('b', 2));
-        pool.addDice(new Dice('g', 3));
-        pool.addDice(new Dice('y', 5));
-        pool.addDice(new Dice('r', 2));
-        pool.addDice(new Dice('b', 5));
-
-        Logger.log(this + " Initialization sequence completed\n");
-        pause(timeout4);
+        pool.addDice(Dice.of('y', 2));
+        pool.addDice(Dice.of('b', 3));
+        pool.addDice(Dice.of('r', 6));
+        pool.addDice(Dice.of('b', 5));
+        pool.addDice(Dice.of('v', 1));
+        pool.addDice(Dice.of('g', 4));
+        pool.addDice(Dice.of('y', 6));
+        pool.addDice(Dice.of('g', 5));
+        pool.addDice(Dice.of('v', 2));
+        pool.addDice(Dice.of('b', 4));
+        pool.addDice(Dice.of('v', 2));
+        pool.addDice(Dice.of('r', 6));
+        pool.addDice(Dice.of('g', 4));
+        pool.addDice(Dice.of('g', 2));
+        pool.addDice(Dice.of('y', 3));
+        pool.addDice(Dice.of('v', 2));
+        pool.addDice(Dice.of('b', 5));
+        pool.addDice(Dice.of('y', 3));
+        pool.addDice(Dice.of('b', 2));
+        pool.addDice(Dice.of('g', 3));
+        pool.addDice(Dice.of('y', 5));
+        pool.addDice(Dice.of('r', 2));
+        pool.addDice(Dice.of('b', 5));
+
+        Logger.tagged(this, "Initialization sequence completed\n");
 
     }
 
@@ -205,39 +246,19 @@ public class GameManager extends GeneralTask {
 
         while (i <= 90) {
             if (1 <= i && i <= 18)
-                diceBag.add(new Dice('r', 1 + rand.nextInt(6)));
+                diceBag.add(Dice.of('r', 1 + rand.nextInt(6)));
             else if (19 <= i && i <= 36)
-                diceBag.add(new Dice('y', 1 + rand.nextInt(6)));
+                diceBag.add(Dice.of('y', 1 + rand.nextInt(6)));
             else if (37 <= i && i <= 54)
-                diceBag.add(new Dice('g', 1 + rand.nextInt(6)));
+                diceBag.add(Dice.of('g', 1 + rand.nextInt(6)));
             else if (55 <= i && i <= 72)
-                diceBag.add(new Dice('b', 1 + rand.nextInt(6)));
+                diceBag.add(Dice.of('b', 1 + rand.nextInt(6)));
             else if (73 <= i)
-                diceBag.add(new Dice('v', 1 + rand.nextInt(6)));
+                diceBag.add(Dice.of('v', 1 + rand.nextInt(6)));
             i++;
         }
     }
 
-    /**
-     * corresponds to the end of the turn of each player
-     *
-     * @param action can be false, before the turn start,
-     *               true, when the player finishes or timer runs out
-     */
-    private void setAction(boolean action) {
-        synchronized (obj) {
-            this.action = action;
-            obj.notifyAll();
-        }
-    }
-
-    /**
-     * @return if the turn has finished or not
-     */
-    private Boolean getAction() {
-        return action;
-    }
-
     @Override
     public String toString() {
         return "GameManager: " + code.toString();
@@ -256,22 +277,48 @@ public class GameManager extends GeneralTask {
      * @param access to interact with the game.
      */
     private synchronized void setExpected(String access) {
-        Logger.log(this + " Access granted to: " + access);
+        Logger.tagged(this, "Access granted to: " + access);
         this.expected = access;
     }
 
     /**
-     * customized version of sleep for
+     * run
      *
-     * @param millis ms
-     */
-    private void pause(Integer millis) {
-        try {
-            Thread.sleep(millis);
-        } catch (InterruptedException e) {
-            Logger.log(e);
-            Thread.currentThread().interrupt();
-        }
+     * @param step of the game after
+     * @param millis ms. The steps of a game never overlap, and none of them is run after the game is closed
+     * @return the handle to cancel the step
+     */
+    private TimerWheel.Timeout schedule(Runnable step, long millis) {
+        return ConcurrencyManager.schedule(() -> {
+            synchronized (obj) {
+                if (phase == Phase.CLOSED)
+                    return;
+                long start = System.nanoTime();
+                try {
+                    step.run();
+                } catch (RuntimeException re) {
+                    steps.error();
+                    Logger.tagged(Level.ERROR, this, "unexpected error, the game goes on");
+                    Logger.strace(re);
+                } finally {
+                    steps.since(start);
+                }
+            }
+        }, millis);
+    }
+
+    /**
+     * call
+     *
+     * @param method on the clients of
+     * @param uuids without waiting for them, so no step holds a thread while the clients answer: when all of them
+     * answered, or the broadcast timed out,
+     * @param then is run with the result as the next step of the game
+     */
+    private void broadcast(Collection<String> uuids, RemoteMethod method, Function<String, Object[]> args,
+                           Consumer<BroadcastResult> then) {
+        proxyServer.broadcast(uuids, method, args, ProxyServer.BROADCAST_TIMEOUT,
+                result -> schedule(() -> then.accept(result), 0));
     }
 
     /**
@@ -298,12 +345,28 @@ public class GameManager extends GeneralTask {
     public void setPublicOCs(List<Integer> publicOCs) {
         this.publicOCs.clear();
         this.publicOCs.addAll(publicOCs);
+        nameCards();
     }
 
     public void setToolCards(List<Integer> toolCards) {
         //only for testing
         this.toolCards.clear();
         this.toolCards.addAll(toolCards);
+        nameCards();
+    }
+
+    /**
+     * the names of the cards, sent with every full view, are built when the cards are dealt
+     */
+    private void nameCards() {
+        publicNames.clear();
+        for (Integer card :
+                publicOCs)
+            publicNames.add(revealPublicOC(card));
+        toolNames.clear();
+        for (Integer card :
+                toolCards)
+            toolNames.add(revealToolCard(card));
     }
 
     public String revealPublicOC(Integer i) {
@@ -372,64 +435,16 @@ public class GameManager extends GeneralTask {
         }
     }
 
+    /**
+     * @return the name of the window
+     * @param i in the catalog
+     */
     public String revealWindow(Integer i) {
         if (i == null)
             return "null";
-
-        switch (i) {
-            case 0:
-                return "Window0";
-            case 1:
-                return "Window1";
-            case 2:
-                return "Window2";
-            case 3:
-                return "Window3";
-            case 4:
-                return "Window4";
-            case 5:
-                return "Window5";
-            case 6:
-                return "Window6";
-            case 7:
-                return "Window7";
-            case 8:
-                return "Window8";
-            case 9:
-                return "Window9";
-            case 10:
-                return "Window10";
-            case 11:
-                return "Window11";
-            case 12:
-                return "Window12";
-            case 13:
-                return "Window13";
-            case 14:
-                return "Window14";
-            case 15:
-                return "Window15";
-            case 16:
-                return "Window16";
-            case 17:
-                return "Window17";
-            case 18:
-                return "Window18";
-            case 19:
-                return "Window19";
-            case 20:
-                return "Window20";
-            case 21:
-                return "Window21";
-            case 22:
-                return "Window22";
-            case 23:
-                return "Window23";
-            case 24:
-                return "Window24";
-            default:
-                return "card not found";
-        }
+        if (i < 0 || i >= MatchManager.getWindows().size())
+            return "card not found";
+        return MatchManager.getWindows().get(i).getName();
     }
 
     /**
@@ -451,48 +466,85 @@ public class GameManager extends GeneralTask {
     /**
      * this give the player
      *
-     * @param uUID te current status of the game
+     * @param uUID te current status of the game, after a short wait: the views he asks meanwhile, and the
+     * update of the view still queued for him, are sent as a single update. The status is published, between
+     * two steps of the game, only if it changed since the last update, so the changes computed for the other
+     * players are kept
      */
     public void updateView(String uUID) {
+        if (!viewsAsked.add(uUID))
+            return;
+        long start = System.nanoTime();
+        ConcurrencyManager.schedule(() -> {
+            viewsAsked.remove(uUID);
+            try {
+                synchronized (obj) {
+                    views.publishIfChanged(buildView());
+                }
+            } catch (RuntimeException re) {
+                askedViews.error();
+                Logger.tagged(Level.ERROR, this, "unexpected error building the view asked by " + uUID);
+                Logger.strace(re);
+                return;
+            }
+            Integer pos = publicRef.indexOf(uUID);
+            proxyServer.enqueue(uUID, RemoteMethod.UPDATE_VIEW_DELTA, player -> {
+                askedViews.since(start);
+                return new Object[]{views.next(player, pos)};
+            });
+        }, viewDebounce);
+    }
+
+    /**
+     * @return the current status of the game, the same for every player
+     */
+    private GameManagerT buildView() {
         ArrayList<PlayerT> vPlayersT = new ArrayList<>();
         for (Player player :
                 this.vPlayersFixed) {
             Window window = player.getWindow();
-            WindowT windowT = new WindowT(window.getName(), window.getMatrices());
-            PlayerT playerT = new PlayerT(player.getNickName(), player.getPrivateO(), windowT, player.getOverlay().getDicePositions(),
+            PlayerT playerT = new PlayerT(player.getNickName(), player.getPrivateO(), window.getTransfer(), player.getOverlay().copyDicePositions(),
                     player.getTokens(), player.getTurno(), player.getComputatedScore(), player.getPrivateTurn(),
                     player.getLastPlacedFromPool());
             vPlayersT.add(playerT);
         }
         vPlayersT.trimToSize();
 
-        ArrayList<String> publicOCsT = new ArrayList<>();
-        for (Integer card :
-                publicOCs) {
-            publicOCsT.add(revealPublicOC(card));
-        }
-
-        int i = 0;
         ArrayList<ToolCT> toolCsT = new ArrayList<>();
-        for (Integer card :
-                toolCards) {
-            toolCsT.add(new ToolCT(revealToolCard(card), tCtokens.get(i)));
-            i++;
-        }
+        for (int i = 0; i < toolNames.size(); i++)
+            toolCsT.add(new ToolCT(toolNames.get(i), tCtokens.get(i)));
 
-        proxyServer.updateView(uUID, new GameManagerT(vPlayersT, publicOCsT,
-                toolCsT, roundTrack.getDices(), pool.getDices(), active, players, publicRef.indexOf(uUID)));
+        return new GameManagerT(vPlayersT, publicNames, toolCsT, roundTrack.getDices(), pool.getDices(), active,
+                players, null);
     }
 
     /**
-     * this calls the update only to active players
+     * the next update of
+     *
+     * @param uUID will be a full snapshot
      */
-    private void updateView() {
+    public void resyncView(String uUID) {
+        views.reset(uUID);
+        updateView(uUID);
+    }
 
-        for (String player :
-                active) {
-            updateView(player);
-        }
+    /**
+     * this calls the update only to active players, then
+     *
+     * @param then is run as the next step of the game
+     */
+    private void updateView(Runnable then) {
+        long start = System.nanoTime();
+        views.publish(buildView());
+        broadcast(new ArrayList<>(active), RemoteMethod.UPDATE_VIEW_DELTA,
+                player -> new Object[]{views.next(player, publicRef.indexOf(player))}, result -> {
+                    if (!result.isComplete()) {
+                        viewUpdates.error();
+                        Logger.tagged(this, result);
+                    }
+                    viewUpdates.since(start);
+                    then.run();
+                });
     }
 
     private <T> Integer count(List<T> ts) {
@@ -592,10 +644,34 @@ public class GameManager extends GeneralTask {
     }
 
     /**
-     * @see #setAction(boolean)
+     * the player ends its turn before the timeout
+     *
+     * @see #endTurn(int, boolean)
      */
     public void endTurn() {
-        setAction(true);
+        int token = turnToken;
+        schedule(() -> endTurn(token, false), 0);
+    }
+
+    /**
+     * end the turn
+     *
+     * @param token which identifies it: when the player and the timeout both end the same turn,
+     *              or the turn has already been ended, this does nothing
+     * @param timedOut if the timeout ends it
+     */
+    private void endTurn(int token, boolean timedOut) {
+        if (phase != Phase.TURN || token != turnToken)
+            return;
+        if (timedOut)
+            turns.error();
+        turns.since(turnStart);
+        turnToken++;
+        if (turnTimeout != null)
+            turnTimeout.cancel();
+        setExpected("none");
+        proxyServer.enqueue(current, RemoteMethod.SHUT, player -> null);
+        nextTurn();
     }
 
     /**
@@ -609,13 +685,15 @@ public class GameManager extends GeneralTask {
     }
 
     /**
-     * simply pings every player that are not quit and update
+     * simply checks every player that are not quit and update
      * the online and the temporary offline, but in game
+     *
+     * @see HeartbeatService#isOnline(String)
      */
     private void checkActive() {
         for (String pla : players2
                 ) {
-            if (proxyServer.ping(pla)) {
+            if (heartbeat.isOnline(pla)) {
                 active.add(pla);
                 unrespAltoughP.remove(pla);
             } else {
@@ -630,57 +708,49 @@ public class GameManager extends GeneralTask {
     }
 
     /**
-     * let the server know the status of the game
+     * let the server know the status of the game, if it logs the debug events
      */
     private void printStatusOfClients() {
-
-        Logger.log(this + " players online are " + active.size() +
-                ". They are: ");
-        for (String player :
-                active) {
-            Logger.log(player + "; ");
-        }
-
-        Logger.log(this + " players temporarily offline " +
-                "are " + unrespAltoughP.size() + ". They are: ");
-        for (String player :
-                unrespAltoughP) {
-            Logger.log(player + "; ");
-        }
-        Logger.log(this + " players who quit " +
-                "are " + left.size() + ". They are: ");
-        for (String player :
-                left) {
-            Logger.log(player + "; ");
+        if (!Logger.isEnabled(Level.DEBUG))
+            return;
+        Logger.tagged(Level.DEBUG, this, "players online are " + active.size() +
+                ". They are: " + String.join("; ", active));
+        Logger.tagged(Level.DEBUG, this, "players temporarily offline are " + unrespAltoughP.size() +
+                ". They are: " + String.join("; ", unrespAltoughP));
+        synchronized (left) {
+            Logger.tagged(Level.DEBUG, this, "players who quit are " + left.size() +
+                    ". They are: " + String.join("; ", left));
         }
-        Logger.log(this + " we play with " +
-
-                count(pool.getDices()) + " dices");
-
+        Logger.tagged(Level.DEBUG, this, "we play with " + count(pool.getDices()) + " dices");
     }
 
     /**
-     * this generates the windows to send to the clients,
-     * wait for the specified time, and then assign to
-     * every client randomly (within every possible windows
-     * to avoid repetitions)
+     * this generates the windows to send to the clients, all at once,
+     * and gives them the specified time to choose, from when the last one got them
+     * (within every possible windows to avoid repetitions)
+     *
+     * @see #forceWindows()
      */
     private void handleWindows() {
+        windowsStart = System.nanoTime();
         Random rand = new Random();
         Integer i = 0;
         Integer j;
         ArrayList<Integer> a = new ArrayList<>();
 
-        j = 1 + rand.nextInt(23);
+        // the windows from 1 on are dealt in pairs, the two faces of a card
+        int faces = MatchManager.getWindows().size() - 2;
+        j = 1 + rand.nextInt(faces);
         while (i < 2 * players.size()) {
             while (a.contains(j) || j % 2 == 0) {
-                j = 1 + rand.nextInt(23);
+                j = 1 + rand.nextInt(faces);
             }
             a.add(j);
             a.add(j + 1);
             i++;
         }
         i = 0;
+        Map<String, Object[]> choices = new HashMap<>();
 
         while (i < players.size()) {
             ArrayList<Integer> b = new ArrayList<>(a.subList(((i) * 4), ((i + 1) * 4)));
@@ -692,31 +762,47 @@ public class GameManager extends GeneralTask {
 
             for (Integer y :
                     b) {
-                matrices.add(MatchManager.getWindows().get(y).getMatrices());
+                matrices.add(MatchManager.getWindows().get(y).getTransfer().cells);
             }
-            proxyServer.chooseWindow(players.get(i), b, matrices);
-            b.clear();
-            matrices.clear();
+            choices.put(players.get(i), new Object[]{b, matrices});
             i++;
         }
 
+        windowChoices = a;
+        phase = Phase.WINDOWS;
         setExpected("all");
-        pause(timeout2);
+        broadcast(choices.keySet(), RemoteMethod.CHOOSE_WINDOW, choices::get, result -> {
+            if (!result.isComplete())
+                Logger.tagged(this, result);
+            schedule(this::forceWindows, timeout2);
+        });
+    }
+
+    /**
+     * when the time to choose is over, assign to
+     * every client without a window one of its choices randomly,
+     * then give the clients the time to show the game
+     */
+    private void forceWindows() {
         setExpected("none");
 
-        i = 0;
+        Random rand = new Random();
+        ArrayList<Integer> a = windowChoices;
+        int i = 0;
         Player vPlayer;
+        ArrayList<String> forced = new ArrayList<>();
 
         for (String player :
                 players) {
             vPlayer = SReferences.getPlayerRef(player);
             if (vPlayer.getWindow() == null) {
                 vPlayer.setWindow(a.get(4 * i + rand.nextInt(4)));
-                proxyServer.startGameViewForced(vPlayer.getuUID());
+                forced.add(vPlayer.getuUID());
             }
             i++;
         }
-        pause(timeout3);
+        broadcast(forced, RemoteMethod.START_GAME_VIEW_FORCED, player -> null,
+                result -> schedule(this::startGame, timeout3));
     }
 
     /**
@@ -731,7 +817,7 @@ public class GameManager extends GeneralTask {
         players2.addAll(players);
         for (String p :
                 players) {
-            if (proxyServer.ping(p)) {
+            if (heartbeat.isOnline(p)) {
                 left.remove(p);
             }
         }
@@ -745,7 +831,7 @@ public class GameManager extends GeneralTask {
      */
     private Boolean allQuit() {
         if (players2.isEmpty()) {
-            Logger.log(this + " seems that all quit the game. Bye.");
+            Logger.tagged(this, "seems that all quit the game. Bye.");
             closeGame();
             return true;
         }
@@ -754,24 +840,25 @@ public class GameManager extends GeneralTask {
 
     /**
      * check if there is only one player in the active ones.
+     * If so, the game is closed once the players know the winner.
      *
      * @return if this is the case or not.
      */
     private Boolean onlyOne() {
         if (active.size() == 1) {
             String tavolo;
-            Logger.log(this + " we're having a victory decided by arbitration");
+            Logger.tagged(this, "we're having a victory decided by arbitration");
             tavolo = (String) active.toArray()[0];
-            proxyServer.tavoloWin(tavolo);
+            phase = Phase.SCORING;
             ArrayList<String> str = new ArrayList<>();
             str.add(SReferences.getNickNameRef(tavolo));
-            for (String player :
-                    players) {
-                if (!player.equals(tavolo))
-                    proxyServer.printScore(player, str, null, null);
-            }
-            Logger.log(this + " the winner is " + tavolo + "! Bye");
-            closeGame();
+            ArrayList<String> others = new ArrayList<>(players);
+            others.remove(tavolo);
+            broadcast(Collections.singletonList(tavolo), RemoteMethod.TAVOLO_WIN, player -> null, won ->
+                    broadcast(others, RemoteMethod.PRINT_SCORE, player -> new Object[]{str, null, null}, result -> {
+                        Logger.tagged(this, "the winner is " + tavolo + "! Bye");
+                        closeGame();
+                    }));
             return true;
         }
         return false;
@@ -779,44 +866,49 @@ public class GameManager extends GeneralTask {
 
     /**
      * reset and adjust variables relative to each player. Namely the private turn, the turn to jump.
-     * then allow the player to play within its time scope.
+     * then allow the player to play within its time scope, once the players got the view of the game.
      *
      * @param remotePlayer is the client reference with the UUID
      * @param localPlayer  is the virtual player represented in this game
+     * @return if the turn has started, so the game waits for its end
      */
-    private void handleEffectiveTurn(String remotePlayer, Player localPlayer) {
+    private boolean handleEffectiveTurn(String remotePlayer, Player localPlayer) {
         if (jump.remove(remotePlayer)) {
-            Logger.log(this + " player: " + remotePlayer +
+            Logger.tagged(this, "player: " + remotePlayer +
                     "jump this turn");
         } else if (active.contains(remotePlayer)) {
-            this.updateView();
+            phase = Phase.TURN;
+            current = remotePlayer;
+            turnTimeout = null;
+            turnStart = System.nanoTime();
+            int token = turnToken;
+            this.updateView(() -> enable(remotePlayer, token));
             setExpected(remotePlayer);
             localPlayer.clearUsedTcAndPlacedDice();
             localPlayer.incrementTurn();
-            proxyServer.enable(remotePlayer);
-
-            synchronized (obj) {
-                while (!getAction()) {
-                    try {
-                        Logger.log(this + " waiting player "
-                                + remotePlayer + "'s move");
-                        obj.wait(timeout1);
-                        setAction(true);
-                    } catch (InterruptedException ie) {
-                        Logger.log("Thread sleep was interrupted!");
-                        Logger.strace(ie);
-                        Thread.currentThread().interrupt();
-                    }
-                }
-                setExpected("none");
-                proxyServer.shut(remotePlayer);
-                setAction(false);
-            }
+            return true;
         }
+        return false;
     }
 
     /**
-     * this scores each player, using the private card, the tokens left, ant the private objective cards
+     * let
+     *
+     * @param remotePlayer play the turn
+     * @param token which identifies it, unless it has already been ended meanwhile, and start its timeout
+     */
+    private void enable(String remotePlayer, int token) {
+        if (phase != Phase.TURN || token != turnToken)
+            return;
+        proxyServer.enqueue(remotePlayer, RemoteMethod.ENABLE, player -> null);
+        Logger.tagged(this, "waiting player "
+                + remotePlayer + "'s move");
+        turnTimeout = schedule(() -> endTurn(token, true), timeout1);
+    }
+
+    /**
+     * this scores each player, using the private card, the tokens left, ant the private objective cards,
+     * and closes the game once the players got the scores
      */
     private void scoringPhase() {
         int max = 0;
@@ -851,73 +943,111 @@ public class GameManager extends GeneralTask {
 
         for (Player play : vPlayers
                 ) {
-            proxyServer.printScore(play.getuUID(), nickNames, points, winner);
             if (play.getComputatedScore().equals(max)) {
-                Logger.log(this + " the winner is player: " + play.getuUID() + ". " +
+                Logger.tagged(this, "the winner is player: " + play.getuUID() + ". " +
                         "Congratulazioni!.");
             }
         }
+
+        ArrayList<String> uUIDs = new ArrayList<>();
+        for (Player play : vPlayers
+                )
+            uUIDs.add(play.getuUID());
+        broadcast(uUIDs, RemoteMethod.PRINT_SCORE, player -> new Object[]{nickNames, points, winner}, result -> {
+            if (!result.isComplete())
+                Logger.tagged(this, result);
+            closeGame();
+            Logger.log(this + ". We are done here! Bye!");
+        });
     }
 
     /**
      * clean end of the game. When the game closes each reference of the player are permanently deleted
      */
     private void closeGame() {
+        phase = Phase.CLOSED;
+        if (realTimeStatus != null)
+            heartbeat.unwatch(players, realTimeStatus);
         for (String player :
                 players) {
+            proxyServer.releaseClient(player);
             SReferences.removeRef(player);
         }
     }
 
     /**
-     * main thread of execution of the Multi-Match server, for each game.
+     * start the game: from now on its phases are driven by the timeouts and by the moves of the players,
+     * so no thread is held by the game while it waits
      */
     @Override
     public void run() {
         super.run();
+        schedule(this::handleWindows, timeout4);
+    }
 
-        handleWindows();
-
-        ConcurrencyManager.submit(new RealTimeStatus(players));
-
-        int i;
-        int j = 1;
-        int k;
-        while (j <= 10) {
-            resetPlayers();
-            throwDice();
-            i = 1;
-            k = 1;
-            while (k < 3) {
-                for (String remotePlayer :
-                        players2) {
-                    System.out.println("\n\n\n");
-                    Logger.log(this +
-                            " begin round: " + j + ", turn: " + i + "\n");
-                    Player localPlayer = SReferences.getPlayerRef(remotePlayer);
-
-                    checkActive();
-                    printStatusOfClients();
-                    if (onlyOne())
-                        return;
-                    handleEffectiveTurn(remotePlayer, localPlayer);
-                    i++;
-                }
-                Collections.reverse(players2);
-                k++;
-            }
-            settleRoundtrack(j);
-            shiftPlayers();
-            j++;
+    /**
+     * after the windows are chosen, start the first round
+     */
+    private void startGame() {
+        windows.since(windowsStart);
+        realTimeStatus = new RealTimeStatus(players);
+        heartbeat.watch(players, realTimeStatus);
+        round = 1;
+        startRound();
+    }
+
+    /**
+     * each player plays twice in a round, in the order of the list and then backwards
+     */
+    private void startRound() {
+        roundStart = System.nanoTime();
+        resetPlayers();
+        throwDice();
+        turnOrder.clear();
+        turnOrder.addAll(players2);
+        ArrayList<String> backwards = new ArrayList<>(players2);
+        Collections.reverse(backwards);
+        turnOrder.addAll(backwards);
+        turn = 0;
+        nextTurn();
+    }
+
+    /**
+     * go on with the turns of the round until one player has to play, then wait for him
+     */
+    private void nextTurn() {
+        while (turn < turnOrder.size()) {
+            String remotePlayer = turnOrder.get(turn++);
+            Logger.tagged(this, "begin round: " + round + ", turn: " + turn);
+            Player localPlayer = SReferences.getPlayerRef(remotePlayer);
+
+            checkActive();
+            printStatusOfClients();
+            if (onlyOne())
+                return;
+            if (handleEffectiveTurn(remotePlayer, localPlayer))
+                return;
+        }
+        endRound();
+    }
+
+    private void endRound() {
+        rounds.since(roundStart);
+        settleRoundtrack(round);
+        shiftPlayers();
+        round++;
+        if (round <= 10) {
+            startRound();
+            return;
         }
 
+        phase = Phase.SCORING;
         if (allQuit())
             return;
 
-        System.out.println();
+        long start = System.nanoTime();
         scoringPhase();
-        closeGame();
-        Logger.log(this + ". We are done here! Bye!");
+        scoring.since(start);
     }
 
 }
\ No newline at end of file
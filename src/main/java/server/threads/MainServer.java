@@ -4,8 +4,13 @@ package server.threads;
 import server.Config;
 import server.connection.ProxyServer;
 import shared.Logger;
+import shared.logging.Level;
+import shared.logging.RollingFileSink;
+import shared.metrics.Metrics;
 import server.concurrency.ConcurrencyManager;
 import shared.network.rmi.NetworkRmi;
+import shared.network.socket.NetworkSocket;
+import shared.network.socket.SerialCodec;
 
 import java.io.*;
 import java.util.Scanner;
@@ -15,6 +20,9 @@ public class MainServer {
     //create an object of MainServer
     private static final MainServer instance = new MainServer();
     private static ProxyServer proxyServer;
+    private static final String METRICS_FILE = "metrics.txt";
+    private static final String LOG_FILE = "server.log";
+    private static final int LOG_FILES = 5;
 
     public static MainServer getInstance() {
         return instance;
@@ -29,41 +37,54 @@ public class MainServer {
      */
     public static void simulation() {
         Config.test();
-        ConcurrencyManager.submit(new GameGenerator());
+        Logger.log("Lobbies online. Timer runs out every: " + Config.getConfig().timeout1 / 1000 + "s");
 
     }
 
     /**
-     * @return a real copy of object of type
-     * @param <T>
-     * */
-    public static <T> T deepClone(T type) {
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ObjectOutputStream oos = new ObjectOutputStream(baos);
-            oos.writeObject(type);
-
-            ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
-            ObjectInputStream ois = new ObjectInputStream(bais);
-            return (T) ois.readObject();
-        } catch (IOException | ClassNotFoundException e) {
-            return null;
+     * read the config and bring the server online, with the transport settings it asks for
+     *
+     * @return if the config could be read, so the server is online
+     */
+    public static boolean start() {
+        if (!Config.read()) {
+            Logger.log("Can't read config. Server close now.");
+            return false;
+        }
+
+        Level[] levels = Level.values();
+        Logger.setLevel(levels[Math.max(0, Math.min(levels.length - 1, Config.getConfig().logLevel))]);
+        if (Config.getConfig().logFileSize > 0) {
+            try {
+                Logger.setSink(new RollingFileSink(LOG_FILE, Config.getConfig().logFileSize * 1024L * 1024L, LOG_FILES));
+            } catch (IOException ioe) {
+                Logger.log("Can't open " + LOG_FILE + ", the log stays on the console");
+            }
+        }
+        NetworkSocket.setNonBlocking(Config.getConfig().socketIoThreads, Config.getConfig().socketDispatchThreads);
+        NetworkSocket.setCallTimeout(Config.getConfig().socketCallTimeout);
+        if (Config.getConfig().executor != ConcurrencyManager.CACHED) {
+            NetworkSocket.setServerExecutor(ConcurrencyManager.newExecutor("socket"));
+        }
+        if (Config.getConfig().socketCodec == 0) {
+            NetworkSocket.setDefaultCodec(SerialCodec.getInstance());
+        }
+        proxyServer = ProxyServer.getInstance();
+        if (Config.getConfig().metricsPeriod > 0) {
+            Metrics.startSnapshots(METRICS_FILE, Config.getConfig().metricsPeriod * 1000L);
         }
+
+        Logger.log("Lobbies online. Timer runs out every: " + Config.getConfig().timeout1 / 1000 + "s");
+        return true;
     }
 
     public static void main(String[] args) {
 
-        if (!Config.read()) {
-            Logger.log("Can't read config. Server close now.");
-            return;
-        }
-
         if (args.length > 0) {
             NetworkRmi.setServerAddress(args[0]);
         }
-        proxyServer = ProxyServer.getInstance();
-
-        ConcurrencyManager.submit(new GameGenerator());
+        if (!start())
+            return;
 
         try {
             Thread.sleep(100);
@@ -72,11 +93,12 @@ public class MainServer {
             Thread.currentThread().interrupt();
         }
 
-        System.out.println();
-        Logger.log("Send 'exit' command to teardown...");
+        Logger.log("Send 'exit' command to teardown, 'metrics' to print the metrics...");
         Scanner scan = new Scanner(System.in);
-        while (!scan.nextLine().equals("exit")) {
-            //
+        String command;
+        while (!(command = scan.nextLine()).equals("exit")) {
+            if (command.equals("metrics"))
+                System.out.print(Metrics.dump());
         }
         ConcurrencyManager.shutdown();
         System.exit(0);
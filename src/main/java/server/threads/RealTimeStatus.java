@@ -1,28 +1,23 @@
 package server.threads;
 
 import com.sun.org.apache.xalan.internal.xsltc.dom.SimpleResultTreeImpl;
-import server.Config;
-import server.Player;
 import server.SReferences;
-import server.concurrency.GeneralTask;
+import server.concurrency.ConcurrencyManager;
+import server.connection.BroadcastResult;
+import server.connection.HeartbeatService;
 import server.connection.ProxyServer;
 import shared.Logger;
+import shared.network.RemoteMethod;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
-public class RealTimeStatus extends GeneralTask {
+public class RealTimeStatus implements HeartbeatService.Listener {
     private ProxyServer proxyServer = ProxyServer.getInstance();
     private List<String> players = new ArrayList<>();
-    private Set<String> online = new HashSet<>();
-    private Set<String> offline = new HashSet<>();
-    private Integer time;
 
     public RealTimeStatus(List<String> players) {
         this.players.addAll(players);
-        this.time = Config.getConfig().timeout6;
     }
 
     /**
@@ -33,49 +28,34 @@ public class RealTimeStatus extends GeneralTask {
      *           either one of them is null.
      */
     private void spread(String s1, String s2) {
+        String changed = s1 == null ? s2 : s1;
+        List<String> others = new ArrayList<>();
         for (String player :
                 players) {
-            String rem = SReferences.getNickNameRef(player);
-            if (s2 == null && !s1.equals(rem)) {
-                proxyServer.onTimeStatus(player, s1, null);
-            } else if (s1 == null && !s2.equals(rem))
-                proxyServer.onTimeStatus(player, null, s2);
+            if (!changed.equals(SReferences.getNickNameRef(player)))
+                others.add(player);
         }
-        Logger.log(SReferences.getGameRef(players.get(0)) + " notify players");
+        BroadcastResult result = proxyServer.broadcast(others, RemoteMethod.ON_TIME_STATUS,
+                player -> new Object[]{s1, s2});
+        Logger.tagged(SReferences.getGameRef(players.get(0)), "notify players, " + result);
     }
 
+    /**
+     * the notification is sent on another thread, not to hold the one which noticed the change
+     *
+     * @param player whose status changed
+     * @param online or not
+     */
     @Override
-    public void run() {
-        Boolean t = true;
-        String nick;
+    public void onStatus(String player, boolean online) {
+        String nick = SReferences.getNickNameRef(player);
 
-        while (t) {
-            for (String player :
-                    players) {
-                nick = SReferences.getNickNameRef(player);
+        if (nick == null)
+            return;
 
-                if (nick == null)
-                    return;
-
-                if (proxyServer.ping(player)) {
-                    if (online.add(player)) {
-                        offline.remove(player);
-                        spread(nick, null);
-                    }
-                } else if (offline.add(player)) {
-                    online.remove(player);
-                    spread(null, nick);
-                }
-
-                try {
-                    Thread.sleep(time);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    Logger.log("Interrupted Exception");
-                }
-                if (Thread.interrupted())
-                    return;
-            }
-        }
+        if (online)
+            ConcurrencyManager.schedule(() -> spread(nick, null), 0);
+        else
+            ConcurrencyManager.schedule(() -> spread(null, nick), 0);
     }
 }
\ No newline at end of file
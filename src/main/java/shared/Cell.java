@@ -2,10 +2,24 @@ package shared;
 
 import java.io.Serializable;
 
-public class Cell implements Serializable {
+/**
+ * the requirement of a cell of a window: a color, a shade or none of them. Cells never change, and
+ * {@link #of(Integer, Character)} always gives the same instance for each requirement, so every window
+ * shares the same 12 cells
+ */
+public final class Cell implements Serializable {
 
-    private Integer value;
-    private Character color;
+    private static final Cell[] CELLS = new Cell[(Packed.SHADES + 1) * (Packed.COLORS.length() + 1)];
+
+    static {
+        for (int shade = 0; shade <= Packed.SHADES; shade++)
+            for (int color = -1; color < Packed.COLORS.length(); color++)
+                CELLS[shade * (Packed.COLORS.length() + 1) + color + 1] =
+                        new Cell(shade == 0 ? null : shade, color < 0 ? null : Packed.COLORS.charAt(color));
+    }
+
+    private final Integer value;
+    private final Character color;
 
     public Cell(Integer shade, Character color) {
         this.value = shade;
@@ -13,14 +27,57 @@ public class Cell implements Serializable {
     }
 
     public Cell(Integer shade) {
-        this.value = shade;
+        this(shade, null);
     }
 
     public Cell(Character color) {
-        this.color = color;
+        this(null, color);
     }
 
     public Cell() {
+        this(null, null);
+    }
+
+    /**
+     * @return the cell which requires
+     * @param shade and
+     * @param color , both optional; a new one if they are not those of a dice
+     */
+    public static Cell of(Integer shade, Character color) {
+        int index = color == null ? -1 : Packed.COLORS.indexOf(color);
+        if (color != null && index < 0 || shade != null && (shade < 1 || shade > Packed.SHADES))
+            return new Cell(shade, color);
+        return CELLS[(shade == null ? 0 : shade) * (Packed.COLORS.length() + 1) + index + 1];
+    }
+
+    /**
+     * @return the cell which requires
+     * @param shade
+     */
+    public static Cell of(Integer shade) {
+        return of(shade, null);
+    }
+
+    /**
+     * @return the cell which requires
+     * @param color
+     */
+    public static Cell of(Character color) {
+        return of(null, color);
+    }
+
+    /**
+     * @return the cell without requirements
+     */
+    public static Cell of() {
+        return of(null, null);
+    }
+
+    /**
+     * the cells read from a stream are replaced by the shared ones
+     */
+    private Object readResolve() {
+        return of(value, color);
     }
 
     public Integer getValue() {
@@ -31,4 +88,4 @@ public class Cell implements Serializable {
         return color;
     }
 
-}
\ No newline at end of file
+}
@@ -1,22 +1,75 @@
 package shared;
 
-import server.threads.MainServer;
-
 import java.io.Serializable;
 
-public class Dice implements Serializable {
+/**
+ * a dice never changes: rolling or flipping it puts another dice in its place, in the pool or wherever it is.
+ * There are only 30 dices (5 colors for 6 shades) and {@link #of(Character, Integer)} always gives the same
+ * instance for each of them, so they cost nothing to hand around and two of them are usually equal because
+ * they are the same object
+ */
+public final class Dice implements Serializable {
+
+    private static final Dice[] DICES = new Dice[Packed.COLORS.length() * Packed.SHADES];
+
+    static {
+        for (int color = 0; color < Packed.COLORS.length(); color++)
+            for (int shade = 1; shade <= Packed.SHADES; shade++)
+                DICES[color * Packed.SHADES + shade - 1] = new Dice(Packed.COLORS.charAt(color), shade);
+    }
+
+    private final Integer value;
+    private final Character color;
 
     public Dice(Character color, Integer n){
         this.color = color;
         this.value = n;
     }
 
+    /**
+     * @return the dice of
+     * @param color and
+     * @param value ; a new one if they are not those of a real dice
+     */
+    public static Dice of(Character color, Integer value) {
+        int index = color == null ? -1 : Packed.COLORS.indexOf(color);
+        if (index < 0 || value == null || value < 1 || value > Packed.SHADES)
+            return new Dice(color, value);
+        return DICES[index * Packed.SHADES + value - 1];
+    }
 
-    private Integer value;
-    private Character color;
+    /**
+     * @return a copy of the matrix
+     * @param dices , holding the same dices (which never change)
+     */
+    public static Dice[][] copyOf(Dice[][] dices) {
+        if (dices == null)
+            return null;
+        Dice[][] copy = new Dice[dices.length][];
+        for (int r = 0; r < dices.length; r++)
+            copy[r] = dices[r].clone();
+        return copy;
+    }
+
+    /**
+     * @return the dice with the same color and
+     * @param value
+     */
+    public Dice withValue(Integer value) {
+        return of(color, value);
+    }
+
+    /**
+     * the dices read from a stream are replaced by the shared ones
+     */
+    private Object readResolve() {
+        return of(color, value);
+    }
 
     @Override
     public boolean equals(Object object) {
+        if (this == object)
+            return true;
         if (!(object instanceof Dice))
             return false;
         Dice dice1 = (Dice) object;
@@ -36,10 +89,6 @@ public class Dice implements Serializable {
         return (dice.color == this.color) || (dice.value.equals(this.value));
     }
 
-    public void setValue(Integer value) {
-        this.value = value;
-    }
-
     public Integer getValue() {
         return value;
     }
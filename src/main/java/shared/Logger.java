@@ -1,14 +1,30 @@
 package shared;
 
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Arrays;
+import shared.logging.ConsoleSink;
+import shared.logging.Level;
+import shared.logging.LogRing;
+import shared.logging.LogSink;
 
 /**
  * <h1>Message Logger</h1>
- * <p>This class will serve as a general purpose system logger for messages and errors</p>
+ * <p>This class will serve as a general purpose system logger for messages and errors</p><br>
+ * <p>The events are queued in a {@link LogRing} and written by a background thread, so logging never waits for the
+ * console or for a file: the message is turned into text only when it is written, so a tagged event like
+ * {@code Logger.tagged(game, "...")} does not even build its line on the thread logging it. The events below the
+ * level set with {@link #setLevel(Level)} are dropped at once; the destination is the console unless another
+ * {@link LogSink} is set. The events still queued are written when the JVM shuts down</p>
  */
 public class Logger {
+    private static final int CAPACITY = 8192;
+    private static final long SHUTDOWN_FLUSH = 1000;
+
+    private static final LogRing ring = new LogRing(CAPACITY, new ConsoleSink());
+    private static volatile Level threshold = Level.INFO;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> ring.flush(SHUTDOWN_FLUSH), "logger-flush"));
+    }
+
     private Logger() {}
 
     /**
@@ -16,7 +32,45 @@ public class Logger {
      * @param s The message that will be added to the application log
      */
     public static void  log(Object s) {
-        System.out.println("[" + LocalTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss.SS"))  + "] >> " + s.toString());
+        log(Level.INFO, s);
+    }
+
+    /**
+     * Add a message with the given severity to the log
+     * @param level the severity of the message
+     * @param s the message that will be added to the application log
+     */
+    public static void log(Level level, Object s) {
+        tagged(level, null, s);
+    }
+
+    /**
+     * Add a message to the log, preceded by what it refers to
+     * @param tag what the message refers to, e.g. a game
+     * @param s the message that will be added to the application log
+     */
+    public static void tagged(Object tag, Object s) {
+        tagged(Level.INFO, tag, s);
+    }
+
+    /**
+     * Add a message with the given severity to the log, preceded by what it refers to
+     * @param level the severity of the message
+     * @param tag what the message refers to, e.g. a game; {@code null} for nothing
+     * @param s the message that will be added to the application log
+     */
+    public static void tagged(Level level, Object tag, Object s) {
+        if (isEnabled(level)) {
+            ring.offer(level, tag, s, null);
+        }
+    }
+
+    /**
+     * @param level a severity
+     * @return if the events with that severity are added to the log, so it is worth building their messages
+     */
+    public static boolean isEnabled(Level level) {
+        return level.compareTo(threshold) >= 0;
     }
 
     /**
@@ -24,8 +78,29 @@ public class Logger {
      * @param e An {@code Exception} object to obtain its name and stack trace
      */
     public static void strace(Exception e) {
-        System.out.println("\n[Stack trace for " + e.toString() + "]");
-        Arrays.stream(e.getStackTrace()).forEach(System.out::println);
-        System.out.print("\n\n");
+        ring.offer(Level.ERROR, null, null, e);
+    }
+
+    /**
+     * Set the least severe level of the events added to the log, {@link Level#INFO} by default
+     * @param level the new threshold
+     */
+    public static void setLevel(Level level) {
+        threshold = level;
+    }
+
+    /**
+     * Write the log on another destination, from the events still queued on
+     * @param sink the new destination
+     */
+    public static void setSink(LogSink sink) {
+        ring.setSink(sink);
+    }
+
+    /**
+     * Wait until the events logged before this call have been written
+     */
+    public static void flush() {
+        ring.flush(SHUTDOWN_FLUSH);
     }
-}
\ No newline at end of file
+}
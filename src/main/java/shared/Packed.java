@@ -0,0 +1,75 @@
+package shared;
+
+/**
+ * this packs a dice, or the requirements of a cell, in a single byte: the shade in the three lowest bits
+ * and the color, as its index in {@link #COLORS} plus one, in the three bits above them;
+ * zero means no color or no shade, so an empty cell of the overlay or a blank cell of the window is 0.
+ * A whole window or overlay fits in 20 bytes, cell r * 5 + c, and two of them can be compared
+ * or scored without touching the boxed fields of {@link Dice} and {@link Cell}
+ */
+public final class Packed {
+
+    public static final String COLORS = "rgbyv";
+    public static final int SHADES = 6;
+    public static final byte EMPTY = 0;
+
+    private static final int SHADE_BITS = 3;
+    private static final int SHADE_MASK = (1 << SHADE_BITS) - 1;
+
+    private Packed() {
+    }
+
+    /**
+     * @return the byte of
+     * @param dice , or {@link #EMPTY} if it is null
+     * @throws IllegalArgumentException if its color is not one of {@link #COLORS} or its shade is not from 1 to 6
+     */
+    public static byte pack(Dice dice) {
+        if (dice == null)
+            return EMPTY;
+        int color = COLORS.indexOf(dice.getColor());
+        Integer value = dice.getValue();
+        if (color < 0 || value == null || value < 1 || value > SHADES)
+            throw new IllegalArgumentException("dice " + dice + " can't be packed");
+        return (byte) ((color + 1) << SHADE_BITS | value);
+    }
+
+    /**
+     * @return the byte of the requirements of
+     * @param cell ; a color or shade the dices can't have is packed as no requirement
+     */
+    public static byte pack(Cell cell) {
+        if (cell == null)
+            return EMPTY;
+        int color = cell.getColor() == null ? -1 : COLORS.indexOf(cell.getColor());
+        Integer value = cell.getValue();
+        int shade = value == null || value < 1 || value > SHADES ? 0 : value;
+        return (byte) ((color + 1) << SHADE_BITS | shade);
+    }
+
+    /**
+     * @return the dice out of
+     * @param packed , or null if it is {@link #EMPTY}
+     */
+    public static Dice unpack(byte packed) {
+        if (packed == EMPTY)
+            return null;
+        return Dice.of(COLORS.charAt(color(packed)), shade(packed));
+    }
+
+    /**
+     * @return the index in {@link #COLORS} of the color of
+     * @param packed , or -1 if it has none
+     */
+    public static int color(byte packed) {
+        return (packed >> SHADE_BITS) - 1;
+    }
+
+    /**
+     * @return the shade of
+     * @param packed , from 1 to 6, or 0 if it has none
+     */
+    public static int shade(byte packed) {
+        return packed & SHADE_MASK;
+    }
+}
@@ -1,24 +1,53 @@
 package shared;
 
-import server.threads.MainServer;
-
 import java.io.Serializable;
 
-public class Position implements Serializable {
+/**
+ * a position never changes, and {@link #of(Integer, Integer)} always gives the same instance for the cells of
+ * a window and those just outside it, so the positions built while checking a window cost nothing
+ */
+public final class Position implements Serializable {
     private static final long serialVersionUID = 1524857704L;
-    private Integer row;
-    private Integer column;
+    private static final int ROWS = 4;
+    private static final int COLUMNS = 5;
+    private static final Position[] POSITIONS = new Position[(ROWS + 2) * (COLUMNS + 2)];
 
-    public Position(){
+    static {
+        for (int r = -1; r <= ROWS; r++)
+            for (int c = -1; c <= COLUMNS; c++)
+                POSITIONS[(r + 1) * (COLUMNS + 2) + c + 1] = new Position(r, c);
     }
 
+    private final Integer row;
+    private final Integer column;
+
     public Position(Integer row, Integer column){
         this.row = row;
         this.column= column;
     }
 
+    /**
+     * @return the position in
+     * @param row and
+     * @param column ; a new one if it is not in a window or next to it
+     */
+    public static Position of(Integer row, Integer column) {
+        if (row == null || column == null || row < -1 || row > ROWS || column < -1 || column > COLUMNS)
+            return new Position(row, column);
+        return POSITIONS[(row + 1) * (COLUMNS + 2) + column + 1];
+    }
+
+    /**
+     * the positions read from a stream are replaced by the shared ones
+     */
+    private Object readResolve() {
+        return of(row, column);
+    }
+
     @Override
     public boolean equals(Object object) {
+        if (this == object)
+            return validate();
         if (!(object instanceof Position)||!((Position) object).validate())
             return false;
         Position position= (Position) object;
@@ -44,15 +73,7 @@ public class Position implements Serializable {
         return column;
     }
 
-    public void setRow(Integer row) {
-        this.row = row;
-    }
-
-    public void setColumn(Integer column) {
-        this.column = column;
-    }
-
     public String toString(){
         return this.getRow()+", "+this.getColumn();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,208 @@
+package shared.TransferObjects;
+
+import shared.Dice;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public class GameDeltaT implements Serializable {
+
+    public final Integer baseVersion;
+    public final Integer version;
+    public final GameManagerT snapshot;
+    public final ArrayList<PlayerDeltaT> players = new ArrayList<>();
+    public final ArrayList<Dice> pool;
+    public final Integer roundTrackFrom;
+    public final ArrayList<ArrayList<Dice>> rounds;
+    public final ArrayList<Integer> toolTokens;
+    public final ArrayList<String> online;
+    public final ArrayList<String> offline;
+
+    /**
+     * full status of the game, which replaces whatever the client holds
+     *
+     * @param version of the status
+     */
+    public GameDeltaT(Integer version, GameManagerT snapshot) {
+        this(null, version, snapshot, new ArrayList<>(), null, null, null, null, null, null);
+    }
+
+    /**
+     * changes between two versions of the game status; null fields did not change
+     *
+     * @param roundTrackFrom first round which changed: the round track is cut there and
+     * @param rounds are appended
+     */
+    public GameDeltaT(Integer baseVersion, Integer version, GameManagerT snapshot,
+                      List<PlayerDeltaT> players, List<Dice> pool,
+                      Integer roundTrackFrom, List<ArrayList<Dice>> rounds,
+                      List<Integer> toolTokens, List<String> online, List<String> offline) {
+
+        this.baseVersion = baseVersion;
+        this.version = version;
+        this.snapshot = snapshot;
+        this.players.addAll(players);
+        this.pool = copy(pool);
+        this.roundTrackFrom = roundTrackFrom;
+        this.rounds = copy(rounds);
+        this.toolTokens = copy(toolTokens);
+        this.online = copy(online);
+        this.offline = copy(offline);
+    }
+
+    private static <T> ArrayList<T> copy(List<T> list) {
+        return list == null ? null : new ArrayList<>(list);
+    }
+
+    public Boolean isSnapshot() {
+        return snapshot != null;
+    }
+
+    /**
+     * @return true if this is not a snapshot and nothing changed
+     */
+    public Boolean isEmpty() {
+        return snapshot == null && players.isEmpty() && pool == null && roundTrackFrom == null &&
+                toolTokens == null && online == null && offline == null;
+    }
+
+    /**
+     * @return true if this brings nothing to a client holding the status of
+     * @param heldVersion : it is older, or it is that same version again but not as changes from it; the changes
+     * from the held version to itself are the answer to a view asked while nothing changed, which is shown again
+     */
+    public Boolean isStaleFor(Integer heldVersion) {
+        return heldVersion != null && (version < heldVersion ||
+                (version.equals(heldVersion) && !heldVersion.equals(baseVersion)));
+    }
+
+    /**
+     * @return the changes from
+     * @param from to
+     * @param to, or null if they differ in something a delta can't carry
+     * (players, windows, cards or position of the receiver)
+     */
+    public static GameDeltaT between(GameManagerT from, GameManagerT to, Integer baseVersion, Integer version) {
+        if (from.vPlayers.size() != to.vPlayers.size() || !Objects.equals(from.pos, to.pos) ||
+                !from.publicOCs.equals(to.publicOCs) || from.toolCards.size() != to.toolCards.size())
+            return null;
+        for (int i = 0; i < to.toolCards.size(); i++)
+            if (!Objects.equals(from.toolCards.get(i).name, to.toolCards.get(i).name))
+                return null;
+
+        ArrayList<PlayerDeltaT> players = new ArrayList<>();
+        for (int i = 0; i < to.vPlayers.size(); i++) {
+            PlayerT before = from.vPlayers.get(i);
+            PlayerT after = to.vPlayers.get(i);
+            if (!sameStatic(before, after))
+                return null;
+            PlayerDeltaT delta = between(i, before, after);
+            if (delta != null)
+                players.add(delta);
+        }
+
+        int roundTrackFrom = 0;
+        while (roundTrackFrom < from.roundTrack.size() && roundTrackFrom < to.roundTrack.size() &&
+                from.roundTrack.get(roundTrackFrom).equals(to.roundTrack.get(roundTrackFrom)))
+            roundTrackFrom++;
+        boolean roundTrackChanged = roundTrackFrom < from.roundTrack.size() || roundTrackFrom < to.roundTrack.size();
+
+        ArrayList<Integer> toolTokens = new ArrayList<>();
+        boolean toolsChanged = false;
+        for (int i = 0; i < to.toolCards.size(); i++) {
+            toolTokens.add(to.toolCards.get(i).tokensRequired);
+            toolsChanged |= !Objects.equals(from.toolCards.get(i).tokensRequired, to.toolCards.get(i).tokensRequired);
+        }
+
+        return new GameDeltaT(baseVersion, version, null, players,
+                from.pool.equals(to.pool) ? null : to.pool,
+                roundTrackChanged ? roundTrackFrom : null,
+                roundTrackChanged ? to.roundTrack.subList(roundTrackFrom, to.roundTrack.size()) : null,
+                toolsChanged ? toolTokens : null,
+                from.online.equals(to.online) ? null : to.online,
+                from.offline.equals(to.offline) ? null : to.offline);
+    }
+
+    /**
+     * windows never change after they are chosen
+     */
+    private static boolean sameStatic(PlayerT before, PlayerT after) {
+        if (!Objects.equals(before.nickName, after.nickName) || !Objects.equals(before.privateO, after.privateO))
+            return false;
+        if (before.window == null || after.window == null)
+            return before.window == after.window;
+        if (!Objects.equals(before.window.name, after.window.name))
+            return false;
+        if (before.overlay == null || after.overlay == null)
+            return before.overlay == after.overlay;
+        if (before.overlay.length != after.overlay.length)
+            return false;
+        for (int r = 0; r < after.overlay.length; r++)
+            if (before.overlay[r].length != after.overlay[r].length)
+                return false;
+        return true;
+    }
+
+    private static PlayerDeltaT between(Integer index, PlayerT before, PlayerT after) {
+        ArrayList<Integer> cells = new ArrayList<>();
+        ArrayList<Dice> dices = new ArrayList<>();
+        if (after.overlay != null) {
+            for (int r = 0; r < after.overlay.length; r++)
+                for (int c = 0; c < after.overlay[r].length; c++)
+                    if (!Objects.equals(before.overlay[r][c], after.overlay[r][c])) {
+                        cells.add(r * after.overlay[r].length + c);
+                        dices.add(after.overlay[r][c]);
+                    }
+        }
+        if (cells.isEmpty() && Objects.equals(before.tokens, after.tokens) && Objects.equals(before.turno, after.turno) &&
+                Objects.equals(before.score, after.score) && Objects.equals(before.privateTurn, after.privateTurn) &&
+                Objects.equals(before.lastPlaced, after.lastPlaced))
+            return null;
+        return new PlayerDeltaT(index, after.tokens, after.turno, after.score, after.privateTurn, after.lastPlaced,
+                cells, dices);
+    }
+
+    /**
+     * @return a new status, made of
+     * @param base with these changes applied; base is not modified
+     */
+    public GameManagerT applyTo(GameManagerT base) {
+        if (snapshot != null)
+            return snapshot;
+
+        ArrayList<PlayerT> vPlayers = new ArrayList<>(base.vPlayers);
+        for (PlayerDeltaT delta : players) {
+            PlayerT player = vPlayers.get(delta.index);
+            Dice[][] overlay = player.overlay;
+            if (!delta.cells.isEmpty()) {
+                overlay = new Dice[player.overlay.length][];
+                for (int r = 0; r < overlay.length; r++)
+                    overlay[r] = player.overlay[r].clone();
+                for (int i = 0; i < delta.cells.size(); i++) {
+                    int columns = overlay[0].length;
+                    overlay[delta.cells.get(i) / columns][delta.cells.get(i) % columns] = delta.dices.get(i);
+                }
+            }
+            vPlayers.set(delta.index, new PlayerT(player.nickName, player.privateO, player.window, overlay,
+                    delta.tokens, delta.turno, delta.score, delta.privateTurn, delta.lastPlaced));
+        }
+
+        ArrayList<ToolCT> toolCards = new ArrayList<>(base.toolCards);
+        if (toolTokens != null)
+            for (int i = 0; i < toolCards.size(); i++)
+                toolCards.set(i, new ToolCT(toolCards.get(i).name, toolTokens.get(i)));
+
+        ArrayList<ArrayList<Dice>> roundTrack = new ArrayList<>(base.roundTrack);
+        if (roundTrackFrom != null) {
+            roundTrack.subList(roundTrackFrom, roundTrack.size()).clear();
+            roundTrack.addAll(rounds);
+        }
+
+        return new GameManagerT(vPlayers, base.publicOCs, toolCards, roundTrack,
+                pool == null ? base.pool : pool,
+                online == null ? base.online : online,
+                offline == null ? base.offline : offline, base.pos);
+    }
+}
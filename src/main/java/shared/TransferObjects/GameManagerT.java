@@ -39,4 +39,18 @@ public class GameManagerT implements Serializable {
                 offline.add(nickName);
         }
     }
+
+    public GameManagerT(List<PlayerT> vPlayers, List<String> publicOCs,
+                        List<ToolCT> toolCards, List<ArrayList<Dice>> dices, List<Dice> pool,
+                        List<String> online, List<String> offline, Integer pos) {
+
+        this.vPlayers.addAll(vPlayers);
+        this.publicOCs.addAll(publicOCs);
+        this.toolCards.addAll(toolCards);
+        this.roundTrack.addAll(dices);
+        this.pool.addAll(pool);
+        this.online.addAll(online);
+        this.offline.addAll(offline);
+        this.pos = pos;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package shared.TransferObjects;
+
+import shared.Dice;
+import shared.Position;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PlayerDeltaT implements Serializable {
+    public final Integer index;
+    public final Integer tokens;
+    public final Integer turno;
+    public final Integer score;
+    public final Integer privateTurn;
+    public final Position lastPlaced;
+    public final ArrayList<Integer> cells = new ArrayList<>();
+    public final ArrayList<Dice> dices = new ArrayList<>();
+
+    /**
+     * changes of a player between two versions of the game status
+     *
+     * @param index position of the player in {@link GameManagerT#vPlayers}
+     * @param cells overlay cells which changed, as row * columns + column
+     * @param dices dices now in those cells, null if the cell was emptied
+     */
+    public PlayerDeltaT(Integer index, Integer tokens, Integer turno,
+                        Integer score, Integer privateTurn, Position lastPlaced,
+                        List<Integer> cells, List<Dice> dices) {
+
+        this.index = index;
+        this.tokens = tokens;
+        this.turno = turno;
+        this.score = score;
+        this.privateTurn = privateTurn;
+        this.lastPlaced = lastPlaced;
+        this.cells.addAll(cells);
+        this.dices.addAll(dices);
+    }
+}
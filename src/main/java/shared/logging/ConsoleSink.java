@@ -0,0 +1,19 @@
+package shared.logging;
+
+/**
+ * <p>This sink writes the log on the standard output, as it is at the moment of each write: replacing
+ * {@code System.out} redirects the following lines as well</p>
+ * @see LogSink
+ */
+public final class ConsoleSink implements LogSink {
+
+    @Override
+    public void write(CharSequence lines) {
+        System.out.append(lines);
+    }
+
+    @Override
+    public void flush() {
+        System.out.flush();
+    }
+}
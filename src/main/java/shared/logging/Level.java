@@ -0,0 +1,13 @@
+package shared.logging;
+
+/**
+ * <p>This enumeration lists the severities of the log events, from the least important one: the events below the
+ * level set with {@link shared.Logger#setLevel(Level)} are dropped before being queued</p>
+ * @see shared.Logger
+ */
+public enum Level {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR
+}
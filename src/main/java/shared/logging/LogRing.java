@@ -0,0 +1,204 @@
+package shared.logging;
+
+import java.io.IOException;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>This class queues the log events in a ring of preallocated slots and writes them on a {@link LogSink} from a
+ * single background thread, so the threads logging an event only claim a slot and fill it: the message, its tag and
+ * the exception are kept as they are, and turned into text (timestamp included) by the background thread.</p><br>
+ * <p>Any thread can log at once: a slot is claimed by moving the head of the ring with a compare and set, and it is
+ * published by writing its sequence number last. When the ring is full, the event is written by the thread logging it,
+ * which is slowed down but never loses it; its line could then appear before some older ones still queued</p>
+ * @see shared.Logger
+ */
+public final class LogRing {
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final int BATCH = 256;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private volatile long tail = 0;
+    private volatile LogSink sink;
+    private volatile boolean sleeping = false;
+    private final Object writeLock = new Object();
+    private final TimeZone zone = TimeZone.getDefault();
+    private final StringBuilder text = new StringBuilder();
+    private final Thread writer;
+
+    /**
+     * A slot of the ring; its fields are written by the thread which claimed it, before publishing its sequence
+     */
+    private static final class Slot {
+        private volatile long sequence = -1;
+        private long millis;
+        private Level level;
+        private Object tag;
+        private Object message;
+        private Throwable error;
+    }
+
+    /**
+     * Build the ring and start its background thread
+     * @param capacity the number of slots, rounded up to a power of two
+     * @param sink the destination of the log
+     */
+    public LogRing(int capacity, LogSink sink) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = size - 1;
+        this.sink = sink;
+        this.writer = new Thread(this::drain, "logger");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Replace the destination of the log; the events still queued will be written on the new one
+     * @param sink the new destination
+     */
+    public void setSink(LogSink sink) {
+        synchronized (writeLock) {
+            this.sink = sink;
+        }
+    }
+
+    /**
+     * Queue an event
+     * @param level its severity
+     * @param tag what the event refers to, e.g. a game, written before the message; {@code null} for none
+     * @param message the message, turned into text only when it is written
+     * @param error an exception whose stack trace is written after the message, or {@code null}
+     */
+    public void offer(Level level, Object tag, Object message, Throwable error) {
+        long millis = System.currentTimeMillis();
+        long sequence;
+        do {
+            sequence = head.get();
+            if (sequence - tail >= slots.length) {
+                writeNow(millis, level, tag, message, error);
+                return;
+            }
+        } while (!head.compareAndSet(sequence, sequence + 1));
+        Slot slot = slots[(int) sequence & mask];
+        slot.millis = millis;
+        slot.level = level;
+        slot.tag = tag;
+        slot.message = message;
+        slot.error = error;
+        slot.sequence = sequence;
+        if (sleeping) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Wait until the events queued before this call are written and flushed
+     * @param timeout the longest wait, in milliseconds
+     */
+    public void flush(long timeout) {
+        long target = head.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        while (tail < target && System.nanoTime() < deadline) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        synchronized (writeLock) {
+            try {
+                sink.flush();
+            } catch (IOException ioe) {
+                // the log cannot be written anywhere else
+            }
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Slot slot = slots[(int) tail & mask];
+            if (slot.sequence != tail) {
+                sleeping = true;
+                if (slots[(int) tail & mask].sequence != tail) {
+                    LockSupport.parkNanos(this, IDLE_NANOS);
+                }
+                sleeping = false;
+                continue;
+            }
+            synchronized (writeLock) {
+                text.setLength(0);
+                int written = 0;
+                while (written < BATCH && (slot = slots[(int) tail & mask]).sequence == tail) {
+                    format(text, slot.millis, slot.level, slot.tag, slot.message, slot.error);
+                    slot.tag = null;
+                    slot.message = null;
+                    slot.error = null;
+                    tail = tail + 1;
+                    written++;
+                }
+                write(text);
+            }
+        }
+    }
+
+    private void writeNow(long millis, Level level, Object tag, Object message, Throwable error) {
+        StringBuilder line = new StringBuilder();
+        format(line, millis, level, tag, message, error);
+        synchronized (writeLock) {
+            write(line);
+        }
+    }
+
+    private void write(CharSequence lines) {
+        try {
+            sink.write(lines);
+            sink.flush();
+        } catch (IOException ioe) {
+            // the log cannot be written anywhere else
+        }
+    }
+
+    /**
+     * Append an event as it has always been printed: {@code [HH:mm:ss.SS] >> message}, with the level before the
+     * message if it is not {@link Level#INFO} and the tag after it; a stack trace follows on its own lines
+     */
+    private void format(StringBuilder sb, long millis, Level level, Object tag, Object message, Throwable error) {
+        if (message != null || error == null) {
+            long local = millis + zone.getOffset(millis);
+            long ofDay = Math.floorMod(local, TimeUnit.DAYS.toMillis(1));
+            sb.append('[');
+            twoDigits(sb, ofDay / 3600000);
+            sb.append(':');
+            twoDigits(sb, ofDay / 60000 % 60);
+            sb.append(':');
+            twoDigits(sb, ofDay / 1000 % 60);
+            sb.append('.');
+            twoDigits(sb, ofDay % 1000 / 10);
+            sb.append("] >> ");
+            if (level != Level.INFO) {
+                sb.append(level).append(' ');
+            }
+            if (tag != null) {
+                sb.append(tag).append(' ');
+            }
+            sb.append(message).append(System.lineSeparator());
+        }
+        if (error != null) {
+            sb.append(System.lineSeparator()).append("[Stack trace for ").append(error).append(']')
+                    .append(System.lineSeparator());
+            for (StackTraceElement element : error.getStackTrace()) {
+                sb.append(element).append(System.lineSeparator());
+            }
+            sb.append(System.lineSeparator()).append(System.lineSeparator());
+        }
+    }
+
+    private static void twoDigits(StringBuilder sb, long value) {
+        sb.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+}
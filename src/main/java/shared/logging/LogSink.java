@@ -0,0 +1,25 @@
+package shared.logging;
+
+import java.io.IOException;
+
+/**
+ * <p>This interface is implemented by the destinations of the log: the lines are written by a single thread at a time,
+ * in batches, and the sink is flushed after every batch</p>
+ * @see ConsoleSink
+ * @see RollingFileSink
+ */
+public interface LogSink {
+
+    /**
+     * Write some lines of the log, each one ended by a line separator
+     * @param lines the text to be written
+     * @throws IOException if the destination cannot be written
+     */
+    void write(CharSequence lines) throws IOException;
+
+    /**
+     * Make the lines written until now visible to the readers of the destination
+     * @throws IOException if the destination cannot be written
+     */
+    void flush() throws IOException;
+}
@@ -0,0 +1,71 @@
+package shared.logging;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>This sink writes the log on a file; when the file grows beyond a size it is renamed adding {@code .1} to its name,
+ * the older files are shifted in the same way ({@code .1} becomes {@code .2} and so on) and the oldest one is deleted,
+ * so the log never takes more than the given number of files</p>
+ * @see LogSink
+ */
+public final class RollingFileSink implements LogSink {
+    private final File file;
+    private final long maxBytes;
+    private final int files;
+    private Writer writer;
+    private long size;
+
+    /**
+     * Open the log file, appending to it if it exists
+     * @param path the path of the file
+     * @param maxBytes the size after which the file is rolled
+     * @param files how many files are kept, the current one included
+     * @throws IOException if the file cannot be opened
+     */
+    public RollingFileSink(String path, long maxBytes, int files) throws IOException {
+        this.file = new File(path);
+        this.maxBytes = maxBytes;
+        this.files = Math.max(1, files);
+        open();
+    }
+
+    private void open() throws IOException {
+        size = file.length();
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void write(CharSequence lines) throws IOException {
+        if (size >= maxBytes) {
+            roll();
+        }
+        writer.append(lines);
+        // the lines are ASCII but for the nicknames, so their length is close enough to their size in bytes
+        size += lines.length();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void roll() throws IOException {
+        writer.close();
+        new File(file.getPath() + "." + (files - 1)).delete();
+        for (int i = files - 2; i >= 1; i--) {
+            new File(file.getPath() + "." + i).renameTo(new File(file.getPath() + "." + (i + 1)));
+        }
+        if (files > 1) {
+            file.renameTo(new File(file.getPath() + ".1"));
+        } else {
+            file.delete();
+        }
+        open();
+    }
+}
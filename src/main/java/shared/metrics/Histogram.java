@@ -0,0 +1,105 @@
+package shared.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>This class counts the values recorded, usually latencies in nanoseconds, in buckets whose width grows with the
+ * value, as an HDR histogram does: every power of two is split in {@code 32} buckets of the same width, so a value is
+ * known within about 3% whatever its magnitude, and the values from 0 to {@code 2^40} (about 18 minutes in nanoseconds)
+ * fit in a fixed array of counters.</p><br>
+ * <p>Recording a value is a single atomic increment and never allocates, so it can be done on the hot paths by many
+ * threads at once; the percentiles are computed on request from the counters as they are at that moment</p>
+ * @see Meter
+ */
+public final class Histogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Count a value; negative values are counted as 0, values beyond the range as the largest one
+     * @param value the value to be counted
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(indexOf(value));
+        long seen;
+        while (value > (seen = max.get()) && !max.compareAndSet(seen, value)) {
+            // another thread raised the maximum in the meantime: compare again
+        }
+    }
+
+    /**
+     * @return the number of values counted
+     */
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * @return the largest value counted, exactly
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Obtain the value below which a fraction of the values counted falls
+     * @param quantile the fraction, from 0 to 1 (e.g. {@code 0.99} for the 99th percentile)
+     * @return the highest value of the bucket holding the percentile, never above the largest value counted (which is
+     *         returned for the values beyond the range); {@code 0} if no value was counted
+     */
+    public long getPercentile(double quantile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return i == BUCKETS - 1 ? max.get() : Math.min(highestOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+        if (exponent == MAX_EXPONENT && value >= 1L << (MAX_EXPONENT + 1)) {
+            return BUCKETS - 1;
+        }
+        int group = exponent - SUB_BITS + 1;
+        return group * SUB_BUCKETS + (int) (value >>> (group - 1)) - SUB_BUCKETS;
+    }
+
+    private static long highestOf(int index) {
+        int group = index / SUB_BUCKETS;
+        long sub = index % SUB_BUCKETS;
+        if (group == 0) {
+            return sub;
+        }
+        long lowest = (SUB_BUCKETS + sub) << (group - 1);
+        return lowest + (1L << (group - 1)) - 1;
+    }
+}
@@ -0,0 +1,81 @@
+package shared.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>This class measures a single kind of event, e.g. the calls of a remote method: how many there were, how many of
+ * them failed, the bytes they read and wrote and a {@link Histogram} of their latencies in nanoseconds.</p><br>
+ * <p>The counters are {@code LongAdder}s, so the threads updating the same meter do not contend on a single value;
+ * meters are obtained by name from the {@link Metrics} registry</p>
+ * @see Metrics#meter(String)
+ */
+public final class Meter {
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final Histogram latency = new Histogram();
+
+    Meter(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Count an event which started at {@code start} and ended now
+     * @param start the value of {@link System#nanoTime()} when the event started
+     */
+    public void since(long start) {
+        record(System.nanoTime() - start);
+    }
+
+    /**
+     * Count an event which lasted
+     * @param nanos nanoseconds
+     */
+    public void record(long nanos) {
+        calls.increment();
+        latency.record(nanos);
+    }
+
+    /**
+     * Count a failed event; it should be recorded as an event too, if it has a latency
+     */
+    public void error() {
+        errors.increment();
+    }
+
+    /**
+     * Count the bytes moved by an event
+     * @param in bytes read
+     * @param out bytes written
+     */
+    public void bytes(long in, long out) {
+        bytesIn.add(in);
+        bytesOut.add(out);
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+
+    public Histogram getLatency() {
+        return latency;
+    }
+}
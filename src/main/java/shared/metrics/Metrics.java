@@ -0,0 +1,140 @@
+package shared.metrics;
+
+import shared.Logger;
+import shared.network.RemoteMethod;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>This class is the registry of all the {@link Meter}s of the JVM, bound to their names: a meter is built the first
+ * time its name is asked for, and then the same instance is always returned. The names are made of a prefix telling
+ * where the events are measured and of what is measured, e.g. {@code server.placeDice}:</p>
+ * <ul>
+ *     <li>{@code server.*} the remote methods called by the players on the server, on any transport</li>
+ *     <li>{@code client.*} the remote methods called by the server on the players, with the unreachable ones as errors</li>
+ *     <li>{@code route.*} the methods routed by the {@link shared.network.MethodRouter}</li>
+ *     <li>{@code socket.*} the requests answered by a socket server, with the bytes of their frames</li>
+ *     <li>{@code socket.frame} the time from reading a request on a blocking connection to writing its answer</li>
+ *     <li>{@code game.*} the phases of the games</li>
+ * </ul>
+ * <p>The whole registry can be printed with {@link #dump()}, or written to a file every few seconds with
+ * {@link #startSnapshots(String, long)}</p>
+ * @see Histogram
+ */
+public final class Metrics {
+    private static final ConcurrentMap<String, Meter> meters = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService snapshots = null;
+
+    private Metrics() {
+        super();
+    }
+
+    /**
+     * Obtain the meter bound to a name, building it if this is the first time
+     * @param name the name of the meter
+     * @return always the same meter for the same name
+     */
+    public static Meter meter(String name) {
+        Meter meter = meters.get(name);
+        if (meter == null) {
+            meter = meters.computeIfAbsent(name, Meter::new);
+        }
+        return meter;
+    }
+
+    /**
+     * Obtain a table of meters, one for each {@link RemoteMethod}, named with the prefix and the method name; each meter
+     * is taken from the registry the first time it is used, so the hot paths do not build names
+     * @param prefix the prefix of the names, e.g. {@code "server."}
+     * @return the table of the meters
+     */
+    public static MethodMeters perMethod(String prefix) {
+        return new MethodMeters(prefix);
+    }
+
+    /**
+     * @return a line for every meter, sorted by name, with its calls, errors, bytes and latency percentiles in
+     *         milliseconds
+     */
+    public static String dump() {
+        Map<String, Meter> sorted = new TreeMap<>(meters);
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-32s %10s %8s %12s %12s %9s %9s %9s %9s%n", "meter", "calls", "errors", "bytes in",
+                "bytes out", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        for (Meter meter : sorted.values()) {
+            Histogram latency = meter.getLatency();
+            sb.append(String.format("%-32s %10d %8d %12d %12d %9.3f %9.3f %9.3f %9.3f%n", meter.getName(),
+                    meter.getCalls(), meter.getErrors(), meter.getBytesIn(), meter.getBytesOut(),
+                    latency.getPercentile(0.5) / 1e6, latency.getPercentile(0.9) / 1e6,
+                    latency.getPercentile(0.99) / 1e6, latency.getMax() / 1e6));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Start writing the {@link #dump()} to a file periodically, on a background daemon thread; the file is replaced at
+     * once, so a reader never sees half a snapshot. Calling this method again has no effect
+     * @param file the path of the file
+     * @param period milliseconds between two snapshots
+     */
+    public static synchronized void startSnapshots(String file, long period) {
+        if (snapshots != null) {
+            return;
+        }
+        snapshots = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Path path = Paths.get(file);
+        snapshots.scheduleAtFixedRate(() -> write(path), period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private static void write(Path path) {
+        try {
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.write(temp, dump().getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ioe) {
+            Logger.log("Unable to write the metrics to " + path);
+        }
+    }
+
+    /**
+     * A table of meters indexed by the opcode of the {@link RemoteMethod}, filled on first use
+     */
+    public static final class MethodMeters {
+        private final String prefix;
+        private final AtomicReferenceArray<Meter> table = new AtomicReferenceArray<>(RemoteMethod.values().length);
+
+        private MethodMeters(String prefix) {
+            this.prefix = prefix;
+        }
+
+        /**
+         * @param method a remote method
+         * @return the meter of the method
+         */
+        public Meter of(RemoteMethod method) {
+            Meter meter = table.get(method.getId());
+            if (meter == null) {
+                meter = meter(prefix + method.getMethodName());
+                table.set(method.getId(), meter);
+            }
+            return meter;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package shared.network;
 
+import shared.Logger;
 import shared.network.rmi.NetworkRmi;
 import shared.network.socket.NetworkSocket;
 
@@ -60,14 +61,32 @@ public interface Connection extends AutoCloseable {
      * {@link Connection#export(Object, String)} method. You must keep a reference to the name used at export-time, to
      * provide it as this method's first parameter
      * @param callee name of the exported object you want to call the method on (the text bound to it at export-time)
-     * @param methodName name of the method you want to call, as a {@code String} object
+     * @param method the method you want to call, whose opcode is sent over the network
      * @param argList a list of method's arguments; method signatures are position-wise, so you <b><i>must</i></b> place
      *                the parameter in the correct order
      * @return return value of the invoked method, obtained as an {@code Object}
      * @throws MethodConnectionException when connection issues occur between client and server; also an error messag
      * will be printed to tell more about the problem
      */
-    Object invokeMethod(String callee, String methodName, Object[] argList) throws MethodConnectionException;
+    Object invokeMethod(String callee, RemoteMethod method, Object[] argList) throws MethodConnectionException;
+
+    /**
+     * Perform a method call given the method name, looking up its {@link RemoteMethod}
+     * @param callee name of the exported object you want to call the method on (the text bound to it at export-time)
+     * @param methodName name of the method you want to call, as in {@link RemoteMethod#getMethodName()}
+     * @param argList a list of method's arguments, in the correct order
+     * @return return value of the invoked method, obtained as an {@code Object}
+     * @throws MethodConnectionException when connection issues occur, or no remote method has the given name
+     * @see Connection#invokeMethod(String, RemoteMethod, Object[])
+     */
+    default Object invokeMethod(String callee, String methodName, Object[] argList) throws MethodConnectionException {
+        RemoteMethod method = RemoteMethod.forName(methodName);
+        if (method == null) {
+            Logger.log("Requested unknown remote method " + methodName + "!");
+            throw new MethodConnectionException();
+        }
+        return invokeMethod(callee, method, argList);
+    }
 
     /**
      * This method is used to tear down the networking setup of a {@code Connection} instance; also, it is called
@@ -4,18 +4,162 @@ import shared.Cell;
 import shared.Logger;
 import shared.Position;
 import shared.PositionR;
+import shared.TransferObjects.GameDeltaT;
 import shared.TransferObjects.GameManagerT;
+import shared.metrics.Meter;
+import shared.metrics.Metrics;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
 import java.util.ArrayList;
 
 /**
- * <p>This class will route the method calls, using the provided method name</p>
+ * <p>This class will route the method calls, using the provided {@link RemoteMethod}: for each of the two interfaces
+ * a table holds an invoker for every method, bound once when the class is loaded and indexed by the method's opcode, so
+ * that routing a call is just an array lookup</p><br>
+ * <p>Every routed call is measured by the {@code route.*} meters of the {@link Metrics} registry</p>
  * @see Router
  */
 public class MethodRouter implements Router {
 
+    /**
+     * Call of a single method on an already cast callee, unpacking its arguments from the array
+     * @param <T> interface declaring the method
+     */
+    @FunctionalInterface
+    private interface Invoker<T> {
+        Object invoke(T callee, Object[] argList) throws RemoteException;
+    }
+
+    private static final Invoker<SharedProxyClient>[] clientTable = newTable();
+    private static final Invoker<SharedProxyServer>[] serverTable = newTable();
+    private static final Metrics.MethodMeters meters = Metrics.perMethod("route.");
+
+    static {
+        client(RemoteMethod.START_GAME, (o, a) -> o.startGame((String) a[0]));
+        client(RemoteMethod.UPDATE_VIEW, (o, a) -> {
+            o.updateView((GameManagerT) a[0]);
+            return null;
+        });
+        client(RemoteMethod.CHOOSE_WINDOW, (o, a) -> o.chooseWindow((ArrayList<Integer>) a[0], (ArrayList<Cell[][]>) a[1]));
+        client(RemoteMethod.PING, (o, a) -> o.ping());
+        client(RemoteMethod.TAVOLO_WIN, (o, a) -> {
+            o.aPrioriWin();
+            return null;
+        });
+        client(RemoteMethod.ENABLE, (o, a) -> {
+            o.enable();
+            return null;
+        });
+        client(RemoteMethod.SHUT, (o, a) -> {
+            o.shut();
+            return null;
+        });
+        client(RemoteMethod.PRINT_SCORE, (o, a) -> {
+            o.printScore((ArrayList<String>) a[0], (ArrayList<Integer>) a[1], (ArrayList<Boolean>) a[2]);
+            return null;
+        });
+        client(RemoteMethod.CHOOSE_WINDOW_BACK, (o, a) -> o.chooseWindowBack((Integer) a[0]));
+        client(RemoteMethod.START_GAME_VIEW_FORCED, (o, a) -> o.startGameViewForced());
+        client(RemoteMethod.PLACE_DICE, (o, a) -> o.placeDice((Integer) a[0], (Position) a[1]));
+        client(RemoteMethod.USE_TOOL_C, (o, a) -> o.useToolC((Integer) a[0], (Position) a[1], (Position) a[2],
+                (Position) a[3], (Position) a[4], (PositionR) a[5], (Integer) a[6], (Integer) a[7]));
+        client(RemoteMethod.EXIT_GAME_2, (o, a) -> {
+            o.exitGame2();
+            return null;
+        });
+        client(RemoteMethod.END_TURN, (o, a) -> {
+            o.endTurn();
+            return null;
+        });
+        client(RemoteMethod.UPDATE_VIEW_FROM_C, (o, a) -> {
+            o.updateViewFromC();
+            return null;
+        });
+        client(RemoteMethod.EXIT_GAME_1, (o, a) -> o.exitGame1());
+        client(RemoteMethod.ON_TIME_STATUS, (o, a) -> {
+            o.onTimeStatus((String) a[0], (String) a[1]);
+            return null;
+        });
+        client(RemoteMethod.UPDATE_VIEW_DELTA, (o, a) -> {
+            o.updateViewDelta((GameDeltaT) a[0]);
+            return null;
+        });
+        client(RemoteMethod.RESYNC_VIEW, (o, a) -> {
+            o.resyncView();
+            return null;
+        });
+
+        server(RemoteMethod.START_GAME, (o, a) -> o.startGame((String) a[0], (String) a[1], (String) a[2],
+                (Integer) a[3], (Boolean) a[4], (Remote) a[5]));
+        server(RemoteMethod.UPDATE_VIEW, (o, a) -> {
+            o.updateView((String) a[0], (GameManagerT) a[1]);
+            return null;
+        });
+        server(RemoteMethod.CHOOSE_WINDOW, (o, a) -> o.chooseWindow((String) a[0], (ArrayList<Integer>) a[1],
+                (ArrayList<Cell[][]>) a[2]));
+        server(RemoteMethod.PING, (o, a) -> o.ping((String) a[0]));
+        server(RemoteMethod.TAVOLO_WIN, (o, a) -> {
+            o.tavoloWin((String) a[0]);
+            return null;
+        });
+        server(RemoteMethod.ENABLE, (o, a) -> {
+            o.enable((String) a[0]);
+            return null;
+        });
+        server(RemoteMethod.SHUT, (o, a) -> {
+            o.shut((String) a[0]);
+            return null;
+        });
+        server(RemoteMethod.PRINT_SCORE, (o, a) -> {
+            o.printScore((String) a[0], (ArrayList<String>) a[1], (ArrayList<Integer>) a[2], (ArrayList<Boolean>) a[3]);
+            return null;
+        });
+        server(RemoteMethod.CHOOSE_WINDOW_BACK, (o, a) -> o.chooseWindowBack((String) a[0], (Integer) a[1]));
+        server(RemoteMethod.START_GAME_VIEW_FORCED, (o, a) -> o.startGameViewForced((String) a[0]));
+        server(RemoteMethod.PLACE_DICE, (o, a) -> o.placeDice((String) a[0], (Integer) a[1], (Position) a[2]));
+        server(RemoteMethod.USE_TOOL_C, (o, a) -> o.useToolC((String) a[0], (Integer) a[1], (Position) a[2],
+                (Position) a[3], (Position) a[4], (Position) a[5], (PositionR) a[6], (Integer) a[7], (Integer) a[8]));
+        server(RemoteMethod.EXIT_GAME_2, (o, a) -> {
+            o.exitGame2((String) a[0]);
+            return null;
+        });
+        server(RemoteMethod.END_TURN, (o, a) -> {
+            o.endTurn((String) a[0]);
+            return null;
+        });
+        server(RemoteMethod.UPDATE_VIEW_FROM_C, (o, a) -> {
+            o.updateViewFromC((String) a[0]);
+            return null;
+        });
+        server(RemoteMethod.EXIT_GAME_1, (o, a) -> o.exitGame1((String) a[0]));
+        server(RemoteMethod.ON_TIME_STATUS, (o, a) -> {
+            o.onTimeStatus((String) a[0], (String) a[1], (String) a[2]);
+            return null;
+        });
+        server(RemoteMethod.UPDATE_VIEW_DELTA, (o, a) -> {
+            o.updateViewDelta((String) a[0], (GameDeltaT) a[1]);
+            return null;
+        });
+        server(RemoteMethod.RESYNC_VIEW, (o, a) -> {
+            o.resyncView((String) a[0]);
+            return null;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Invoker<T>[] newTable() {
+        return (Invoker<T>[]) new Invoker<?>[RemoteMethod.values().length];
+    }
+
+    private static void client(RemoteMethod method, Invoker<SharedProxyClient> invoker) {
+        clientTable[method.getId()] = invoker;
+    }
+
+    private static void server(RemoteMethod method, Invoker<SharedProxyServer> invoker) {
+        serverTable[method.getId()] = invoker;
+    }
+
     /**
      * Public constructor
      */
@@ -25,116 +169,54 @@ public class MethodRouter implements Router {
 
     /**
      * Method implemented from the interface {@link Router}
-     * @see Router#route(Object, String, Object[])
+     * @see Router#route(Object, RemoteMethod, Object[])
      */
     @Override
-    public Object route(Object callee, String methodName, Object[] argList) throws RemoteException {
+    public Object route(Object callee, RemoteMethod method, Object[] argList) throws RemoteException {
         if (callee == null) {
             throw new NullPointerException();
         }
         if (callee instanceof SharedProxyClient) {
-            SharedProxyClient o = (SharedProxyClient) callee;
-            switch (methodName) {
-                case "startGame":
-                    return o.startGame((String) argList[0]);
-                case "updateView":
-                    o.updateView((GameManagerT) argList[0]);
-                    break;
-                case "chooseWindow":
-                    return o.chooseWindow((ArrayList<Integer>) argList[0], (ArrayList<Cell[][]>) argList[1]);
-                case "ping":
-                    return o.ping();
-                case "tavoloWin":
-                    o.aPrioriWin();
-                    break;
-                case "enable":
-                    o.enable();
-                    break;
-                case "shut":
-                    o.shut();
-                    break;
-                case "printScore":
-                    o.printScore((ArrayList<String>) argList[0], (ArrayList<Integer>) argList[1], (ArrayList<Boolean>) argList[2]);
-                    break;
-                case "chooseWindowBack":
-                    return o.chooseWindowBack((Integer) argList[0]);
-                case "startGameViewForced":
-                    return o.startGameViewForced();
-                case "placeDice":
-                    return o.placeDice((Integer) argList[0], (Position) argList[1]);
-                case "useToolC":
-                    return o.useToolC((Integer) argList[0], (Position) argList[1], (Position) argList[2], (Position) argList[3], (Position) argList[4], (PositionR) argList[5], (Integer) argList[6], (Integer) argList[7]);
-                case "exitGame2":
-                    o.exitGame2();
-                    break;
-                case "endTurn":
-                    o.endTurn();
-                    break;
-                case "updateViewFromC":
-                    o.updateViewFromC();
-                    break;
-                case "exitGame1":
-                    return o.exitGame1();
-                case "onTimeStatus":
-                    o.onTimeStatus((String) argList[0], (String) argList[1]);
-                    break;
-                default:
-                    Logger.log("Requested wrong method " + methodName + " for interface SharedProxyClient!");
-                    break;
+            Invoker<SharedProxyClient> invoker = method == null ? null : clientTable[method.getId()];
+            if (invoker == null) {
+                Logger.log("Requested wrong method " + method + " for interface SharedProxyClient!");
+                return null;
             }
+            return invoke(invoker, (SharedProxyClient) callee, method, argList);
         } else if (callee instanceof SharedProxyServer) {
-            SharedProxyServer o = (SharedProxyServer) callee;
-            switch (methodName) {
-                case "startGame":
-                    return o.startGame((String) argList[0], (String) argList[1], (String) argList[2], (Integer) argList[3], (Boolean) argList[4], (Remote) argList[5]);
-                case "updateView":
-                    o.updateView((String) argList[0], (GameManagerT) argList[1]);
-                    break;
-                case "chooseWindow":
-                    return o.chooseWindow((String) argList[0], (ArrayList<Integer>) argList[1], (ArrayList<Cell[][]>) argList[2]);
-                case "ping":
-                    return o.ping((String) argList[0]);
-                case "tavoloWin":
-                    o.tavoloWin((String) argList[0]);
-                    break;
-                case "enable":
-                    o.enable((String) argList[0]);
-                    break;
-                case "shut":
-                    o.shut((String) argList[0]);
-                    break;
-                case "printScore":
-                    o.printScore((String) argList[0], (ArrayList<String>) argList[1], (ArrayList<Integer>) argList[2], (ArrayList<Boolean>) argList[3]);
-                    break;
-                case "chooseWindowBack":
-                    return o.chooseWindowBack((String) argList[0], (Integer) argList[1]);
-                case "startGameViewForced":
-                    return o.startGameViewForced((String) argList[0]);
-                case "placeDice":
-                    return o.placeDice((String) argList[0], (Integer) argList[1], (Position) argList[2]);
-                case "useToolC":
-                    return o.useToolC((String) argList[0], (Integer) argList[1], (Position) argList[2], (Position) argList[3], (Position) argList[4], (Position) argList[5], (PositionR) argList[6], (Integer) argList[7], (Integer) argList[8]);
-                case "exitGame2":
-                    o.exitGame2((String) argList[0]);
-                    break;
-                case "endTurn":
-                    o.endTurn((String) argList[0]);
-                    break;
-                case "updateViewFromC":
-                    o.updateViewFromC((String) argList[0]);
-                    break;
-                case "exitGame1":
-                    return o.exitGame1((String) argList[0]);
-                case "onTimeStatus":
-                    o.onTimeStatus((String) argList[0], (String) argList[1], (String) argList[2]);
-                    break;
-                default:
-                    Logger.log("Requested wrong method " + methodName + " for interface SharedProxyServer!");
-                    break;
+            Invoker<SharedProxyServer> invoker = method == null ? null : serverTable[method.getId()];
+            if (invoker == null) {
+                Logger.log("Requested wrong method " + method + " for interface SharedProxyServer!");
+                return null;
             }
+            return invoke(invoker, (SharedProxyServer) callee, method, argList);
         } else {
             Logger.log("Found exported object of wrong type: expected SharedProxy<Client|Server>");
         }
         return null;
     }
+
+    /**
+     * Call the invoker of a method, timing it and counting it as an error if it throws
+     * @param invoker the invoker bound to the method
+     * @param callee the already cast callee
+     * @param method the method invoked
+     * @param argList the arguments of the call
+     * @param <T> interface declaring the method
+     * @return the return value of the method
+     * @throws RemoteException if the method throws it
+     */
+    private static <T> Object invoke(Invoker<T> invoker, T callee, RemoteMethod method, Object[] argList)
+            throws RemoteException {
+        Meter meter = meters.of(method);
+        long start = System.nanoTime();
+        try {
+            return invoker.invoke(callee, argList);
+        } catch (RemoteException | RuntimeException e) {
+            meter.error();
+            throw e;
+        } finally {
+            meter.since(start);
+        }
+    }
 }
@@ -0,0 +1,90 @@
+package shared.network;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>This enumeration lists the methods which can be called remotely on a {@link SharedProxyClient} or on a
+ * {@link SharedProxyServer}: both interfaces declare a method for each constant, with the same name (apart from
+ * {@link RemoteMethod#TAVOLO_WIN}, which is {@code aPrioriWin} on the client) and the {@code uuid} as first parameter
+ * only on the server side.</p><br>
+ * <p>The ordinal of each constant is the opcode sent over the network in place of the method name: it is used by the
+ * {@link MethodRouter} as index in its tables of invokers, so <b><i>new constants must be appended at the end</i></b>,
+ * to keep the opcodes stable between different builds of client and server</p>
+ * @see Router
+ * @see Connection#invokeMethod(String, RemoteMethod, Object[])
+ */
+public enum RemoteMethod {
+    START_GAME("startGame"),
+    UPDATE_VIEW("updateView"),
+    CHOOSE_WINDOW("chooseWindow"),
+    PING("ping"),
+    TAVOLO_WIN("tavoloWin"),
+    ENABLE("enable"),
+    SHUT("shut"),
+    PRINT_SCORE("printScore"),
+    CHOOSE_WINDOW_BACK("chooseWindowBack"),
+    START_GAME_VIEW_FORCED("startGameViewForced"),
+    PLACE_DICE("placeDice"),
+    USE_TOOL_C("useToolC"),
+    EXIT_GAME_2("exitGame2"),
+    END_TURN("endTurn"),
+    UPDATE_VIEW_FROM_C("updateViewFromC"),
+    EXIT_GAME_1("exitGame1"),
+    ON_TIME_STATUS("onTimeStatus"),
+    UPDATE_VIEW_DELTA("updateViewDelta"),
+    RESYNC_VIEW("resyncView");
+
+    private static final RemoteMethod[] byId = values();
+    private static final Map<String, RemoteMethod> byName = new HashMap<>();
+
+    static {
+        for (RemoteMethod method : byId) {
+            byName.put(method.methodName, method);
+        }
+    }
+
+    private final String methodName;
+
+    RemoteMethod(String methodName) {
+        this.methodName = methodName;
+    }
+
+    /**
+     * @return the method name, as it was sent over the network before the opcodes
+     */
+    public String getMethodName() {
+        return methodName;
+    }
+
+    /**
+     * @return the opcode sent over the network for this method
+     */
+    public int getId() {
+        return ordinal();
+    }
+
+    /**
+     * @param id an opcode received from the network
+     * @return the method bound to the opcode, or {@code null} if the opcode is unknown
+     */
+    public static RemoteMethod forId(int id) {
+        if (id < 0 || id >= byId.length) {
+            return null;
+        }
+        return byId[id];
+    }
+
+    /**
+     * @param methodName text representing the method name
+     * @return the method with the given name, or {@code null} if no remote method has that name
+     */
+    public static RemoteMethod forName(String methodName) {
+        return byName.get(methodName);
+    }
+
+    @Override
+    public String toString() {
+        return methodName;
+    }
+}
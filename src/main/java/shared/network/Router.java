@@ -3,8 +3,9 @@ package shared.network;
 import java.rmi.RemoteException;
 
 /**
- * <p>This interface will route method calls performed on some object, based on the method name as string and on parameters
- * as an array. Routing is also based on the object's nature, among {@code SharedProxyClient} or {@code SharedProxyServer}</p>
+ * <p>This interface will route method calls performed on some object, based on the {@link RemoteMethod} (or its name as
+ * string) and on parameters as an array. Routing is also based on the object's nature, among {@code SharedProxyClient}
+ * or {@code SharedProxyServer}</p>
  * @see SharedProxyClient
  * @see SharedProxyServer
  */
@@ -15,14 +16,25 @@ public interface Router {
      * endpoint) network communication modes.
      * @param callee object on which the method will be called; it <b><i>must</i></b> be either an instance of {@code SharedProxyClient} or
      *          {@code SharedProxyServer}
-     * @param methodName text representing the method name: it <b><i>must</i></b> be the same as the method name declared
-     *                   in the corresponding interface
-     * @param argList list of arguments used, together with the {@code methodName}, to build the method's complete signature;
+     * @param method the method to be called: it <b><i>must</i></b> be declared in the corresponding interface
+     * @param argList list of arguments used, together with the {@code method}, to build the method's complete signature;
      *                thus, it is very important to provide the arguments in the correct order
      * @return if the called method has a return value, it is also passed as return value of the {@code route} method
      * in case of a {@code void} method call, {@code null} is returned
      * @throws RemoteException if {@link shared.network.rmi.NetworkRmi#remotize(Object, Integer)} has been called, passing
      * {@code e} as first parameter, this exception could occur, since an RMI call will take place
      */
-    Object route(Object callee, String methodName, Object[] argList) throws RemoteException;
+    Object route(Object callee, RemoteMethod method, Object[] argList) throws RemoteException;
+
+    /**
+     * Route a method call given the method name, looking up its {@link RemoteMethod}
+     * @param callee object on which the method will be called
+     * @param methodName text representing the method name, as in {@link RemoteMethod#getMethodName()}
+     * @param argList list of arguments, in the same order as in the signature
+     * @return the return value of the called method, or {@code null}
+     * @throws RemoteException see {@link Router#route(Object, RemoteMethod, Object[])}
+     */
+    default Object route(Object callee, String methodName, Object[] argList) throws RemoteException {
+        return route(callee, RemoteMethod.forName(methodName), argList);
+    }
 }
\ No newline at end of file
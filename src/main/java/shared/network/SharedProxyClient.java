@@ -3,6 +3,7 @@ package shared.network;
 import shared.Cell;
 import shared.Position;
 import shared.PositionR;
+import shared.TransferObjects.GameDeltaT;
 import shared.TransferObjects.GameManagerT;
 
 import java.rmi.Remote;
@@ -206,4 +207,26 @@ public interface SharedProxyClient extends Remote {
      * @see client.ProxyClient#onTimeStatus(String, String)
      */
     void onTimeStatus(String s1, String s2) throws RemoteException;
+
+    /**
+     * <strong>Local</strong><br>
+     * Server calls this method in place of {@link SharedProxyClient#updateView(GameManagerT)}: the first update of a
+     * match carries a full snapshot of it, while the following ones only carry the changes since the previous version;
+     * the client should apply them to its own copy of the match status, and pass the result to the <b>view</b>. If the
+     * base version of a delta is not the last one received, some update has been lost and
+     * {@link SharedProxyClient#resyncView()} should be called
+     * @param delta versioned snapshot, or changes since the version held by the client
+     * @throws RemoteException see {@link SharedProxyClient} for more about this throw
+     * @see client.ProxyClient#updateViewDelta(GameDeltaT)
+     */
+    void updateViewDelta(GameDeltaT delta) throws RemoteException;
+
+    /**
+     * <strong>Remote</strong><br>
+     * A player can ask the server to send a full snapshot of the match with the next call of
+     * {@link SharedProxyClient#updateViewDelta(GameDeltaT)}, when the status held by its client is outdated
+     * @throws RemoteException see {@link SharedProxyClient} for more about this throw
+     * @see client.ProxyClient#resyncView()
+     */
+    void resyncView() throws RemoteException;
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package shared.network;
 import shared.Cell;
 import shared.Position;
 import shared.PositionR;
+import shared.TransferObjects.GameDeltaT;
 import shared.TransferObjects.GameManagerT;
 
 import java.rmi.Remote;
@@ -226,4 +227,25 @@ public interface SharedProxyServer extends Remote {
      * @see server.connection.ProxyServer#onTimeStatus(String, String, String)
      */
     void onTimeStatus(String uuid, String s1, String s2) throws RemoteException;
+
+    /**
+     * <strong>Remote</strong><br>
+     * Server calls this method on every player's client, on every turn, to send either a full snapshot of the match or
+     * the changes since the last version sent to that player
+     * @param uuid see {@link SharedProxyServer} for more about the first parameter
+     * @param delta versioned snapshot, or changes since the last version sent
+     * @throws RemoteException see {@link SharedProxyServer} for more about this throw
+     * @see server.connection.ProxyServer#updateViewDelta(String, GameDeltaT)
+     */
+    void updateViewDelta(String uuid, GameDeltaT delta) throws RemoteException;
+
+    /**
+     * <strong>Local</strong><br>
+     * This method is called when a player lost some update of the match status: a full snapshot is sent back to its
+     * client through {@link SharedProxyClient#updateViewDelta(GameDeltaT)}
+     * @param uuid see {@link SharedProxyServer} for more about the first parameter
+     * @throws RemoteException see {@link SharedProxyServer} for more about this throw
+     * @see server.connection.ProxyServer#resyncView(String)
+     */
+    void resyncView(String uuid) throws RemoteException;
 }
\ No newline at end of file
@@ -199,18 +199,18 @@ public class NetworkRmi implements Connection {
     /**
      *
      * @param callee {@code String}
-     * @param methodName {@code String}
+     * @param method {@link RemoteMethod}
      * @param argList {@code Object[]}
      * @return {@code Object}
      * @throws MethodConnectionException when there are connection issues with the server or when the desired object or
      * method are not found on the RMI registry
-     * @see Connection#invokeMethod(String, String, Object[])
+     * @see Connection#invokeMethod(String, RemoteMethod, Object[])
      */
     @Override
-    public Object invokeMethod(String callee, String methodName, Object[] argList) throws MethodConnectionException {
+    public Object invokeMethod(String callee, RemoteMethod method, Object[] argList) throws MethodConnectionException {
         try {
             Object e = getExported(callee);
-            return router.route(e, methodName, argList);
+            return router.route(e, method, argList);
         } catch (Exception e) {
             throw new MethodConnectionException();
         }
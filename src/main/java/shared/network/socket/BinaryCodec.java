@@ -0,0 +1,730 @@
+package shared.network.socket;
+
+import shared.Cell;
+import shared.Dice;
+import shared.Position;
+import shared.PositionR;
+import shared.TransferObjects.GameDeltaT;
+import shared.TransferObjects.GameManagerT;
+import shared.TransferObjects.PlayerDeltaT;
+import shared.TransferObjects.PlayerT;
+import shared.TransferObjects.ToolCT;
+import shared.TransferObjects.WindowT;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * <p>This codec writes a compact binary encoding of the packets and of the values they carry: every value starts with a
+ * one byte tag telling its type, followed by its fields, without any class descriptor. Integers are written as variable
+ * length numbers, so the small values of the game (dice, positions, tokens, request identifiers) take a single byte,
+ * and {@code null} fields are encoded in the same byte.</p><br>
+ * <p>The types with a dedicated encoding are the packets, {@link Dice}, {@link Position}, {@link PositionR},
+ * {@link Cell}, {@link PlayerT}, {@link WindowT}, {@link ToolCT}, {@link GameManagerT} and {@link GameDeltaT}, together with the common
+ * wrappers, strings, lists and arrays used as method arguments; any other {@code Serializable} value is written with
+ * the Java serialization inside its own tag, so every call which works with {@link SerialCodec} works with this codec
+ * too.</p><br>
+ * <p>The values which never change and are written many times, like the cells of the window patterns or a view update
+ * sent to all the players of a match, can be registered with {@link #share(Cell[][])} and {@link #share(GameDeltaT)}:
+ * they are encoded the first time they are written, and from then on their bytes are copied as they are. A value is
+ * forgotten when nothing else refers to it</p>
+ * @see PacketCodec
+ */
+public final class BinaryCodec implements PacketCodec {
+    static final byte ID = 1;
+    private static final BinaryCodec instance = new BinaryCodec();
+    private static final byte[] PENDING = new byte[0];
+    private static final Map<Object, byte[]> shared = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final int NULL = 0;
+    private static final int STRING = 1;
+    private static final int INTEGER = 2;
+    private static final int BOOLEAN = 3;
+    private static final int CHARACTER = 4;
+    private static final int LIST = 5;
+    private static final int ARRAY = 6;
+    private static final int DICE = 7;
+    private static final int POSITION = 8;
+    private static final int POSITIONR = 9;
+    private static final int CELL = 10;
+    private static final int CELL_MATRIX = 11;
+    private static final int DICE_MATRIX = 12;
+    private static final int PLAYER = 13;
+    private static final int WINDOW = 14;
+    private static final int TOOL = 15;
+    private static final int GAME = 16;
+    private static final int DELTA = 17;
+    private static final int METHOD_REQUEST = 32;
+    private static final int OBJECT_REQUEST = 33;
+    private static final int RESPONSE = 34;
+    private static final int SERIALIZED = 127;
+
+    private BinaryCodec() {
+        super();
+    }
+
+    /**
+     * @return always the same instance, since the codec has no state
+     */
+    public static BinaryCodec getInstance() {
+        return instance;
+    }
+
+    /**
+     * Encode a matrix of cells once, and copy those bytes every time the same matrix (the same object, not an equal
+     * one) is written again
+     * @param cells a matrix which will never change from now on
+     */
+    public static void share(Cell[][] cells) {
+        shared.putIfAbsent(cells, PENDING);
+    }
+
+    /**
+     * Encode a view update once, and copy those bytes every time the same update (the same object, not an equal one)
+     * is written again
+     * @param delta an update which will never change from now on
+     */
+    public static void share(GameDeltaT delta) {
+        shared.putIfAbsent(delta, PENDING);
+    }
+
+    /**
+     * A field written by {@link #writeShared(DataOutputStream, Object, Fields)}
+     */
+    private interface Fields {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Write the bytes of a shared value, encoding them the first time
+     * @return false if the value is not shared, so nothing was written
+     */
+    private static boolean writeShared(DataOutputStream out, Object value, Fields fields) throws IOException {
+        byte[] encoded = shared.get(value);
+        if (encoded == null) {
+            return false;
+        }
+        if (encoded == PENDING) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream buffer = new DataOutputStream(bytes);
+            fields.write(buffer);
+            buffer.flush();
+            encoded = bytes.toByteArray();
+            shared.put(value, encoded);
+        }
+        out.write(encoded);
+        return true;
+    }
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public void encode(Object packet, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        writeValue(data, packet);
+        data.flush();
+    }
+
+    @Override
+    public Object decode(InputStream in) throws IOException, ClassNotFoundException {
+        return readValue(new DataInputStream(in));
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof MethodRequestPacket) {
+            MethodRequestPacket req = (MethodRequestPacket) value;
+            out.writeByte(METHOD_REQUEST);
+            writeVarInt(out, req.requestId);
+            writeString(out, req.callee);
+            writeVarInt(out, req.methodId);
+            writeValue(out, req.arguments);
+        } else if (value instanceof ObjectRequestPacket) {
+            ObjectRequestPacket req = (ObjectRequestPacket) value;
+            out.writeByte(OBJECT_REQUEST);
+            writeVarInt(out, req.requestId);
+            writeString(out, req.objectName);
+        } else if (value instanceof ResponsePacket) {
+            ResponsePacket resp = (ResponsePacket) value;
+            out.writeByte(RESPONSE);
+            writeVarInt(out, resp.requestId);
+            writeValue(out, resp.value);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            writeInteger(out, (Integer) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Character) {
+            out.writeByte(CHARACTER);
+            writeCharacter(out, (Character) value);
+        } else if (value instanceof Dice) {
+            out.writeByte(DICE);
+            writeDice(out, (Dice) value);
+        } else if (value instanceof Position) {
+            out.writeByte(POSITION);
+            writeInteger(out, ((Position) value).getRow());
+            writeInteger(out, ((Position) value).getColumn());
+        } else if (value instanceof PositionR) {
+            out.writeByte(POSITIONR);
+            writeInteger(out, ((PositionR) value).getColumn());
+            writeInteger(out, ((PositionR) value).getHeight());
+        } else if (value instanceof Cell) {
+            out.writeByte(CELL);
+            writeCell(out, (Cell) value);
+        } else if (value instanceof Cell[][]) {
+            out.writeByte(CELL_MATRIX);
+            writeCells(out, (Cell[][]) value);
+        } else if (value instanceof Dice[][]) {
+            out.writeByte(DICE_MATRIX);
+            writeDiceMatrix(out, (Dice[][]) value);
+        } else if (value instanceof PlayerT) {
+            out.writeByte(PLAYER);
+            writePlayer(out, (PlayerT) value);
+        } else if (value instanceof WindowT) {
+            out.writeByte(WINDOW);
+            writeWindow(out, (WindowT) value);
+        } else if (value instanceof ToolCT) {
+            out.writeByte(TOOL);
+            writeString(out, ((ToolCT) value).name);
+            writeInteger(out, ((ToolCT) value).tokensRequired);
+        } else if (value instanceof GameManagerT) {
+            out.writeByte(GAME);
+            writeGame(out, (GameManagerT) value);
+        } else if (value instanceof GameDeltaT) {
+            out.writeByte(DELTA);
+            writeDelta(out, (GameDeltaT) value);
+        } else if (value.getClass() == ArrayList.class) {
+            List<?> list = (List<?>) value;
+            out.writeByte(LIST);
+            writeVarInt(out, list.size());
+            for (Object item : list) {
+                writeValue(out, item);
+            }
+        } else if (value.getClass() == Object[].class) {
+            Object[] array = (Object[]) value;
+            out.writeByte(ARRAY);
+            writeVarInt(out, array.length);
+            for (Object item : array) {
+                writeValue(out, item);
+            }
+        } else {
+            // No dedicated encoding: the standard serialization keeps the codec able to carry anything
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+                oos.writeObject(value);
+            }
+            out.writeByte(SERIALIZED);
+            writeVarInt(out, baos.size());
+            baos.writeTo(out);
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException, ClassNotFoundException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case METHOD_REQUEST:
+                return new MethodRequestPacket(readVarInt(in), readString(in), readVarInt(in),
+                        (Object[]) readValue(in));
+            case OBJECT_REQUEST:
+                return new ObjectRequestPacket(readVarInt(in), readString(in));
+            case RESPONSE:
+                return new ResponsePacket(readVarInt(in), readValue(in));
+            case STRING:
+                return readString(in);
+            case INTEGER:
+                return readInteger(in);
+            case BOOLEAN:
+                return in.readBoolean();
+            case CHARACTER:
+                return readCharacter(in);
+            case DICE:
+                return readDice(in);
+            case POSITION:
+                return Position.of(readInteger(in), readInteger(in));
+            case POSITIONR:
+                return new PositionR(readInteger(in), readInteger(in));
+            case CELL:
+                return readCell(in);
+            case CELL_MATRIX:
+                return readCells(in);
+            case DICE_MATRIX:
+                return readDiceMatrix(in);
+            case PLAYER:
+                return readPlayer(in);
+            case WINDOW:
+                return readWindow(in);
+            case TOOL:
+                return new ToolCT(readString(in), readInteger(in));
+            case GAME:
+                return readGame(in);
+            case DELTA:
+                return readDelta(in);
+            case LIST: {
+                int size = readLength(in);
+                ArrayList<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            }
+            case ARRAY: {
+                Object[] array = new Object[readLength(in)];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = readValue(in);
+                }
+                return array;
+            }
+            case SERIALIZED: {
+                byte[] bytes = new byte[readLength(in)];
+                in.readFully(bytes);
+                try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    return ois.readObject();
+                }
+            }
+            default:
+                throw new StreamCorruptedException("Unknown value tag " + tag);
+        }
+    }
+
+    // Transfer objects
+
+    private static void writeGame(DataOutputStream out, GameManagerT game) throws IOException {
+        writeVarInt(out, game.vPlayers.size());
+        for (PlayerT player : game.vPlayers) {
+            writePlayer(out, player);
+        }
+        writeStrings(out, game.publicOCs);
+        writeVarInt(out, game.toolCards.size());
+        for (ToolCT tool : game.toolCards) {
+            writeString(out, tool.name);
+            writeInteger(out, tool.tokensRequired);
+        }
+        writeVarInt(out, game.roundTrack.size());
+        for (List<Dice> round : game.roundTrack) {
+            writeDiceList(out, round);
+        }
+        writeDiceList(out, game.pool);
+        writeStrings(out, game.online);
+        writeStrings(out, game.offline);
+        writeInteger(out, game.pos);
+    }
+
+    private static GameManagerT readGame(DataInputStream in) throws IOException {
+        int players = readLength(in);
+        List<PlayerT> vPlayers = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            vPlayers.add(readPlayer(in));
+        }
+        List<String> publicOCs = readStrings(in);
+        int tools = readLength(in);
+        List<ToolCT> toolCards = new ArrayList<>(tools);
+        for (int i = 0; i < tools; i++) {
+            toolCards.add(new ToolCT(readString(in), readInteger(in)));
+        }
+        int rounds = readLength(in);
+        List<ArrayList<Dice>> roundTrack = new ArrayList<>(rounds);
+        for (int i = 0; i < rounds; i++) {
+            roundTrack.add(readDiceList(in));
+        }
+        List<Dice> pool = readDiceList(in);
+        List<String> online = readStrings(in);
+        List<String> offline = readStrings(in);
+        return new GameManagerT(vPlayers, publicOCs, toolCards, roundTrack, pool, online, offline, readInteger(in));
+    }
+
+    private static void writeDelta(DataOutputStream out, GameDeltaT delta) throws IOException {
+        if (!writeShared(out, delta, buffer -> writeFields(buffer, delta))) {
+            writeFields(out, delta);
+        }
+    }
+
+    private static void writeFields(DataOutputStream out, GameDeltaT delta) throws IOException {
+        writeInteger(out, delta.baseVersion);
+        writeInteger(out, delta.version);
+        out.writeBoolean(delta.snapshot != null);
+        if (delta.snapshot != null) {
+            writeGame(out, delta.snapshot);
+        }
+        writeVarInt(out, delta.players.size());
+        for (PlayerDeltaT player : delta.players) {
+            writeInteger(out, player.index);
+            writeInteger(out, player.tokens);
+            writeInteger(out, player.turno);
+            writeInteger(out, player.score);
+            writeInteger(out, player.privateTurn);
+            out.writeBoolean(player.lastPlaced != null);
+            if (player.lastPlaced != null) {
+                writeInteger(out, player.lastPlaced.getRow());
+                writeInteger(out, player.lastPlaced.getColumn());
+            }
+            writeVarInt(out, player.cells.size());
+            for (int i = 0; i < player.cells.size(); i++) {
+                writeInteger(out, player.cells.get(i));
+                writeDice(out, player.dices.get(i));
+            }
+        }
+        out.writeBoolean(delta.pool != null);
+        if (delta.pool != null) {
+            writeDiceList(out, delta.pool);
+        }
+        writeInteger(out, delta.roundTrackFrom);
+        if (delta.roundTrackFrom != null) {
+            writeVarInt(out, delta.rounds.size());
+            for (List<Dice> round : delta.rounds) {
+                writeDiceList(out, round);
+            }
+        }
+        out.writeBoolean(delta.toolTokens != null);
+        if (delta.toolTokens != null) {
+            writeVarInt(out, delta.toolTokens.size());
+            for (Integer tokens : delta.toolTokens) {
+                writeInteger(out, tokens);
+            }
+        }
+        out.writeBoolean(delta.online != null);
+        if (delta.online != null) {
+            writeStrings(out, delta.online);
+        }
+        out.writeBoolean(delta.offline != null);
+        if (delta.offline != null) {
+            writeStrings(out, delta.offline);
+        }
+    }
+
+    private static GameDeltaT readDelta(DataInputStream in) throws IOException {
+        Integer baseVersion = readInteger(in);
+        Integer version = readInteger(in);
+        GameManagerT snapshot = in.readBoolean() ? readGame(in) : null;
+        int size = readLength(in);
+        List<PlayerDeltaT> players = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Integer index = readInteger(in);
+            Integer tokens = readInteger(in);
+            Integer turno = readInteger(in);
+            Integer score = readInteger(in);
+            Integer privateTurn = readInteger(in);
+            Position lastPlaced = in.readBoolean() ? Position.of(readInteger(in), readInteger(in)) : null;
+            int changes = readLength(in);
+            List<Integer> cells = new ArrayList<>(changes);
+            List<Dice> dices = new ArrayList<>(changes);
+            for (int c = 0; c < changes; c++) {
+                cells.add(readInteger(in));
+                dices.add(readDice(in));
+            }
+            players.add(new PlayerDeltaT(index, tokens, turno, score, privateTurn, lastPlaced, cells, dices));
+        }
+        List<Dice> pool = in.readBoolean() ? readDiceList(in) : null;
+        Integer roundTrackFrom = readInteger(in);
+        List<ArrayList<Dice>> rounds = null;
+        if (roundTrackFrom != null) {
+            int count = readLength(in);
+            rounds = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                rounds.add(readDiceList(in));
+            }
+        }
+        List<Integer> toolTokens = null;
+        if (in.readBoolean()) {
+            int count = readLength(in);
+            toolTokens = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                toolTokens.add(readInteger(in));
+            }
+        }
+        List<String> online = in.readBoolean() ? readStrings(in) : null;
+        List<String> offline = in.readBoolean() ? readStrings(in) : null;
+        return new GameDeltaT(baseVersion, version, snapshot, players, pool, roundTrackFrom, rounds, toolTokens,
+                online, offline);
+    }
+
+    private static void writePlayer(DataOutputStream out, PlayerT player) throws IOException {
+        if (player == null) {
+            out.writeBoolean(false);
+            return;
+        }
+        out.writeBoolean(true);
+        writeString(out, player.nickName);
+        writeCharacter(out, player.privateO);
+        if (player.window == null) {
+            out.writeBoolean(false);
+        } else {
+            out.writeBoolean(true);
+            writeWindow(out, player.window);
+        }
+        writeDiceMatrix(out, player.overlay);
+        writeInteger(out, player.tokens);
+        writeInteger(out, player.turno);
+        writeInteger(out, player.score);
+        writeInteger(out, player.privateTurn);
+        if (player.lastPlaced == null) {
+            out.writeBoolean(false);
+        } else {
+            out.writeBoolean(true);
+            writeInteger(out, player.lastPlaced.getRow());
+            writeInteger(out, player.lastPlaced.getColumn());
+        }
+    }
+
+    private static PlayerT readPlayer(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        String nickName = readString(in);
+        Character privateO = readCharacter(in);
+        WindowT window = in.readBoolean() ? readWindow(in) : null;
+        Dice[][] overlay = readDiceMatrix(in);
+        Integer tokens = readInteger(in);
+        Integer turno = readInteger(in);
+        Integer score = readInteger(in);
+        Integer privateTurn = readInteger(in);
+        Position lastPlaced = in.readBoolean() ? Position.of(readInteger(in), readInteger(in)) : null;
+        return new PlayerT(nickName, privateO, window, overlay, tokens, turno, score, privateTurn, lastPlaced);
+    }
+
+    private static void writeWindow(DataOutputStream out, WindowT window) throws IOException {
+        writeString(out, window.name);
+        writeCells(out, window.cells);
+    }
+
+    private static WindowT readWindow(DataInputStream in) throws IOException {
+        return new WindowT(readString(in), readCells(in));
+    }
+
+    // Game objects
+
+    /**
+     * A dice is written as its color and value; the color is never encoded as {@code 0}, so that a single {@code 0}
+     * byte can stand for a missing dice inside matrices and lists
+     */
+    private static void writeDice(DataOutputStream out, Dice dice) throws IOException {
+        if (dice == null) {
+            out.writeByte(0);
+            return;
+        }
+        writeCharacter(out, dice.getColor() == null ? Character.valueOf('\0') : dice.getColor());
+        writeInteger(out, dice.getValue());
+    }
+
+    private static Dice readDice(DataInputStream in) throws IOException {
+        Character color = readCharacter(in);
+        if (color == null) {
+            return null;
+        }
+        return Dice.of(color == '\0' ? null : color, readInteger(in));
+    }
+
+    private static void writeDiceList(DataOutputStream out, List<Dice> dices) throws IOException {
+        writeVarInt(out, dices.size());
+        for (Dice dice : dices) {
+            writeDice(out, dice);
+        }
+    }
+
+    private static ArrayList<Dice> readDiceList(DataInputStream in) throws IOException {
+        int size = readLength(in);
+        ArrayList<Dice> dices = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            dices.add(readDice(in));
+        }
+        return dices;
+    }
+
+    private static void writeDiceMatrix(DataOutputStream out, Dice[][] matrix) throws IOException {
+        if (matrix == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        writeVarInt(out, matrix.length + 1);
+        for (Dice[] row : matrix) {
+            writeVarInt(out, row.length);
+            for (Dice dice : row) {
+                writeDice(out, dice);
+            }
+        }
+    }
+
+    private static Dice[][] readDiceMatrix(DataInputStream in) throws IOException {
+        int rows = readLength(in) - 1;
+        if (rows < 0) {
+            return null;
+        }
+        Dice[][] matrix = new Dice[rows][];
+        for (int r = 0; r < rows; r++) {
+            matrix[r] = new Dice[readLength(in)];
+            for (int c = 0; c < matrix[r].length; c++) {
+                matrix[r][c] = readDice(in);
+            }
+        }
+        return matrix;
+    }
+
+    private static void writeCell(DataOutputStream out, Cell cell) throws IOException {
+        writeInteger(out, cell.getValue());
+        writeCharacter(out, cell.getColor());
+    }
+
+    private static Cell readCell(DataInputStream in) throws IOException {
+        return Cell.of(readInteger(in), readCharacter(in));
+    }
+
+    private static void writeCells(DataOutputStream out, Cell[][] cells) throws IOException {
+        if (cells != null && writeShared(out, cells, buffer -> writeFields(buffer, cells))) {
+            return;
+        }
+        writeFields(out, cells);
+    }
+
+    private static void writeFields(DataOutputStream out, Cell[][] cells) throws IOException {
+        if (cells == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        writeVarInt(out, cells.length + 1);
+        for (Cell[] row : cells) {
+            writeVarInt(out, row.length);
+            for (Cell cell : row) {
+                out.writeBoolean(cell != null);
+                if (cell != null) {
+                    writeCell(out, cell);
+                }
+            }
+        }
+    }
+
+    private static Cell[][] readCells(DataInputStream in) throws IOException {
+        int rows = readLength(in) - 1;
+        if (rows < 0) {
+            return null;
+        }
+        Cell[][] cells = new Cell[rows][];
+        for (int r = 0; r < rows; r++) {
+            cells[r] = new Cell[readLength(in)];
+            for (int c = 0; c < cells[r].length; c++) {
+                cells[r][c] = in.readBoolean() ? readCell(in) : null;
+            }
+        }
+        return cells;
+    }
+
+    // Primitives
+
+    private static void writeStrings(DataOutputStream out, List<String> strings) throws IOException {
+        writeVarInt(out, strings.size());
+        for (String s : strings) {
+            writeString(out, s);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = readLength(in);
+        List<String> strings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            strings.add(readString(in));
+        }
+        return strings;
+    }
+
+    /**
+     * A string is written as its UTF-8 length plus one, followed by its bytes; a {@code null} string is a single 0
+     */
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = readLength(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A nullable {@code Integer} is written as a variable length number: {@code 0} stands for {@code null}, otherwise
+     * the zig-zag encoding of the value plus one, so that small negative values are short too
+     */
+    private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0);
+        } else {
+            writeVarLong(out, (((long) value << 1) ^ ((long) value >> 63)) + 1);
+        }
+    }
+
+    private static Integer readInteger(DataInputStream in) throws IOException {
+        long zigzag = readVarLong(in);
+        if (zigzag == 0) {
+            return null;
+        }
+        zigzag--;
+        return (int) ((zigzag >>> 1) ^ -(zigzag & 1));
+    }
+
+    private static void writeCharacter(DataOutputStream out, Character c) throws IOException {
+        writeVarInt(out, c == null ? 0 : c + 1);
+    }
+
+    private static Character readCharacter(DataInputStream in) throws IOException {
+        int c = readVarInt(in);
+        return c == 0 ? null : (char) (c - 1);
+    }
+
+    private static int readLength(DataInputStream in) throws IOException {
+        int length = readVarInt(in);
+        if (length < 0 || length > PacketStream.MAX_FRAME_LENGTH) {
+            throw new StreamCorruptedException("Invalid length " + length);
+        }
+        return length;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        return (int) readVarLong(in);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Malformed variable length number");
+    }
+}
@@ -5,24 +5,29 @@ import java.io.Serializable;
 /**
  * <p>When a host wants to call a method of an object on another host, it should send and instance of this class to that
  * host: the {@link SocketHandler} instance on the endpoint will answer sending back the return value of that method, if
- * the object name, the method name and the arguments are correct.</p><br>
+ * the object name, the method opcode and the arguments are correct.</p><br>
+ * <p>The answer is a {@link ResponsePacket} carrying the same {@code requestId}, so that many requests can share the
+ * same connection</p><br>
  * <p>This class implements {@code Serializable}, so it is suitable to be sent via Socket</p>
  */
 final class MethodRequestPacket implements Serializable {
+    public final int requestId;
     public final String callee;
-    public final String methodName;
+    public final int methodId;
     public final Object[] arguments;
 
     /**
-     * Send the instance constructed by this method to a host via an {@link java.io.ObjectOutputStream}; the answer will
-     * be received on an {@link java.io.ObjectInputStream}
+     * Send the instance constructed by this method to a host through a {@link PacketStream}; the answer will be
+     * received as a {@link ResponsePacket} with the same {@code requestId}
+     * @param requestId identifier of the request, unique among the in-flight requests of a connection
      * @param callee text bound to an exported object, on the endpoint
-     * @param methodName text representing the method name, the same as in the signature
+     * @param methodId opcode of the method, as in {@link shared.network.RemoteMethod#getId()}
      * @param arguments array containing the method's parameters, in the same order as in the signature
      */
-    MethodRequestPacket(String callee, String methodName, Object[] arguments) {
+    MethodRequestPacket(int requestId, String callee, int methodId, Object[] arguments) {
+        this.requestId = requestId;
         this.callee = callee;
-        this.methodName = methodName;
+        this.methodId = methodId;
         this.arguments = arguments;
     }
-}
\ No newline at end of file
+}
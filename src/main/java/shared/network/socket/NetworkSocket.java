@@ -3,11 +3,13 @@ package shared.network.socket;
 import shared.Logger;
 import shared.network.Connection;
 import shared.network.MethodConnectionException;
+import shared.network.RemoteMethod;
 
 import java.io.*;
-import java.net.Socket;
 import java.net.SocketException;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * <p>This class implements {@code Connection} and all its methods, using the Socket networking to set up the connection
@@ -24,9 +26,16 @@ import java.util.*;
  * instance of this class was constructed as a client.</p><br>
  * <p>Finally, incoming requests are accepted by a secondary thread, which will be held id the private attribute
  * {@code Thread threadConsumer}: it will be run in the {@code startConsumer} method, and it is an instance of the class
- * {@link SocketServer}; the communication between thi client and server will be done through object input and output
- * streams, writing either an {@link ObjectRequestPacket} or a {@link MethodRequestPacket} instance on the output stream,
- * stored in {@code outStream} and waiting to read the answer on the input stream, stored in {@code inStream}</p>
+ * {@link SocketServer} or, if {@link NetworkSocket#setNonBlocking(Integer, Integer)} was called, of the class
+ * {@link NioSocketServer}; the communication between thi client and server will be done through a {@link PersistentChannel},
+ * stored in {@code channel}: it is opened once and then kept alive, writing either an {@link ObjectRequestPacket} or a
+ * {@link MethodRequestPacket} instance for every call and waiting for the {@link ResponsePacket} with the same request
+ * identifier, for at most the time set with {@link NetworkSocket#setCallTimeout(Integer)}, so many calls can share the
+ * same socket. If the channel drops, it is opened again on the next call.</p><br>
+ * <p>The packets of a channel are encoded by a {@link PacketCodec}: the {@link BinaryCodec} unless another one is set
+ * with {@link NetworkSocket#setDefaultCodec(PacketCodec)} for all the new clients, or with
+ * {@link NetworkSocket#setCodec(PacketCodec)} for a single one; the server components answer every request with the
+ * codec it was encoded with, so they do not need any setting</p>
  * @see SocketHandler
  * @see SocketServer
  * @see shared.network.SharedProxyServer
@@ -36,10 +45,14 @@ import java.util.*;
 public class NetworkSocket implements Connection {
     private static final Integer SOCKET_PORT = 1101;
     private static Map<String, Object> exportedObjects = Collections.synchronizedMap(new HashMap<String, Object>());
+    private static Integer ioThreads = 0;
+    private static Integer dispatchThreads = 0;
+    private static PacketCodec defaultCodec = BinaryCodec.getInstance();
+    private static Integer callTimeout = PersistentChannel.CALL_TIMEOUT;
+    private static ExecutorService serverExecutor = null;
 
-    private Socket socketProducer;
-    private ObjectOutputStream outStream;
-    private ObjectInputStream inStream;
+    private PersistentChannel channel;
+    private PacketCodec codec = defaultCodec;
     private String ip;
     private Thread threadConsumer;
     private Integer portConsumer;
@@ -47,6 +60,60 @@ public class NetworkSocket implements Connection {
     private final String server;
     private final Integer port;
 
+    /**
+     * Setter for the transport mode of the <b>server</b> components, that must be called before instantiating the class
+     * to have effect: with a positive number of I/O threads, the incoming connections will be served by a
+     * {@link NioSocketServer}, otherwise by a {@link SocketServer}, which uses a thread for each connection
+     * @param io number of selector threads which read and write on all the connections; {@code 0} disables the
+     *           non-blocking mode
+     * @param dispatch number of threads which run the requested methods, in non-blocking mode; it is ignored if an
+     *                 executor has been set with {@link NetworkSocket#setServerExecutor(ExecutorService)}
+     */
+    public static void setNonBlocking(Integer io, Integer dispatch) {
+        ioThreads = io;
+        dispatchThreads = dispatch;
+    }
+
+    /**
+     * Setter for the executor of the <b>server</b> components, that must be called before instantiating the class
+     * to have effect: it runs the requests read by a {@link SocketServer} or by a {@link NioSocketServer}, in place of
+     * the pool that each of them would build, so it takes precedence over the dispatch threads set with
+     * {@link NetworkSocket#setNonBlocking(Integer, Integer)}; the connections themselves are never served by it
+     * @param executor the executor which will run the blocking work of the server; {@code null} restores the default
+     */
+    public static void setServerExecutor(ExecutorService executor) {
+        serverExecutor = executor;
+    }
+
+    /**
+     * Setter for the codec used by the <b>client</b> instances constructed after this call
+     * @param codec the codec which will encode the requests
+     */
+    public static void setDefaultCodec(PacketCodec codec) {
+        defaultCodec = codec;
+    }
+
+    /**
+     * Setter for the time a <b>client</b> call waits for its answer, used by the channels opened after this call: when
+     * it expires the call fails, as if the connection had dropped
+     * @param millis milliseconds each call waits for its answer
+     */
+    public static void setCallTimeout(Integer millis) {
+        callTimeout = millis;
+    }
+
+    /**
+     * Setter for the codec used by this <b>client</b> instance: the open channel is closed, so that the following
+     * requests will be sent on a new one, using the given codec
+     * @param codec the codec which will encode the requests
+     */
+    public synchronized void setCodec(PacketCodec codec) {
+        this.codec = codec;
+        if (this.channel != null) {
+            this.channel.close();
+        }
+    }
+
     /**
      * Helper method to set up the <b>server</b> components
      * @param port the listening port for incoming connections
@@ -56,13 +123,24 @@ public class NetworkSocket implements Connection {
             if (threadConsumer == null) {
                 this.ip = Connection.getLocalIp("wl");
                 // Setup the socket that will listen for incoming connections
-                SocketServer socketConsumer = new SocketServer(port, exportedObjects);
-                this.portConsumer = socketConsumer.getPort();
-                this.threadConsumer = new Thread(socketConsumer);
+                if (ioThreads > 0) {
+                    ExecutorService dispatcher = serverExecutor != null ? serverExecutor :
+                            Executors.newFixedThreadPool(Math.max(1, dispatchThreads));
+                    NioSocketServer socketConsumer = new NioSocketServer(port, exportedObjects, ioThreads, dispatcher);
+                    this.portConsumer = socketConsumer.getPort();
+                    this.threadConsumer = new Thread(socketConsumer);
+                } else {
+                    ExecutorService pool = serverExecutor != null ? serverExecutor : Executors.newCachedThreadPool();
+                    SocketServer socketConsumer = new SocketServer(port, exportedObjects, pool);
+                    this.portConsumer = socketConsumer.getPort();
+                    this.threadConsumer = new Thread(socketConsumer);
+                }
                 this.threadConsumer.start();
             }
         } catch (SocketException es) {
             Logger.log("Unable to resolve local host name/address!");
+        } catch (IOException ioe) {
+            Logger.log("Unable to start the socket server on port " + port + "!");
         }
     }
 
@@ -74,18 +152,15 @@ public class NetworkSocket implements Connection {
     private void startProducer(String server, Integer port) throws MethodConnectionException {
         try {
             this.ip = Connection.getLocalIp("wl");
-            // Setup the socket which will output data to the server
+            // Setup the channel which will carry the requests to the server
             if (server.equals("")) {
                 server = "localhost";
             }
             if (port == 0) {
-                socketProducer = new Socket(server, SOCKET_PORT);
+                channel = new PersistentChannel(server, SOCKET_PORT, codec, callTimeout);
             } else {
-                socketProducer = new Socket(server, port);
+                channel = new PersistentChannel(server, port, codec, callTimeout);
             }
-            outStream = new ObjectOutputStream(socketProducer.getOutputStream());
-            outStream.flush();
-            inStream = new ObjectInputStream(socketProducer.getInputStream());
         } catch (Exception e) {
             throw new MethodConnectionException();
         }
@@ -180,14 +255,13 @@ public class NetworkSocket implements Connection {
     public <T> T getExported(String name) {
         T exportedObject = null;
         try {
-            outStream.writeObject(new ObjectRequestPacket(name));
-            exportedObject = (T) inStream.readObject();
+            exportedObject = (T) openChannel().lookup(name);
+        } catch (MethodConnectionException mce) {
+            Logger.log("Error connecting to server!");
         } catch (IOException ioe) {
             Logger.log("Error sending request packet to server!");
         } catch (ClassCastException cce) {
             Logger.log("Error casting server response!");
-        } catch (ClassNotFoundException cnfe) {
-            Logger.log("Server response object has unknown class!");
         }
         return exportedObject;
     }
@@ -195,30 +269,33 @@ public class NetworkSocket implements Connection {
     /**
      *
      * @param callee {@code String}
-     * @param methodName {@code String}
+     * @param method {@link RemoteMethod}
      * @param argList {@code Object[]}
      * @return {@code Object}
      * @throws MethodConnectionException when there are connection issues with the server or when the desired object or
      * method are not found in the {@code HashMap}
-     * @see Connection#invokeMethod(String, String, Object[])
+     * @see Connection#invokeMethod(String, RemoteMethod, Object[])
      */
     @Override
-    public Object invokeMethod(String callee, String methodName, Object[] argList) throws MethodConnectionException {
-        Object returnValue = null;
-        startProducer(this.server, this.port);
+    public Object invokeMethod(String callee, RemoteMethod method, Object[] argList) throws MethodConnectionException {
         try {
-            outStream.writeObject(new MethodRequestPacket(callee, methodName, argList));
-            returnValue = inStream.readObject();
+            return openChannel().invoke(callee, method, argList);
         } catch (IOException ioe) {
             Logger.log("Error sending request packet to server!");
-        } catch (ClassCastException cce) {
-            Logger.log("Error casting server response!");
-        } catch (ClassNotFoundException cnfe) {
-            Logger.log("Server response object has unknown class!");
-        } finally {
-            close();
+            throw new MethodConnectionException();
+        }
+    }
+
+    /**
+     * Obtain the channel towards the server, opening it again if it has been closed in the meantime
+     * @return an open {@link PersistentChannel}
+     * @throws MethodConnectionException if the server cannot be reached
+     */
+    private synchronized PersistentChannel openChannel() throws MethodConnectionException {
+        if (channel == null || !channel.isOpen()) {
+            startProducer(this.server, this.port);
         }
-        return returnValue;
+        return channel;
     }
 
     /**
@@ -226,12 +303,8 @@ public class NetworkSocket implements Connection {
      * @see Connection#close()
      */
     public void close() {
-        try {
-            this.inStream.close();
-            this.outStream.close();
-            this.socketProducer.close();
-        } catch (IOException ioe) {
-            Logger.log("Error closing streams or socket before terminating consumer!");
+        if (this.channel != null) {
+            this.channel.close();
         }
     }
-}
\ No newline at end of file
+}
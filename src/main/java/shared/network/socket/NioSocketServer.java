@@ -0,0 +1,329 @@
+package shared.network.socket;
+
+import shared.Logger;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * <p>This class is the non-blocking alternative to {@link SocketServer}: it implements {@code Runnable} to make its
+ * instances assignable to a background {@code Thread}, and {@code AutoCloseable} to gracefully terminate the network
+ * components if needed.</p><br>
+ * <p>The {@code run} method loops accepting the incoming connections, which are then handed in turn to a small fixed set
+ * of I/O threads: each one of them owns a {@link Selector} and reads and writes the frames of all its connections without
+ * ever blocking on a single socket. The frames have the same format used by {@link PacketStream}, so the clients do not
+ * know which mode the server is running in; every request read is answered by the {@link PacketDispatcher} on a separate
+ * dispatch pool (a fixed one, unless another executor is set with {@link NetworkSocket#setServerExecutor(java.util.concurrent.ExecutorService)}),
+ * so that a slow method call never holds an I/O thread</p>
+ * @see NetworkSocket#setNonBlocking(Integer, Integer)
+ * @see SocketServer
+ * @see shared.network.Connection
+ */
+public class NioSocketServer implements AutoCloseable, Runnable {
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private ServerSocketChannel socketConsumer;
+    private Integer port;
+    private final IoLoop[] loops;
+    private final ExecutorService dispatcher;
+    private final PacketDispatcher packets;
+    private int nextLoop = 0;
+    private volatile boolean runForever = true;
+
+    /**
+     * Open the listening channel and start the I/O threads
+     * @param port the listening port for incoming connections
+     * @param objects the exported objects, by name
+     * @param ioThreads number of I/O threads
+     * @param dispatcher the executor which runs the requests
+     * @throws IOException if the channel or a selector cannot be opened; whatever was already opened is closed, so
+     *         no server is left without its port or with fewer I/O threads than asked
+     */
+    NioSocketServer(Integer port, Map<String, Object> objects, Integer ioThreads, ExecutorService dispatcher)
+            throws IOException {
+        this.port = port;
+        this.packets = new PacketDispatcher(objects);
+        this.dispatcher = dispatcher;
+        this.loops = new IoLoop[Math.max(1, ioThreads)];
+        prepareConnection();
+        for (int i = 0; i < loops.length; i++) {
+            try {
+                loops[i] = new IoLoop();
+            } catch (IOException ioe) {
+                Logger.log("Error while opening selector for socket I/O thread " + i + "!");
+                closeChannels();
+                throw ioe;
+            }
+            Thread thread = new Thread(loops[i], "socket-io-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private void prepareConnection() throws IOException {
+        try {
+            // Setup the channel which will accept the connections from the clients
+            this.socketConsumer = ServerSocketChannel.open();
+            this.socketConsumer.bind(new InetSocketAddress(port));
+        } catch (IOException ioe) {
+            Logger.log("Error while opening socket on port " + port.toString() + "!");
+            if (this.socketConsumer != null) {
+                this.socketConsumer.close();
+            }
+            throw ioe;
+        }
+    }
+
+    @Override
+    public void run() {
+        do {
+            try {
+                SocketChannel client = socketConsumer.accept();
+                loops[nextLoop].register(client);
+                nextLoop = (nextLoop + 1) % loops.length;
+            } catch (IOException ioe) {
+                if (runForever) {
+                    Logger.log("Error while accepting data on socket!");
+                }
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                close();
+            }
+        } while (runForever);
+    }
+
+    public Integer getPort() {
+        return socketConsumer.socket().getLocalPort();
+    }
+
+    @Override
+    public void close() {
+        this.runForever = false;
+        closeChannels();
+        this.dispatcher.shutdown();
+    }
+
+    /**
+     * Close the listening channel and the I/O threads opened so far, leaving the dispatcher to its owner
+     */
+    private void closeChannels() {
+        try {
+            this.socketConsumer.close();
+        } catch (IOException ioe) {
+            Logger.log("Error closing socket after stopping server");
+        }
+        for (IoLoop loop : loops) {
+            if (loop != null) {
+                loop.close();
+            }
+        }
+    }
+
+    /**
+     * A single I/O thread: it owns a selector and all the connections registered on it
+     */
+    private final class IoLoop implements Runnable {
+        private final Selector selector;
+        private final Queue<SocketChannel> accepted = new ConcurrentLinkedQueue<>();
+        private final Queue<Peer> flushing = new ConcurrentLinkedQueue<>();
+
+        IoLoop() throws IOException {
+            this.selector = Selector.open();
+        }
+
+        /**
+         * Hand a newly accepted connection to this loop; it can be called from any thread
+         * @param client the accepted connection
+         */
+        void register(SocketChannel client) {
+            accepted.add(client);
+            selector.wakeup();
+        }
+
+        /**
+         * Ask this loop to write the pending answers of a connection; it can be called from any thread
+         * @param peer the connection with answers in its outbox
+         */
+        void flush(Peer peer) {
+            flushing.add(peer);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (selector.isOpen()) {
+                try {
+                    selector.select();
+                    registerAccepted();
+                    enableWrites();
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        handle(key);
+                    }
+                } catch (ClosedSelectorException cse) {
+                    return;
+                } catch (IOException ioe) {
+                    Logger.log("Error while selecting ready sockets!");
+                }
+            }
+        }
+
+        private void registerAccepted() {
+            SocketChannel client;
+            while ((client = accepted.poll()) != null) {
+                try {
+                    client.configureBlocking(false);
+                    client.socket().setTcpNoDelay(true);
+                    client.socket().setKeepAlive(true);
+                    client.register(selector, SelectionKey.OP_READ, new Peer(client, this));
+                } catch (IOException ioe) {
+                    closeQuietly(client);
+                }
+            }
+        }
+
+        private void enableWrites() {
+            Peer peer;
+            while ((peer = flushing.poll()) != null) {
+                SelectionKey key = peer.channel.keyFor(selector);
+                if (key != null && key.isValid()) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                }
+            }
+        }
+
+        private void handle(SelectionKey key) {
+            Peer peer = (Peer) key.attachment();
+            try {
+                if (key.isReadable()) {
+                    peer.read();
+                }
+                if (key.isValid() && key.isWritable() && peer.write()) {
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+            } catch (IOException ioe) {
+                // The peer closed the connection or sent a malformed frame: drop it without logging
+                key.cancel();
+                closeQuietly(peer.channel);
+            } catch (CancelledKeyException cke) {
+                closeQuietly(peer.channel);
+            }
+        }
+
+        void close() {
+            try {
+                for (SelectionKey key : selector.keys()) {
+                    closeQuietly(key.channel());
+                }
+                selector.close();
+            } catch (IOException | ClosedSelectorException e) {
+                Logger.log("Error closing selector after stopping server");
+            }
+        }
+    }
+
+    /**
+     * State of a single connection: the frame being read and the answers waiting to be written
+     */
+    private final class Peer {
+        private final SocketChannel channel;
+        private final IoLoop loop;
+        private final Queue<ByteBuffer> outbox = new ConcurrentLinkedQueue<>();
+        private ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+
+        Peer(SocketChannel channel, IoLoop loop) {
+            this.channel = channel;
+            this.loop = loop;
+        }
+
+        /**
+         * Read what is available on the socket and dispatch every complete frame
+         */
+        void read() throws IOException {
+            if (channel.read(readBuffer) < 0) {
+                throw new ClosedChannelException();
+            }
+            readBuffer.flip();
+            while (readBuffer.remaining() >= Integer.BYTES) {
+                int length = readBuffer.getInt(readBuffer.position());
+                if (length < 1 || length > PacketStream.MAX_FRAME_LENGTH) {
+                    throw new StreamCorruptedException("Invalid frame length " + length);
+                }
+                if (readBuffer.remaining() < Integer.BYTES + length) {
+                    break;
+                }
+                readBuffer.getInt();
+                byte[] payload = new byte[length];
+                readBuffer.get(payload);
+                dispatch(payload);
+            }
+            readBuffer.compact();
+            if (!readBuffer.hasRemaining()) {
+                ByteBuffer larger = ByteBuffer.allocate(readBuffer.capacity() * 2);
+                readBuffer.flip();
+                larger.put(readBuffer);
+                readBuffer = larger;
+            }
+        }
+
+        private void dispatch(byte[] data) {
+            try {
+                dispatcher.submit(() -> answer(data));
+            } catch (RejectedExecutionException ree) {
+                closeQuietly(channel);
+            }
+        }
+
+        private void answer(byte[] data) {
+            try {
+                byte[] payload = packets.handle(data);
+                if (payload == null) {
+                    return;
+                }
+                ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + payload.length);
+                frame.putInt(payload.length).put(payload).flip();
+                outbox.add(frame);
+                loop.flush(this);
+            } catch (IOException ioe) {
+                closeQuietly(channel);
+            } catch (ClassNotFoundException cnfe) {
+                Logger.log("Received data has unknown class!");
+            }
+        }
+
+        /**
+         * Write as many pending answers as the socket accepts
+         * @return {@code true} if the outbox has been emptied
+         */
+        boolean write() throws IOException {
+            ByteBuffer frame;
+            while ((frame = outbox.peek()) != null) {
+                channel.write(frame);
+                if (frame.hasRemaining()) {
+                    return false;
+                }
+                outbox.poll();
+            }
+            return true;
+        }
+    }
+
+    private static void closeQuietly(Channel channel) {
+        try {
+            channel.close();
+        } catch (IOException ioe) {
+            // Nothing left to release: the channel is unusable anyway
+        }
+    }
+}
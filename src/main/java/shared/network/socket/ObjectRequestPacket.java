@@ -5,19 +5,22 @@ import java.io.Serializable;
 /**
  * <p>When a host wants to know if on another one an object has been exported and bound to the name {@code objectName},
  * it should send and instance of this class to that host: the {@link SocketHandler} instance on the endpoint will answer
- * sending back the requested object, if it is bound to that name</p><br>
+ * sending back the requested object inside a {@link ResponsePacket}, if it is bound to that name</p><br>
  * <p>This class implements {@code Serializable}, so it is suitable to be sent via Socket</p>
  */
 final class ObjectRequestPacket implements Serializable {
+    public final int requestId;
     public final String objectName;
 
     /**
-     * Send the instance constructed by this method to a host via an {@link java.io.ObjectOutputStream}; the answer will
-     * be received on an {@link java.io.ObjectInputStream}
+     * Send the instance constructed by this method to a host through a {@link PacketStream}; the answer will be
+     * received as a {@link ResponsePacket} with the same {@code requestId}
+     * @param requestId identifier of the request, unique among the in-flight requests of a connection
      * @param objectName text bound to an exported object, on the endpoint
      * @see ObjectRequestPacket
      */
-    ObjectRequestPacket(String objectName) {
+    ObjectRequestPacket(int requestId, String objectName) {
+        this.requestId = requestId;
         this.objectName = objectName;
     }
-}
\ No newline at end of file
+}
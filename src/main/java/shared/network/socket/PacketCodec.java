@@ -0,0 +1,54 @@
+package shared.network.socket;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * <p>This interface abstracts the way packets and their arguments are turned into bytes, before being written in a frame
+ * by a {@link PacketStream}: every frame starts with the identifier of the codec which encoded it, so each connection can
+ * use its own codec, and the endpoint will answer with the same one.</p><br>
+ * <p>The available implementations are {@link SerialCodec}, which relies on the standard Java serialization, and
+ * {@link BinaryCodec}, which writes a compact hand-written encoding for the game's transfer objects</p>
+ * @see NetworkSocket#setCodec(PacketCodec)
+ * @see NetworkSocket#setDefaultCodec(PacketCodec)
+ */
+public interface PacketCodec {
+
+    /**
+     * @return the identifier written as first byte of every frame encoded by this codec
+     */
+    byte getId();
+
+    /**
+     * Write the encoding of a packet, or of any value which can be carried by a packet
+     * @param packet object to be encoded
+     * @param out destination of the encoded bytes
+     * @throws IOException if the object cannot be encoded or written
+     */
+    void encode(Object packet, OutputStream out) throws IOException;
+
+    /**
+     * Read back an object written by {@link #encode(Object, OutputStream)}
+     * @param in source of the encoded bytes
+     * @return the decoded object
+     * @throws IOException if the bytes are malformed or truncated
+     * @throws ClassNotFoundException if the bytes refer to an unknown class
+     */
+    Object decode(InputStream in) throws IOException, ClassNotFoundException;
+
+    /**
+     * Obtain the codec which encoded a frame
+     * @param id the first byte of the frame
+     * @return the codec bound to the identifier
+     * @throws java.io.StreamCorruptedException if no codec is bound to the identifier
+     */
+    static PacketCodec forId(byte id) throws java.io.StreamCorruptedException {
+        if (id == SerialCodec.ID) {
+            return SerialCodec.getInstance();
+        } else if (id == BinaryCodec.ID) {
+            return BinaryCodec.getInstance();
+        }
+        throw new java.io.StreamCorruptedException("Unknown codec " + id);
+    }
+}
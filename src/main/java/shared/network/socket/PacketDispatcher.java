@@ -0,0 +1,135 @@
+package shared.network.socket;
+
+import shared.Logger;
+import shared.metrics.Meter;
+import shared.metrics.Metrics;
+import shared.network.MethodRouter;
+import shared.network.RemoteMethod;
+import shared.network.Router;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.util.Map;
+
+/**
+ * <p>This class computes the answer to the request packets received by a socket server, whichever transport mode has
+ * been used to read them: an {@link ObjectRequestPacket} is answered with the object bound to the requested name, while
+ * a {@link MethodRequestPacket} is answered with the return value of the method, routed by a {@link MethodRouter} on the
+ * exported object through the {@link RemoteMethod} bound to the opcode of the request.</p><br>
+ * <p>It is shared by {@link SocketHandler} (one thread for each connection) and {@link NioSocketServer} (a few selector
+ * threads for all the connections)</p><br>
+ * <p>Every answered request is measured by the {@code socket.*} meters of the {@link Metrics} registry, with the
+ * bytes of the request and of the answer: one meter for each method, and {@code socket.lookup} for the objects</p>
+ * @see Router
+ */
+final class PacketDispatcher {
+    private static final Router router = new MethodRouter();
+    private static final Metrics.MethodMeters methods = Metrics.perMethod("socket.");
+    private static final Meter lookups = Metrics.meter("socket.lookup");
+
+    private final Map<String, Object> exportedObjects;
+
+    PacketDispatcher(Map<String, Object> objects) {
+        this.exportedObjects = objects;
+    }
+
+    /**
+     * Decode a request frame, compute its answer and encode it with the same codec of the request, so that every
+     * connection keeps talking with the codec chosen by its client
+     * @param payload the frame payload, as it was read from the connection
+     * @return the payload of the answer frame; {@code null} if the frame did not hold a request identifier
+     * @throws IOException if the frame is malformed or the answer cannot be encoded
+     * @throws ClassNotFoundException if the request has an unknown class
+     */
+    byte[] handle(byte[] payload) throws IOException, ClassNotFoundException {
+        long start = System.nanoTime();
+        PacketCodec codec = PacketStream.codecOf(payload);
+        Object request = PacketStream.decode(payload);
+        ResponsePacket resp = answer(request);
+        byte[] answer = resp == null ? null : encode(resp, codec);
+        Meter meter = meterOf(request);
+        if (meter != null) {
+            meter.bytes(payload.length, answer == null ? 0 : answer.length);
+            meter.since(start);
+        }
+        return answer;
+    }
+
+    /**
+     * @param request a decoded request packet
+     * @return the meter of the method requested, {@code socket.lookup} for an object, or {@code null} if the packet
+     *         was not a request or its opcode is unknown
+     */
+    private static Meter meterOf(Object request) {
+        if (request instanceof MethodRequestPacket) {
+            RemoteMethod method = RemoteMethod.forId(((MethodRequestPacket) request).methodId);
+            return method == null ? null : methods.of(method);
+        }
+        return request instanceof ObjectRequestPacket ? lookups : null;
+    }
+
+    /**
+     * Compute the answer to a single request packet; a request which cannot be served, because of an unknown opcode or
+     * an unknown kind of packet, is answered with an empty answer with the same request identifier, as
+     * {@link #encode(ResponsePacket, PacketCodec)} does, so the caller will not wait until its timeout
+     * @param data the request packet, as it was read from the connection
+     * @return the answer, holding the same request identifier of the request; {@code null} if the packet has no request
+     *         identifier to answer to
+     */
+    ResponsePacket answer(Object data) {
+        if (data instanceof ObjectRequestPacket) {
+            ObjectRequestPacket req = (ObjectRequestPacket) data;
+            return new ResponsePacket(req.requestId, getExported(req.objectName));
+        } else if (data instanceof MethodRequestPacket) {
+            MethodRequestPacket req = (MethodRequestPacket) data;
+            if (RemoteMethod.forId(req.methodId) == null) {
+                Logger.log("Received request " + req.requestId + " has unknown method " + req.methodId + "!");
+                return new ResponsePacket(req.requestId, null);
+            }
+            return new ResponsePacket(req.requestId, invokeMethod(req.callee, req.methodId, req.arguments));
+        } else if (data instanceof ResponsePacket) {
+            ResponsePacket req = (ResponsePacket) data;
+            Logger.log("Received request " + req.requestId + " is not a request!");
+            return new ResponsePacket(req.requestId, null);
+        }
+        Logger.log("Received data has unknown class!");
+        return null;
+    }
+
+    /**
+     * Encode an answer to be written in a frame; if its value cannot be serialized, an empty answer with the same
+     * request identifier is encoded instead, so the caller will not wait until its timeout
+     * @param resp the answer computed by {@link #answer(Object)}
+     * @param codec the codec used by the request
+     * @return the frame payload
+     * @throws IOException if not even the empty answer can be encoded
+     */
+    byte[] encode(ResponsePacket resp, PacketCodec codec) throws IOException {
+        try {
+            return PacketStream.encode(resp, codec);
+        } catch (NotSerializableException nse) {
+            Logger.log("Return value of request " + resp.requestId + " is not serializable!");
+            return PacketStream.encode(new ResponsePacket(resp.requestId, null), codec);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private  <T> T getExported(String name) {
+        T exportedObject = null;
+        try {
+            exportedObject = (T) exportedObjects.get(name);
+        } catch (ClassCastException cce) {
+            Logger.log("Error casting exported object " + name + " into destination class!");
+        }
+        return exportedObject;
+    }
+
+    private Object invokeMethod(String callee, int methodId, Object[] argList) {
+        try {
+            Object e = getExported(callee);
+            return router.route(e, RemoteMethod.forId(methodId), argList);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package shared.network.socket;
+
+import java.io.*;
+import java.net.Socket;
+
+/**
+ * <p>This class wraps a connected {@code Socket} and exchanges packets on it as length-prefixed frames: every frame
+ * is made of an {@code int} holding the payload length, followed by the payload itself, which starts with the
+ * identifier of the {@link PacketCodec} used to encode a single packet ({@link MethodRequestPacket},
+ * {@link ObjectRequestPacket} or {@link ResponsePacket}), followed by its encoding.</p><br>
+ * <p>Since every frame is self-contained, the same socket can be kept open to carry any number of packets, and a frame
+ * can be decoded without knowing anything about the previous ones; writes are synchronized, so more threads can answer
+ * on the same stream without interleaving their frames</p>
+ * @see PersistentChannel
+ * @see SocketHandler
+ */
+final class PacketStream implements AutoCloseable {
+    static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    /**
+     * Prepare the buffered streams on an already connected socket
+     * @param socket connected socket; the Nagle algorithm is disabled on it, since packets are small and latency bound
+     * @throws IOException if the socket streams cannot be obtained
+     */
+    PacketStream(Socket socket) throws IOException {
+        this.socket = socket;
+        this.socket.setTcpNoDelay(true);
+        this.socket.setKeepAlive(true);
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    /**
+     * Encode a packet in a frame and flush it on the socket
+     * @param packet the packet to be sent
+     * @param codec the codec used to encode the packet
+     * @throws IOException if the socket was closed or the packet cannot be encoded
+     */
+    void write(Object packet, PacketCodec codec) throws IOException {
+        writeFrame(encode(packet, codec));
+    }
+
+    /**
+     * Write an already encoded packet in a frame and flush it on the socket
+     * @param payload the encoded packet, as returned by {@link #encode(Object, PacketCodec)}
+     * @throws IOException if the socket was closed
+     */
+    void writeFrame(byte[] payload) throws IOException {
+        synchronized (out) {
+            out.writeInt(payload.length);
+            out.write(payload);
+            out.flush();
+        }
+    }
+
+    /**
+     * Block until a whole frame is received, then decode its packet
+     * @return the received packet
+     * @throws IOException if the socket was closed or the frame is malformed
+     * @throws ClassNotFoundException if the packet has an unknown class
+     */
+    Object read() throws IOException, ClassNotFoundException {
+        return decode(readFrame());
+    }
+
+    /**
+     * Block until a whole frame is received
+     * @return the frame payload, still encoded
+     * @throws IOException if the socket was closed or the frame is malformed
+     */
+    byte[] readFrame() throws IOException {
+        int length = in.readInt();
+        if (length < 1 || length > MAX_FRAME_LENGTH) {
+            throw new StreamCorruptedException("Invalid frame length " + length);
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return payload;
+    }
+
+    Boolean isOpen() {
+        return !socket.isClosed();
+    }
+
+    /**
+     * Build the payload of a frame
+     * @param packet the packet to be encoded
+     * @param codec the codec used to encode the packet, whose identifier is written as first byte
+     * @return the frame payload
+     * @throws IOException if the packet cannot be encoded
+     */
+    static byte[] encode(Object packet, PacketCodec codec) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(256);
+        baos.write(codec.getId());
+        codec.encode(packet, baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Decode the payload of a frame, with the codec whose identifier is its first byte
+     * @param payload the frame payload
+     * @return the decoded packet
+     * @throws IOException if the payload is malformed or its codec is unknown
+     * @throws ClassNotFoundException if the packet has an unknown class
+     */
+    static Object decode(byte[] payload) throws IOException, ClassNotFoundException {
+        return codecOf(payload).decode(new ByteArrayInputStream(payload, 1, payload.length - 1));
+    }
+
+    /**
+     * @param payload the frame payload
+     * @return the codec which encoded the frame
+     * @throws StreamCorruptedException if the payload is empty or its codec is unknown
+     */
+    static PacketCodec codecOf(byte[] payload) throws StreamCorruptedException {
+        if (payload.length == 0) {
+            throw new StreamCorruptedException("Empty frame");
+        }
+        return PacketCodec.forId(payload[0]);
+    }
+
+    @Override
+    public void close() {
+        try {
+            socket.close();
+        } catch (IOException ioe) {
+            // Nothing left to release: the socket is unusable anyway
+        }
+    }
+}
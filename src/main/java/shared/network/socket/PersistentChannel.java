@@ -0,0 +1,148 @@
+package shared.network.socket;
+
+import shared.Logger;
+import shared.network.RemoteMethod;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>This class holds the <b>client</b> side of a long-lived socket connection towards a {@link SocketServer}: the socket
+ * is opened once, and then every request is tagged with a {@code requestId} and written on the same
+ * {@link PacketStream}, so many calls can be in flight at the same time without paying again the TCP handshake and the
+ * streams set up.</p><br>
+ * <p>A background reader thread receives the {@link ResponsePacket} instances and completes the call which is waiting
+ * for the matching {@code requestId}; if the connection drops, every pending call fails and the channel is marked as
+ * closed, so that the owner can open a new one.</p><br>
+ * <p>Requests are encoded with the {@link PacketCodec} given to the constructor, and the server answers with the same
+ * one; the answers are decoded with the codec named in their frame</p>
+ * @see NetworkSocket
+ * @see PacketStream
+ */
+final class PersistentChannel implements AutoCloseable {
+    static final int CONNECT_TIMEOUT = 5000;
+    static final int CALL_TIMEOUT = 15000;
+
+    private final PacketStream stream;
+    private final String peer;
+    private final PacketCodec codec;
+    private final int callTimeout;
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final Map<Integer, CompletableFuture<Object>> pending = new ConcurrentHashMap<>();
+    private volatile boolean open = true;
+
+    /**
+     * Connect to the server and start the reader thread
+     * @param server the server's address or hostname
+     * @param port the server's port for accepting the client's socket
+     * @param codec the codec used to encode the requests
+     * @param callTimeout milliseconds each call waits for its answer, before failing
+     * @throws IOException if the connection cannot be established within {@link #CONNECT_TIMEOUT} milliseconds
+     */
+    PersistentChannel(String server, Integer port, PacketCodec codec, int callTimeout) throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(server, port), CONNECT_TIMEOUT);
+            this.stream = new PacketStream(socket);
+        } catch (IOException ioe) {
+            socket.close();
+            throw ioe;
+        }
+        this.peer = server + ":" + port;
+        this.codec = codec;
+        this.callTimeout = callTimeout;
+        Thread reader = new Thread(this::readResponses, "socket-channel-" + peer);
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Send a method call on the channel and wait for its return value
+     * @param callee text bound to an exported object, on the endpoint
+     * @param method the method to be called
+     * @param argList array containing the method's parameters
+     * @return the value returned by the remote method
+     * @throws IOException if the channel is closed, or the answer does not come back in time
+     */
+    Object invoke(String callee, RemoteMethod method, Object[] argList) throws IOException {
+        int id = nextId.incrementAndGet();
+        return call(id, new MethodRequestPacket(id, callee, method.getId(), argList));
+    }
+
+    /**
+     * Ask the endpoint for an exported object and wait for it
+     * @param name text bound to the exported object
+     * @return the exported object, or {@code null} if nothing is bound to that name
+     * @throws IOException if the channel is closed, or the answer does not come back in time
+     */
+    Object lookup(String name) throws IOException {
+        int id = nextId.incrementAndGet();
+        return call(id, new ObjectRequestPacket(id, name));
+    }
+
+    private Object call(int id, Object packet) throws IOException {
+        CompletableFuture<Object> answer = new CompletableFuture<>();
+        pending.put(id, answer);
+        try {
+            if (!open) {
+                throw new IOException("Channel towards " + peer + " is closed");
+            }
+            stream.write(packet, codec);
+            return answer.get(callTimeout, TimeUnit.MILLISECONDS);
+        } catch (IOException ioe) {
+            close();
+            throw ioe;
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IOException("No answer from " + peer + " for request " + id, e);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for " + peer, ie);
+        } finally {
+            pending.remove(id);
+        }
+    }
+
+    private void readResponses() {
+        try {
+            while (open) {
+                Object data = stream.read();
+                if (data instanceof ResponsePacket) {
+                    ResponsePacket resp = (ResponsePacket) data;
+                    CompletableFuture<Object> answer = pending.get(resp.requestId);
+                    if (answer != null) {
+                        answer.complete(resp.value);
+                    }
+                } else {
+                    Logger.log("Unexpected packet from " + peer + " on socket channel!");
+                }
+            }
+        } catch (IOException ioe) {
+            // The endpoint closed the connection, or it has been closed locally
+        } catch (ClassNotFoundException cnfe) {
+            Logger.log("Server response object has unknown class!");
+        } finally {
+            close();
+        }
+    }
+
+    Boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Close the socket and fail every call still waiting for an answer
+     */
+    @Override
+    public void close() {
+        open = false;
+        stream.close();
+        IOException closed = new IOException("Channel towards " + peer + " has been closed");
+        for (CompletableFuture<Object> answer : pending.values()) {
+            answer.completeExceptionally(closed);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package shared.network.socket;
+
+import java.io.Serializable;
+
+/**
+ * <p>This packet carries back to the caller the return value of a {@link MethodRequestPacket} or the object requested
+ * with an {@link ObjectRequestPacket}: the {@code requestId} is copied from the request, so that the caller can match
+ * the answer with the call waiting for it, even when many calls are in flight on the same connection</p><br>
+ * <p>This class implements {@code Serializable}, so it is suitable to be sent via Socket</p>
+ * @see PersistentChannel
+ * @see SocketHandler
+ */
+final class ResponsePacket implements Serializable {
+    public final int requestId;
+    public final Object value;
+
+    /**
+     * Build the answer to a request received by a {@link SocketHandler}
+     * @param requestId identifier of the request this packet is answering to
+     * @param value return value of the invoked method, or the requested object; it can be {@code null}
+     */
+    ResponsePacket(int requestId, Object value) {
+        this.requestId = requestId;
+        this.value = value;
+    }
+}
@@ -0,0 +1,42 @@
+package shared.network.socket;
+
+import java.io.*;
+
+/**
+ * <p>This codec encodes packets using the standard Java serialization, through an {@link ObjectOutputStream}: every
+ * {@code Serializable} object can be carried, at the price of the class descriptors written in each frame</p>
+ * @see PacketCodec
+ * @see BinaryCodec
+ */
+public final class SerialCodec implements PacketCodec {
+    static final byte ID = 0;
+    private static final SerialCodec instance = new SerialCodec();
+
+    private SerialCodec() {
+        super();
+    }
+
+    /**
+     * @return always the same instance, since the codec has no state
+     */
+    public static SerialCodec getInstance() {
+        return instance;
+    }
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public void encode(Object packet, OutputStream out) throws IOException {
+        ObjectOutputStream oos = new ObjectOutputStream(out);
+        oos.writeObject(packet);
+        oos.flush();
+    }
+
+    @Override
+    public Object decode(InputStream in) throws IOException, ClassNotFoundException {
+        return new ObjectInputStream(in).readObject();
+    }
+}
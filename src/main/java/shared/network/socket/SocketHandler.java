@@ -1,99 +1,81 @@
 package shared.network.socket;
 
 import shared.*;
-import shared.network.MethodRouter;
-import shared.network.Router;
+import shared.metrics.Meter;
+import shared.metrics.Metrics;
 
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.net.Socket;
-import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * <p>This class implements {@code Runnable} to make its instances assignable to a background {@code Thread}; moreover,
  * it implements {@code AutoCloseable} to gracefully terminate without user interaction the network components if needed</p><br>
- * <p>Instances of this class work by obtaining an {@link ObjectInputStream} and an {@link ObjectOutputStream} instance
- * from the socket passed to the constructor; then an object is read from the input stream, and if it was an {@link ObjectRequestPacket}
- * then the return value of {@link SocketHandler#getExported(String)} is written on the output stream; if an instance of
- * {@link MethodRequestPacket} is read from the input stream instead, then the return value of the
- * {@link SocketHandler#invokeMethod(String, String, Object[])} method is written on the output stream. Then all the network
- * resources are released</p>
+ * <p>Instances of this class serve a single long-lived connection: packets are read in a loop from a {@link PacketStream}
+ * built on the socket passed to the constructor, until the peer closes it. Every packet is answered by the
+ * {@link PacketDispatcher} on the {@code ExecutorService} given to the constructor, so a slow method call does not hold
+ * the following ones, and its answer is a {@link ResponsePacket} holding the same request identifier. Then all the
+ * network resources are released</p><br>
+ * <p>The time from reading a request to writing its answer, waiting for the executor included, is measured by the
+ * {@code socket.frame} meter of the {@link Metrics} registry; the requests whose answer could not be sent are errors</p>
  * @see NetworkSocket
  * @see SocketServer
  * @see shared.network.Connection
  */
 class SocketHandler implements AutoCloseable, Runnable {
+    private static final Meter frames = Metrics.meter("socket.frame");
+
     private Socket client;
-    private Map<String, Object> exportedObjects;
-    private static final Router router = new MethodRouter();
+    private PacketDispatcher packets;
+    private ExecutorService dispatcher;
 
-    SocketHandler(Socket client, Map<String, Object> objects) {
+    SocketHandler(Socket client, PacketDispatcher packets, ExecutorService dispatcher) {
         this.client = client;
-        this.exportedObjects = objects;
+        this.packets = packets;
+        this.dispatcher = dispatcher;
     }
 
     @Override
     public void run() {
-        ObjectInputStream in = null;
-        ObjectOutputStream out = null;
-        try {
-            in = new ObjectInputStream(client.getInputStream());
-            out = new ObjectOutputStream(client.getOutputStream());
-            Object data = in.readObject();
-            Object resp;
-            if (data instanceof ObjectRequestPacket) {
-                ObjectRequestPacket req = (ObjectRequestPacket) data;
-                resp = getExported(req.objectName);
-            } else if (data instanceof MethodRequestPacket) {
-                MethodRequestPacket req = (MethodRequestPacket) data;
-                resp = invokeMethod(req.callee, req.methodName, req.arguments);
-            } else {
-                throw new ClassNotFoundException();
+        try (PacketStream stream = new PacketStream(client)) {
+            while (stream.isOpen()) {
+                byte[] data = stream.readFrame();
+                long read = System.nanoTime();
+                try {
+                    dispatcher.submit(() -> answer(stream, data, read));
+                } catch (RejectedExecutionException ree) {
+                    break;
+                }
             }
-            out.writeObject(resp);
-            out.flush();
         } catch (IOException ioe) {
             // IOException during socket communication could happen multiple times and for different reasons:
-            // no message will be logged on the console in this case
-        } catch (ClassNotFoundException cnfe) {
-            Logger.log("Received data has unknown class!");
+            // the most common one is the peer closing the connection, so no message will be logged on the console
         } finally {
-            try {
-                if (in != null) {
-                    in.close();
-                }
-            } catch (IOException ioe) {
-                Logger.log("Error closing ObjectInputStream after handling client");
-            }
-            try {
-                if (out != null) {
-                    out.close();
-                }
-            } catch (IOException ioe) {
-                Logger.log("Error closing ObjectOutputStream after handling client");
-            }
             this.close();
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private  <T> T getExported(String name) {
-        T exportedObject = null;
+    /**
+     * Compute the answer to a single request and send it back on the connection it came from
+     * @param stream the connection on which the request was read
+     * @param data the request frame payload
+     * @param read the value of {@link System#nanoTime()} when the request was read
+     */
+    private void answer(PacketStream stream, byte[] data, long read) {
         try {
-            exportedObject = (T) exportedObjects.get(name);
-        } catch (ClassCastException cce) {
-            Logger.log("Error casting exported object " + name + " into destination class!");
-        }
-        return exportedObject;
-    }
-
-    private Object invokeMethod(String callee, String methodName, Object[] argList) {
-        try {
-            Object e = getExported(callee);
-            return router.route(e, methodName, argList);
-        } catch (Exception e) {
-            return null;
+            byte[] resp = packets.handle(data);
+            if (resp != null) {
+                stream.writeFrame(resp);
+            }
+        } catch (IOException ioe) {
+            frames.error();
+            stream.close();
+        } catch (ClassNotFoundException cnfe) {
+            frames.error();
+            Logger.log("Received data has unknown class!");
+        } finally {
+            frames.since(read);
         }
     }
 
@@ -105,4 +87,4 @@ class SocketHandler implements AutoCloseable, Runnable {
             Logger.log("Error closing socket in SocketHandler");
         }
     }
-}
\ No newline at end of file
+}
@@ -7,14 +7,15 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * <p>This class implements {@code Runnable} to make its instances assignable to a background {@code Thread}; moreover,
  * it implements {@code AutoCloseable} to gracefully terminate without user interaction the network components if needed</p><br>
  * <p>Instances of this class work by looping in the {@code run} method, waiting for an incoming connection: when a client
  * is accepted, its socket is passed as the parameter of the {@link SocketHandler} constructor; the constructed object is
- * then submitted to the {@code ExecutorService pool} attribute's thread pool</p>
+ * then run by a thread of its own, where it will serve that connection until the client closes it. The requests read by
+ * the handlers are run by the {@code ExecutorService pool} attribute's thread pool, which never holds a connection: so a
+ * pool with a fixed number of threads keeps answering however many clients are connected</p>
  * @see NetworkSocket
  * @see SocketHandler
  * @see shared.network.Connection
@@ -23,13 +24,13 @@ public class SocketServer implements AutoCloseable, Runnable {
     private ServerSocket socketConsumer;
     private Integer port;
     private ExecutorService pool;
-    private Map<String, Object> exportedObjects;
+    private PacketDispatcher packets;
     private boolean runForever = true;
 
-    SocketServer(Integer port, Map<String, Object> objects) {
+    SocketServer(Integer port, Map<String, Object> objects, ExecutorService pool) {
         this.port = port;
-        this.pool = Executors.newCachedThreadPool();
-        this.exportedObjects = objects;
+        this.pool = pool;
+        this.packets = new PacketDispatcher(objects);
         prepareConnection();
     }
 
@@ -58,8 +59,11 @@ public class SocketServer implements AutoCloseable, Runnable {
             final Socket client = acceptConnection();
             if (Thread.currentThread().isInterrupted()) {
                 close();
-            } else {
-                pool.submit(new SocketHandler(client, exportedObjects));
+            } else if (client != null) {
+                Thread handler = new Thread(new SocketHandler(client, packets, pool),
+                        "socket-connection-" + client.getRemoteSocketAddress());
+                handler.setDaemon(true);
+                handler.start();
             }
         } while (runForever);
     }
@@ -0,0 +1,189 @@
+package ServerTest;
+
+import org.junit.jupiter.api.Test;
+import shared.Cell;
+import shared.Dice;
+import shared.Position;
+import shared.PositionR;
+import shared.TransferObjects.GameManagerT;
+import shared.TransferObjects.PlayerT;
+import shared.TransferObjects.ToolCT;
+import shared.TransferObjects.WindowT;
+import shared.network.socket.BinaryCodec;
+import shared.network.socket.PacketCodec;
+import shared.network.socket.SerialCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * compares the binary codec of the sockets with the java serialization, on the objects sent during a match;
+ * their speed is measured by benchmarks.CodecBenchmark
+ */
+public class CodecTest {
+
+    private static final char[] COLORS = {'r', 'y', 'g', 'b', 'p'};
+
+    private Random random = new Random(2018);
+
+    private byte[] encode(PacketCodec codec, Object o) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try {
+            codec.encode(o, baos);
+        } catch (IOException ioe) {
+            fail(ioe.getMessage());
+        }
+        return baos.toByteArray();
+    }
+
+    private Object decode(PacketCodec codec, byte[] bytes) {
+        try {
+            return codec.decode(new ByteArrayInputStream(bytes));
+        } catch (IOException | ClassNotFoundException e) {
+            fail(e.getMessage());
+            return null;
+        }
+    }
+
+    private Dice dice() {
+        return new Dice(COLORS[random.nextInt(COLORS.length)], random.nextInt(6) + 1);
+    }
+
+    private Cell cell() {
+        switch (random.nextInt(3)) {
+            case 0:
+                return new Cell(random.nextInt(6) + 1);
+            case 1:
+                return new Cell(COLORS[random.nextInt(COLORS.length)]);
+            default:
+                return new Cell();
+        }
+    }
+
+    private PlayerT player(int i) {
+        Cell[][] cells = new Cell[4][5];
+        Dice[][] overlay = new Dice[4][5];
+        for (int r = 0; r < 4; r++)
+            for (int c = 0; c < 5; c++) {
+                cells[r][c] = cell();
+                if (random.nextBoolean())
+                    overlay[r][c] = dice();
+            }
+        return new PlayerT("player" + i, COLORS[i], new WindowT("Window " + i, cells), overlay,
+                3, i, 0, 1, new Position(1, 2));
+    }
+
+    private GameManagerT game() {
+        List<PlayerT> players = new ArrayList<>();
+        List<String> online = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            players.add(player(i));
+            online.add("player" + i);
+        }
+        List<ToolCT> tools = Arrays.asList(new ToolCT("tool1", 1), new ToolCT("tool6", 2), new ToolCT("tool11", 1));
+        List<ArrayList<Dice>> roundTrack = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ArrayList<Dice> round = new ArrayList<>();
+            round.add(dice());
+            round.add(dice());
+            roundTrack.add(round);
+        }
+        List<Dice> pool = new ArrayList<>();
+        for (int i = 0; i < 9; i++)
+            pool.add(i == 4 ? null : dice());
+        return new GameManagerT(players, Arrays.asList("pub1", "pub5", "pub10"), tools, roundTrack, pool,
+                online, new ArrayList<>(), 2);
+    }
+
+    private void assertSameGame(GameManagerT expected, GameManagerT actual) {
+        assertEquals(expected.pos, actual.pos);
+        assertEquals(expected.publicOCs, actual.publicOCs);
+        assertEquals(expected.online, actual.online);
+        assertEquals(expected.offline, actual.offline);
+        assertEquals(expected.pool, actual.pool);
+        assertEquals(expected.roundTrack, actual.roundTrack);
+        assertEquals(expected.toolCards.size(), actual.toolCards.size());
+        for (int i = 0; i < expected.toolCards.size(); i++) {
+            assertEquals(expected.toolCards.get(i).name, actual.toolCards.get(i).name);
+            assertEquals(expected.toolCards.get(i).tokensRequired, actual.toolCards.get(i).tokensRequired);
+        }
+        assertEquals(expected.vPlayers.size(), actual.vPlayers.size());
+        for (int i = 0; i < expected.vPlayers.size(); i++) {
+            PlayerT e = expected.vPlayers.get(i);
+            PlayerT a = actual.vPlayers.get(i);
+            assertEquals(e.nickName, a.nickName);
+            assertEquals(e.privateO, a.privateO);
+            assertEquals(e.tokens, a.tokens);
+            assertEquals(e.turno, a.turno);
+            assertEquals(e.score, a.score);
+            assertEquals(e.privateTurn, a.privateTurn);
+            assertEquals(e.lastPlaced, a.lastPlaced);
+            assertEquals(e.window.name, a.window.name);
+            for (int r = 0; r < e.overlay.length; r++) {
+                assertArrayEquals(e.overlay[r], a.overlay[r]);
+                for (int c = 0; c < e.window.cells[r].length; c++) {
+                    assertEquals(e.window.cells[r][c].getValue(), a.window.cells[r][c].getValue());
+                    assertEquals(e.window.cells[r][c].getColor(), a.window.cells[r][c].getColor());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void roundTrip() {
+        PacketCodec codec = BinaryCodec.getInstance();
+        GameManagerT game = game();
+        assertSameGame(game, (GameManagerT) decode(codec, encode(codec, game)));
+
+        Object[] args = {"player1", new Dice('r', 3), new Position(14, null), new PositionR(2, 1),
+                -7, true, 'y', null, new ArrayList<>(Arrays.asList(1, 2, 3)), new java.util.Date(0)};
+        Object[] back = (Object[]) decode(codec, encode(codec, args));
+        assertEquals(args.length, back.length);
+        assertEquals(args[0], back[0]);
+        assertEquals(args[1], back[1]);
+        assertEquals(14, ((Position) back[2]).getRow().intValue());
+        assertNull(((Position) back[2]).getColumn());
+        assertEquals(2, ((PositionR) back[3]).getColumn().intValue());
+        assertEquals(1, ((PositionR) back[3]).getHeight().intValue());
+        assertEquals(args[4], back[4]);
+        assertEquals(args[5], back[5]);
+        assertEquals(args[6], back[6]);
+        assertNull(back[7]);
+        assertEquals(args[8], back[8]);
+        assertEquals(args[9], back[9]);
+    }
+
+    @Test
+    public void interned() {
+        Object[] values = {Dice.of('g', 5), Position.of(3, 4), Position.of(-1, -1), Cell.of('v'), Cell.of(2), Cell.of()};
+        for (PacketCodec codec : new PacketCodec[]{BinaryCodec.getInstance(), SerialCodec.getInstance()}) {
+            Object[] back = (Object[]) decode(codec, encode(codec, values));
+            for (int i = 0; i < values.length; i++)
+                assertSame(values[i], back[i]);
+        }
+        assertSame(Dice.of('g', 5), Dice.of('g', 2).withValue(5));
+        assertEquals(new Dice('g', 5), Dice.of('g', 5));
+        assertNotSame(Dice.of('p', 5), Dice.of('p', 5));
+        assertNotSame(Position.of(7, 0), Position.of(7, 0));
+        assertEquals(Position.of(7, 0), Position.of(7, 0));
+        assertSame(Cell.of(3, null), Cell.of(3));
+    }
+
+    @Test
+    public void comparison() {
+        GameManagerT game = game();
+        Object[] move = {"player1", 3, new Position(2, 4)};
+        for (Object o : new Object[]{game, move}) {
+            byte[] serial = encode(SerialCodec.getInstance(), o);
+            byte[] binary = encode(BinaryCodec.getInstance(), o);
+            assertTrue(binary.length < serial.length);
+        }
+    }
+}
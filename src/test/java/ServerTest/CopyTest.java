@@ -0,0 +1,103 @@
+package ServerTest;
+
+import org.junit.jupiter.api.Test;
+import server.Overlay;
+import server.Pool;
+import server.RoundTrack;
+import shared.Dice;
+import shared.Packed;
+import shared.Position;
+import shared.PositionR;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * checks that the copies of overlays, pools and round tracks hold the same dices as the originals,
+ * with the same packed cells and legality masks, and that neither one changes when the other does
+ */
+public class CopyTest {
+
+    private static final String COLORS = "rgbyv";
+
+    @Test
+    public void overlay() {
+        Random rand = new Random(21);
+        for (int round = 0; round < 100; round++) {
+            Overlay overlay = new Overlay();
+            for (int step = 0; step < 12; step++) {
+                Position position = new Position(rand.nextInt(4), rand.nextInt(5));
+                if (rand.nextInt(5) == 0)
+                    overlay.getDicePositions()[position.getRow()][position.getColumn()] = randomDice(rand);
+                else
+                    overlay.setDicePosition(randomDice(rand), position);
+            }
+            if (rand.nextBoolean())
+                overlay.getLegality().getBusy();
+
+            Overlay copy = new Overlay(overlay);
+            assertSame(overlay, sameCells(overlay, copy));
+
+            Position position = new Position(rand.nextInt(4), rand.nextInt(5));
+            Dice before = overlay.getDice(position);
+            Dice placed = randomDice(rand);
+            copy.setDicePosition(placed, position);
+            assertEquals(before, overlay.getDice(position));
+            assertEquals(placed, copy.getDice(position));
+            copy.getDicePositions()[position.getRow()][position.getColumn()] = null;
+            assertEquals(before, overlay.getDice(position));
+            assertSame(copy, sameCells(copy, new Overlay(copy)));
+        }
+    }
+
+    @Test
+    public void poolAndRoundTrack() {
+        Pool pool = new Pool();
+        RoundTrack roundTrack = new RoundTrack();
+        for (int i = 0; i < 9; i++) {
+            pool.addDice(new Dice(COLORS.charAt(i % 5), 1 + i % 6));
+            roundTrack.addDice(new Dice(COLORS.charAt(i % 5), 6 - i % 6), i % 4);
+        }
+        pool.setDice(3, null);
+
+        Pool poolCopy = new Pool(pool);
+        RoundTrack roundTrackCopy = new RoundTrack(roundTrack);
+        assertEquals(pool.getDices(), poolCopy.getDices());
+        assertEquals(roundTrack.getDices(), roundTrackCopy.getDices());
+
+        poolCopy.flip(0);
+        poolCopy.remove(poolCopy.getDice(1));
+        roundTrackCopy.setDice(Dice.of('r', 1), new PositionR(0, 0));
+        roundTrackCopy.addDice(new Dice('r', 1), 9);
+        assertEquals(9, pool.getDices().size());
+        assertEquals(new Dice('r', 1), pool.getDice(0));
+        assertEquals(new Dice('r', 6), roundTrack.getDice(new PositionR(0, 0)));
+        assertTrue(roundTrack.getDices().get(9).isEmpty());
+    }
+
+    /**
+     * @return the first overlay, after checking that it holds the same dices as the second one, with the same
+     * packed cells and masks
+     */
+    private static Overlay sameCells(Overlay overlay, Overlay copy) {
+        for (int cell = 0; cell < 20; cell++) {
+            Position position = new Position(cell / 5, cell % 5);
+            assertSame(overlay.getDice(position), copy.getDice(position));
+            assertEquals(overlay.getPacked(cell), copy.getPacked(cell));
+            assertEquals(Packed.pack(copy.getDice(position)), copy.getPacked(cell));
+        }
+        assertEquals(overlay.getLegality().getBusy(), copy.getLegality().getBusy());
+        assertEquals(overlay.getLegality().getAround(), copy.getLegality().getAround());
+        for (int color = 0; color < 5; color++)
+            for (int shade = 1; shade <= 6; shade++) {
+                byte dice = Packed.pack(new Dice(COLORS.charAt(color), shade));
+                assertEquals(overlay.getLegality().getConflicts(dice), copy.getLegality().getConflicts(dice));
+            }
+        return overlay;
+    }
+
+    private static Dice randomDice(Random rand) {
+        return new Dice(COLORS.charAt(rand.nextInt(5)), 1 + rand.nextInt(6));
+    }
+}
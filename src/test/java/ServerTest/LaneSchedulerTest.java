@@ -0,0 +1,143 @@
+package ServerTest;
+
+import org.junit.jupiter.api.Test;
+import server.concurrency.LaneScheduler;
+import server.concurrency.LaneScheduler.Lane;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * checks the order of the lanes, the replacement of the queued tasks with the same key, the policies of the full lanes,
+ * the counters of the tasks run and the actions run when a task is done
+ */
+public class LaneSchedulerTest {
+
+    @Test
+    public void lanes() throws Exception {
+        LaneScheduler lanes = new LaneScheduler(1, Executors.defaultThreadFactory());
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch logged = new CountDownLatch(1);
+        List<String> order = new ArrayList<>();
+
+        // the only worker is held, so everything else waits in the lanes
+        lanes.execute(Lane.MOVE, () -> {
+            started.countDown();
+            try {
+                blocked.await();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(1, lanes.getActive(Lane.MOVE));
+
+        lanes.execute(Lane.LOG, () -> {
+            order.add("log");
+            logged.countDown();
+        });
+        Future<String> ping = lanes.submit(Lane.PING, "ping:a", () -> "first ping");
+        Future<String> view = lanes.submit(Lane.VIEW, "view:a", () -> "old view");
+        Future<String> newer = lanes.submit(Lane.VIEW, "view:a", () -> {
+            order.add("view");
+            return "new view";
+        });
+        lanes.execute(Lane.MOVE, () -> order.add("move"));
+        assertSame(view, newer);
+        assertEquals(1, lanes.getCoalesced(Lane.VIEW));
+        assertEquals(1, lanes.getDepth(Lane.VIEW));
+
+        // a full ping lane drops its oldest task
+        List<Future<String>> pings = new ArrayList<>();
+        for (int i = 0; i < Lane.PING.getCapacity(); i++) {
+            int n = i;
+            pings.add(lanes.submit(Lane.PING, "ping:" + i, () -> "ping " + n));
+        }
+        assertEquals(1, lanes.getDropped(Lane.PING));
+        assertEquals(Lane.PING.getCapacity(), lanes.getDepth(Lane.PING));
+        try {
+            ping.get();
+            fail("the oldest ping should have been dropped");
+        } catch (CancellationException ce) {
+            // expected
+        }
+
+        blocked.countDown();
+        assertEquals("new view", view.get(5, TimeUnit.SECONDS));
+        assertEquals("ping " + (Lane.PING.getCapacity() - 1), pings.get(pings.size() - 1).get(5, TimeUnit.SECONDS));
+        assertTrue(logged.await(5, TimeUnit.SECONDS));
+        lanes.shutdown();
+
+        assertEquals("move", order.get(0));
+        assertEquals("view", order.get(1));
+        assertEquals("log", order.get(2));
+        assertEquals(2, lanes.getCompleted(Lane.MOVE));
+        assertEquals(0, lanes.getActive(Lane.MOVE));
+    }
+
+    @Test
+    public void callerRuns() throws Exception {
+        LaneScheduler lanes = new LaneScheduler(1, Executors.defaultThreadFactory());
+        CountDownLatch blocked = new CountDownLatch(1);
+        lanes.execute(Lane.MOVE, () -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Thread.sleep(50);
+        for (int i = 0; i < Lane.MOVE.getCapacity(); i++)
+            lanes.execute(Lane.MOVE, () -> {
+            });
+        Thread caller = Thread.currentThread();
+        Future<Thread> overflow = lanes.submit(Lane.MOVE, null, Thread::currentThread);
+        assertTrue(overflow.isDone());
+        assertSame(caller, overflow.get());
+        assertEquals(1, lanes.getCallerRuns(Lane.MOVE));
+        blocked.countDown();
+        lanes.shutdown();
+    }
+
+    @Test
+    public void whenDone() throws Exception {
+        LaneScheduler lanes = new LaneScheduler(1, Executors.defaultThreadFactory());
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+        List<String> actions = new CopyOnWriteArrayList<>();
+
+        LaneScheduler.Call<String> held = lanes.submit(Lane.MOVE, null, () -> {
+            blocked.await();
+            return "held";
+        });
+        held.whenDone(() -> {
+            actions.add("held");
+            done.countDown();
+        });
+        // the actions of a task dropped while queued run too, without waiting for the worker
+        LaneScheduler.Call<String> ping = lanes.submit(Lane.PING, "ping:a", () -> "first ping");
+        ping.whenDone(() -> actions.add("dropped"));
+        for (int i = 0; i < Lane.PING.getCapacity(); i++)
+            lanes.submit(Lane.PING, "ping:" + i, () -> "ping");
+        assertTrue(ping.isCancelled());
+        assertEquals(1, actions.size());
+        assertEquals("dropped", actions.get(0));
+
+        blocked.countDown();
+        assertEquals("held", held.get(5, TimeUnit.SECONDS));
+        // an action added to a task already done runs at once
+        held.whenDone(done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals("held", actions.get(1));
+        lanes.shutdown();
+    }
+}
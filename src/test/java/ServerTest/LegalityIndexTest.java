@@ -0,0 +1,175 @@
+package ServerTest;
+
+import org.junit.jupiter.api.Test;
+import server.LegalityIndex;
+import server.Overlay;
+import server.Window;
+import shared.Cell;
+import shared.Dice;
+import shared.Packed;
+import shared.Position;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * checks that the masks of the legality index give the same answer as the checks the window did
+ * cell by cell, on random windows and overlays, while dices are placed and removed,
+ * and that the packed cells always follow the matrices
+ */
+public class LegalityIndexTest {
+
+    private static final String COLORS = "rgbyv";
+
+    @Test
+    public void sameAsCellByCell() {
+        Random rand = new Random(2018);
+        for (int round = 0; round < 200; round++) {
+            Cell[][] cells = new Cell[4][5];
+            for (int r = 0; r < 4; r++)
+                for (int c = 0; c < 5; c++)
+                    cells[r][c] = randomCell(rand);
+            Window window = new Window(cells, "random", 3);
+            Overlay overlay = new Overlay();
+
+            for (int step = 0; step < 30; step++) {
+                Position position = new Position(rand.nextInt(4), rand.nextInt(5));
+                if (rand.nextInt(4) == 0)
+                    overlay.setDicePosition(null, position);
+                else if (overlay.validateEmpty(position))
+                    overlay.setDicePosition(randomDice(rand), position);
+
+                Dice dice = randomDice(rand);
+                boolean firstTurn = rand.nextInt(5) == 0;
+                for (int r = 0; r < 4; r++) {
+                    for (int c = 0; c < 5; c++) {
+                        Position p = new Position(r, c);
+                        int bit = LegalityIndex.bit(p);
+                        assertEquals(check(window, overlay, firstTurn, dice, p, true, true),
+                                (window.legalCells(overlay, firstTurn, dice, true, true) & bit) != 0);
+                        assertEquals(check(window, overlay, firstTurn, dice, p, true, false),
+                                (window.legalCells(overlay, firstTurn, dice, true, false) & bit) != 0);
+                        assertEquals(check(window, overlay, firstTurn, dice, p, false, true),
+                                (window.legalCells(overlay, firstTurn, dice, false, true) & bit) != 0);
+                        assertEquals(checkAlone(window, overlay, firstTurn, dice, p),
+                                (window.aloneCells(overlay, firstTurn, dice) & bit) != 0);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void matrixChangedByCaller() {
+        Cell[][] cells = new Cell[4][5];
+        for (int r = 0; r < 4; r++)
+            for (int c = 0; c < 5; c++)
+                cells[r][c] = new Cell();
+        Window window = new Window(cells, "blank", 3);
+        Overlay overlay = new Overlay();
+        overlay.setDicePosition(new Dice('r', 3), new Position(0, 0));
+        Dice red = new Dice('r', 5);
+
+        assertEquals(0, window.legalCells(overlay, false, red, true, true) & LegalityIndex.bit(0, 1));
+        overlay.copyDicePositions()[0][0] = new Dice('g', 3);
+        assertEquals(new Dice('r', 3), overlay.getDice(new Position(0, 0)));
+        assertEquals(0, window.legalCells(overlay, false, red, true, true) & LegalityIndex.bit(0, 1));
+        overlay.getDicePositions()[0][0] = new Dice('g', 3);
+        assertNotEquals(0, window.legalCells(overlay, false, red, true, true) & LegalityIndex.bit(0, 1));
+        window.getMatrices()[0][1] = new Cell('g');
+        assertEquals(0, window.legalCells(overlay, false, red, true, true) & LegalityIndex.bit(0, 1));
+    }
+
+    @Test
+    public void packedCells() {
+        Random rand = new Random(15);
+        Overlay overlay = new Overlay();
+        for (int step = 0; step < 500; step++) {
+            Position position = new Position(rand.nextInt(4), rand.nextInt(5));
+            Dice dice = rand.nextInt(3) == 0 ? null : randomDice(rand);
+            if (rand.nextBoolean())
+                overlay.setDicePosition(dice, position);
+            else
+                overlay.getDicePositions()[position.getRow()][position.getColumn()] = dice;
+            for (int cell = 0; cell < 20; cell++) {
+                Dice placed = overlay.getDice(new Position(cell / 5, cell % 5));
+                assertEquals(Packed.pack(placed), overlay.getPacked(cell));
+                assertEquals(placed, Packed.unpack(overlay.getPacked(cell)));
+            }
+        }
+
+        Cell[][] cells = new Cell[4][5];
+        for (int r = 0; r < 4; r++)
+            for (int c = 0; c < 5; c++)
+                cells[r][c] = randomCell(rand);
+        Window window = new Window(cells, "random", 3);
+        for (int cell = 0; cell < 20; cell++) {
+            Cell expected = cells[cell / 5][cell % 5];
+            byte packed = window.getPacked(cell);
+            assertEquals(expected.getColor() == null ? -1 : COLORS.indexOf(expected.getColor()), Packed.color(packed));
+            assertEquals(expected.getValue() == null ? 0 : (int) expected.getValue(), Packed.shade(packed));
+        }
+    }
+
+    private static Cell randomCell(Random rand) {
+        switch (rand.nextInt(3)) {
+            case 0:
+                return new Cell(COLORS.charAt(rand.nextInt(5)));
+            case 1:
+                return new Cell(1 + rand.nextInt(6));
+            default:
+                return new Cell();
+        }
+    }
+
+    private static Dice randomDice(Random rand) {
+        return new Dice(COLORS.charAt(rand.nextInt(5)), 1 + rand.nextInt(6));
+    }
+
+    /**
+     * the checks of the window before the legality index
+     */
+    private static boolean check(Window window, Overlay overlay, boolean firstTurn, Dice dice, Position position,
+                                 boolean color, boolean shade) {
+        boolean near = firstTurn ? edge(position) : sideBySide(overlay, position, dice) && adjacentToAny(overlay, position);
+        return near && (!color || colorOk(window, dice, position)) && (!shade || shadeOk(window, dice, position));
+    }
+
+    private static boolean checkAlone(Window window, Overlay overlay, boolean firstTurn, Dice dice, Position position) {
+        boolean free = firstTurn ? edge(position) : !adjacentToAny(overlay, position);
+        return free && colorOk(window, dice, position) && shadeOk(window, dice, position);
+    }
+
+    private static boolean edge(Position p) {
+        return p.getRow() == 0 || p.getRow() == 3 || p.getColumn() == 0 || p.getColumn() == 4;
+    }
+
+    private static boolean sideBySide(Overlay overlay, Position p, Dice dice) {
+        int[][] near = {{0, -1}, {-1, 0}, {0, 1}, {1, 0}};
+        for (int[] d : near) {
+            Position adj = new Position(p.getRow() + d[0], p.getColumn() + d[1]);
+            if (overlay.validateBusy(adj) && dice.isCloseTo(overlay.getDice(adj)))
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean adjacentToAny(Overlay overlay, Position p) {
+        for (int dr = -1; dr <= 1; dr++)
+            for (int dc = -1; dc <= 1; dc++)
+                if ((dr != 0 || dc != 0) && overlay.validateBusy(new Position(p.getRow() + dr, p.getColumn() + dc)))
+                    return true;
+        return false;
+    }
+
+    private static boolean colorOk(Window window, Dice dice, Position p) {
+        Cell cell = window.getCell(p);
+        return cell.getColor() == null || dice.getColor().equals(cell.getColor());
+    }
+
+    private static boolean shadeOk(Window window, Dice dice, Position p) {
+        Cell cell = window.getCell(p);
+        return cell.getValue() == null || dice.getValue().equals(cell.getValue());
+    }
+}
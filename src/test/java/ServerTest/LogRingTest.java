@@ -0,0 +1,78 @@
+package ServerTest;
+
+import org.junit.jupiter.api.Test;
+import shared.logging.Level;
+import shared.logging.LogRing;
+import shared.logging.LogSink;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * checks that the ring writes every event logged by many threads at once, each thread's events in order,
+ * also when it is so small that some of them are written by the threads logging them
+ */
+public class LogRingTest {
+
+    private static class Lines implements LogSink {
+        private final StringBuilder text = new StringBuilder();
+
+        @Override
+        public synchronized void write(CharSequence lines) {
+            text.append(lines);
+        }
+
+        @Override
+        public void flush() {}
+
+        synchronized String[] get() {
+            return text.toString().split(System.lineSeparator());
+        }
+    }
+
+    @Test
+    public void concurrentEvents() throws Exception {
+        for (int capacity : new int[]{4096, 4}) {
+            Lines sink = new Lines();
+            LogRing ring = new LogRing(capacity, sink);
+            int threads = 6;
+            int events = 2000;
+            CountDownLatch done = new CountDownLatch(threads);
+            for (int t = 0; t < threads; t++) {
+                String tag = "T" + t;
+                new Thread(() -> {
+                    for (int i = 0; i < events; i++)
+                        ring.offer(i % 2 == 0 ? Level.INFO : Level.WARN, tag, i, null);
+                    done.countDown();
+                }).start();
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            ring.flush(5000);
+
+            String[] lines = sink.get();
+            assertEquals(threads * events, lines.length);
+            List<List<Integer>> seen = new ArrayList<>();
+            for (int t = 0; t < threads; t++)
+                seen.add(new ArrayList<>());
+            for (String line : lines) {
+                assertTrue(line, line.matches("\\[\\d\\d:\\d\\d:\\d\\d\\.\\d\\d] >> (WARN )?T\\d \\d+"));
+                String[] words = line.split(" ");
+                int i = Integer.parseInt(words[words.length - 1]);
+                assertEquals(i % 2 == 1, line.contains("WARN"));
+                seen.get(words[words.length - 2].charAt(1) - '0').add(i);
+            }
+            if (capacity > threads * events) {
+                for (List<Integer> one : seen)
+                    for (int i = 0; i < events; i++)
+                        assertEquals(i, (int) one.get(i));
+            } else {
+                for (List<Integer> one : seen)
+                    assertEquals(events, one.size());
+            }
+        }
+    }
+}
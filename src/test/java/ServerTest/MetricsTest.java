@@ -0,0 +1,80 @@
+package ServerTest;
+
+import org.junit.jupiter.api.Test;
+import shared.metrics.Histogram;
+import shared.metrics.Meter;
+import shared.metrics.Metrics;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * checks that the percentiles of the histogram stay within its precision from the exact ones,
+ * and that the meters do not lose the events recorded by many threads at once
+ */
+public class MetricsTest {
+
+    @Test
+    public void percentiles() {
+        Random rand = new Random(19);
+        Histogram histogram = new Histogram();
+        long[] values = new long[20000];
+        for (int i = 0; i < values.length; i++) {
+            // latencies from a microsecond to about a second
+            values[i] = (long) Math.pow(10, 3 + rand.nextDouble() * 6);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertEquals(values.length, histogram.getCount());
+        assertEquals(values[values.length - 1], histogram.getMax());
+        for (double q : new double[]{0.01, 0.5, 0.9, 0.99, 0.999, 1}) {
+            long exact = values[(int) Math.ceil(q * values.length) - 1];
+            long estimate = histogram.getPercentile(q);
+            assertTrue(q + ": " + estimate + " below " + exact, estimate >= exact);
+            assertTrue(q + ": " + estimate + " too far from " + exact, estimate <= exact * 1.04);
+        }
+
+        Histogram small = new Histogram();
+        assertEquals(0, small.getPercentile(0.5));
+        for (long v = 0; v < 32; v++)
+            small.record(v);
+        small.record(-5);
+        small.record(Long.MAX_VALUE);
+        assertEquals(15, small.getPercentile(0.5));
+        assertEquals(Long.MAX_VALUE, small.getPercentile(1));
+    }
+
+    @Test
+    public void concurrentMeters() throws Exception {
+        Meter meter = Metrics.meter("test.concurrent");
+        assertSame(meter, Metrics.meter("test.concurrent"));
+        int threads = 8;
+        int events = 10000;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < events; i++) {
+                    meter.record(i);
+                    meter.bytes(1, 2);
+                    if (i % 10 == 0)
+                        meter.error();
+                }
+                done.countDown();
+            }).start();
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        assertEquals(threads * events, meter.getCalls());
+        assertEquals(threads * events, meter.getLatency().getCount());
+        assertEquals(threads * events / 10, meter.getErrors());
+        assertEquals(threads * events, meter.getBytesIn());
+        assertEquals(2 * threads * events, meter.getBytesOut());
+        assertEquals(events - 1, meter.getLatency().getMax());
+        assertTrue(Metrics.dump().contains("test.concurrent"));
+    }
+}
@@ -0,0 +1,361 @@
+package ServerTest;
+
+import org.junit.jupiter.api.Test;
+import server.Overlay;
+import server.executables.PublicObject;
+import shared.Dice;
+import shared.Position;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * checks that the public objective cards score exactly as the versions based on sets and lists did,
+ * on random overlays: sparse, full, and full of rows and columns made of different colors or shades
+ */
+public class PublicObjectTest {
+
+    private static final String COLORS = "rgbyv";
+
+    @Test
+    public void sameAsBefore() {
+        Random rand = new Random(2016);
+        for (int round = 0; round < 20000; round++) {
+            Overlay overlay = new Overlay();
+            Dice[][] dices = new Dice[4][5];
+            double density = round % 4 == 0 ? 1 : rand.nextDouble();
+            int shape = rand.nextInt(4);
+            for (int r = 0; r < 4; r++) {
+                for (int c = 0; c < 5; c++) {
+                    if (rand.nextDouble() >= density)
+                        continue;
+                    Dice dice;
+                    if (shape == 1)
+                        dice = new Dice(COLORS.charAt((r + c) % 5), 1 + (r + 2 * c) % 6);
+                    else if (shape == 2)
+                        dice = new Dice(COLORS.charAt((c + 2 * r) % 5), 1 + (c + r) % 6);
+                    else
+                        dice = new Dice(COLORS.charAt(rand.nextInt(5)), 1 + rand.nextInt(6));
+                    dices[r][c] = dice;
+                    overlay.setDicePosition(dice, new Position(r, c));
+                }
+            }
+            assertEquals(use1(dices), PublicObject.use1(overlay));
+            assertEquals(use2(dices), PublicObject.use2(overlay));
+            assertEquals(use3(dices), PublicObject.use3(overlay));
+            assertEquals(use4(dices), PublicObject.use4(overlay));
+            assertEquals(use5(dices), PublicObject.use5(overlay));
+            assertEquals(use6(dices), PublicObject.use6(overlay));
+            assertEquals(use7(dices), PublicObject.use7(overlay));
+            assertEquals(use8(dices), PublicObject.use8(overlay));
+            assertEquals(use9(dices), PublicObject.use9(overlay));
+            assertEquals(use10(dices), PublicObject.use10(overlay));
+        }
+    }
+
+    // the cards as they were scored before, on the matrix of dices
+
+    static Integer use1(Dice[][] overlay) {
+        int i = 0;
+        int j = 0;
+        int sum = 0;
+        int esito = 1;
+
+        Dice dice;
+
+        Set<Character> colors = new HashSet<>();
+
+        while (i < 4) {
+            colors.clear();
+            while (j < 5) {
+                dice = overlay[i][j];
+                if (dice == null || !colors.add(dice.getColor()))
+                    esito = 0;
+                j++;
+            }
+            j = 0;
+            i++;
+            if (esito == 1)
+                sum = sum + 6;
+            esito = 1;
+        }
+        return sum;
+    }
+
+    static Integer use2(Dice[][] overlay) {
+        int i = 0;
+        int j = 0;
+        int sum = 0;
+        int esito = 1;
+
+        Dice dice;
+
+        Set<Character> colors = new HashSet<>();
+
+        while (i < 5) {
+            colors.clear();
+            while (j < 4) {
+                dice = overlay[j][i];
+                if (dice == null || !colors.add(dice.getColor()))
+                    esito = 0;
+                j++;
+            }
+            j = 0;
+            i++;
+            if (esito == 1)
+                sum = sum + 5;
+            esito = 1;
+        }
+        return sum;
+    }
+
+    static Integer use3(Dice[][] overlay) {
+        int i = 0;
+        int j = 0;
+        int sum = 0;
+        int esito = 1;
+
+        Dice dice;
+
+        Set<Integer> numbers = new HashSet<>();
+
+        while (i < 5) {
+            numbers.clear();
+            while (j < 4) {
+                dice = overlay[j][i];
+                if (dice == null || !numbers.add(dice.getValue()))
+                    esito = 0;
+                j++;
+            }
+            j = 0;
+            i++;
+            if (esito == 1)
+                sum = sum + 4;
+            esito = 1;
+        }
+        return sum;
+    }
+
+    static Integer use4(Dice[][] overlay) {
+        int i = 0;
+        int j = 0;
+        int sum = 0;
+        int esito = 1;
+
+        Dice dice;
+
+        Set<Integer> numbers = new HashSet<>();
+
+        while (i < 4) {
+            numbers.clear();
+            while (j < 5) {
+                dice = overlay[i][j];
+                if (dice == null || !numbers.add(dice.getValue()))
+                    esito = 0;
+                j++;
+            }
+            j = 0;
+            i++;
+            if (esito == 1)
+                sum = sum + 5;
+            esito = 1;
+        }
+        return sum;
+    }
+
+    static Integer use5(Dice[][] overlay) {
+        int i = 0;
+        int j = 0;
+        int sum = 0;
+
+        Dice dice;
+        Set<Character> colors1 = new HashSet<>();
+        Set<Character> colors2 = new HashSet<>();
+        Set<Character> colors3 = new HashSet<>();
+        Set<Character> colors4 = new HashSet<>();
+
+        while (i < 4) {
+            while (j < 5) {
+                dice = overlay[i][j];
+                if (dice != null)
+                    if (!colors1.add(dice.getColor()))
+                        if (!colors2.add(dice.getColor()))
+                            if (!colors3.add(dice.getColor()))
+                                colors4.add(dice.getColor());
+                j++;
+            }
+            j = 0;
+            i++;
+        }
+
+        if (colors1.size() == 5)
+            sum = sum + 4;
+        if (colors2.size() == 5)
+            sum = sum + 4;
+        if (colors3.size() == 5)
+            sum = sum + 4;
+        if (colors4.size() == 5)
+            sum = sum + 4;
+
+        return sum;
+    }
+
+    static Integer use6(Dice[][] overlay) {
+        int i = 0;
+        int j = 0;
+        int sum = 0;
+
+        Dice dice;
+        Set<Integer> shades1 = new HashSet<>();
+        Set<Integer> shades2 = new HashSet<>();
+        Set<Integer> shades3 = new HashSet<>();
+        Set<Integer> shades4 = new HashSet<>();
+
+        while (i < 4) {
+            while (j < 5) {
+                dice = overlay[i][j];
+                if (dice != null)
+                    if (!shades1.add(dice.getValue()))
+                        if (!shades2.add(dice.getValue()))
+                            if (!shades3.add(dice.getValue()))
+                                shades4.add(dice.getValue());
+                j++;
+            }
+            j = 0;
+            i++;
+        }
+
+        if (shades1.size() == 6)
+            sum = sum + 5;
+        if (shades2.size() == 6)
+            sum = sum + 5;
+        if (shades3.size() == 6)
+            sum = sum + 5;
+        if (shades4.size() == 6)
+            sum = sum + 5;
+
+        return sum;
+    }
+
+    static Integer use7(Dice[][] overlay) {
+        int i = 0;
+        int j = 0;
+
+        Dice dice;
+        ArrayList<Boolean> shades5 = new ArrayList<>();
+        ArrayList<Boolean> shades6 = new ArrayList<>();
+
+        while (i < 4) {
+            while (j < 5) {
+                dice = overlay[i][j];
+                if (dice != null)
+                    if (dice.getValue().equals(5))
+                        shades5.add(true);
+                    else if (dice.getValue().equals(6))
+                        shades6.add(true);
+                j++;
+            }
+            j = 0;
+            i++;
+        }
+
+        shades5.trimToSize();
+        shades6.trimToSize();
+
+        return Math.min(shades5.size(), shades6.size()) * 2;
+    }
+
+    static Integer use8(Dice[][] overlay) {
+        int i = 0;
+        int j = 0;
+
+        Dice dice;
+        ArrayList<Boolean> shades3 = new ArrayList<>();
+        ArrayList<Boolean> shades4 = new ArrayList<>();
+
+        while (i < 4) {
+            while (j < 5) {
+                dice = overlay[i][j];
+                if (dice != null)
+                    if (dice.getValue().equals(3))
+                        shades3.add(true);
+                    else if (dice.getValue().equals(4))
+                        shades4.add(true);
+                j++;
+            }
+            j = 0;
+            i++;
+        }
+
+        shades3.trimToSize();
+        shades4.trimToSize();
+
+        return Math.min(shades3.size(), shades4.size()) * 2;
+    }
+
+    static Integer use9(Dice[][] overlay) {
+        int i = 0;
+        int j = 0;
+
+        Dice dice;
+        ArrayList<Boolean> shades1 = new ArrayList<>();
+        ArrayList<Boolean> shades2 = new ArrayList<>();
+
+        while (i < 4) {
+            while (j < 5) {
+                dice = overlay[i][j];
+                if (dice != null)
+                    if (dice.getValue().equals(1))
+                        shades1.add(true);
+                    else if (dice.getValue().equals(2))
+                        shades2.add(true);
+                j++;
+            }
+            j = 0;
+            i++;
+        }
+
+        shades1.trimToSize();
+        shades2.trimToSize();
+
+        return Math.min(shades1.size(), shades2.size()) * 2;
+    }
+
+    static Integer use10(Dice[][] overlay) {
+        Dice[][] dices = new Dice[4][];
+        for (int r = 0; r < 4; r++)
+            dices[r] = overlay[r].clone();
+        int i = 0;
+        int j;
+        int sum = 0;
+        while (i < 4) {
+            j = 0;
+            while (j < 5) {
+                sum = sum + computate(dices, 'a', i, j);
+                j++;
+            }
+            i++;
+        }
+        return sum;
+    }
+
+    private static Integer computate(Dice[][] dices, Character color,
+                                     Integer r, Integer c) {
+
+        if (r > 3 || r < 0 || c > 4 || c < 0)
+            return 0;
+        if (dices[r][c] == null)
+            return 0;
+        if (!dices[r][c].getColor().equals(color))
+            return computate(dices, dices[r][c].getColor(), r, c);
+        dices[r][c] = null;
+        return 1 + computate(dices, color, r - 1, c - 1) +
+                computate(dices, color, r - 1, c + 1) +
+                computate(dices, color, r + 1, c + 1) +
+                computate(dices, color, r + 1, c - 1);
+    }
+}
@@ -0,0 +1,89 @@
+package ServerTest;
+
+import org.junit.jupiter.api.Test;
+import server.SReferences;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * checks the registry of the clients, and that only one of the clients joining at the same time gets a nickname
+ */
+public class SReferencesTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    public void sessions() {
+        assertTrue(SReferences.addUuidRefEnhanced("ref-a"));
+        assertFalse(SReferences.addUuidRefEnhanced("ref-a"));
+        SReferences.addNickNameRef("ref-a", "alice");
+        SReferences.addPortRef("ref-a", 1099);
+        SReferences.addIsSocketRef("ref-a", true);
+        assertEquals("alice", SReferences.getNickNameRef("ref-a"));
+        assertEquals(Integer.valueOf(1099), SReferences.getPortRef("ref-a"));
+        assertTrue(SReferences.getIsSocketRef("ref-a"));
+        assertNull(SReferences.getIpRef("ref-a"));
+        assertNull(SReferences.getNickNameRef("ref-missing"));
+
+        List<String> queue = Arrays.asList("ref-b", "ref-a");
+        assertFalse(SReferences.checkNickNameRef("alice", queue));
+        assertTrue(SReferences.checkNickNameRef("alice", Arrays.asList("ref-b")));
+        assertTrue(SReferences.checkNickNameRef("bob", queue));
+
+        SReferences.addNickNameRef("ref-a", "bob");
+        assertTrue(SReferences.checkNickNameRef("alice", queue));
+        assertFalse(SReferences.checkNickNameRef("bob", queue));
+
+        SReferences.removeRef("ref-a");
+        SReferences.removeRef("ref-a");
+        assertFalse(SReferences.contains("ref-a"));
+        assertNull(SReferences.getPortRef("ref-a"));
+        assertTrue(SReferences.checkNickNameRef("bob", queue));
+    }
+
+    /**
+     * the clients joining at the same time with the same nickname, as {@link server.MatchManager#startGame} does it:
+     * only one of them gets it
+     */
+    @Test
+    public void concurrentJoin() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int attempt = 0; attempt < 200; attempt++) {
+                CountDownLatch start = new CountDownLatch(1);
+                String nickName = "same" + attempt;
+                List<Future<Boolean>> joins = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    String uuid = "join-" + attempt + "-" + t;
+                    joins.add(pool.submit(() -> {
+                        start.await();
+                        assertTrue(SReferences.addUuidRefEnhanced(uuid));
+                        if (SReferences.reserveNickNameRef(uuid, nickName))
+                            return true;
+                        SReferences.removeRef(uuid);
+                        return false;
+                    }));
+                }
+                start.countDown();
+                int reserved = 0;
+                for (Future<Boolean> join : joins)
+                    if (join.get())
+                        reserved++;
+                assertEquals(1, reserved);
+                for (int t = 0; t < THREADS; t++)
+                    SReferences.removeRef("join-" + attempt + "-" + t);
+                assertFalse(SReferences.contains("join-" + attempt + "-0"));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
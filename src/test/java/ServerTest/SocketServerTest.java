@@ -0,0 +1,58 @@
+package ServerTest;
+
+import org.junit.jupiter.api.Test;
+import shared.network.MethodConnectionException;
+import shared.network.socket.NetworkSocket;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * checks that a socket server whose requests run on a fixed pool keeps answering when more clients than threads are
+ * connected, since the connections are not served by that pool, and that a non blocking server which cannot open
+ * its port is not started
+ */
+public class SocketServerTest {
+
+    private static final int THREADS = 2;
+    private static final int CLIENTS = 6;
+
+    @Test
+    public void moreClientsThanThreads() throws MethodConnectionException {
+        ExecutorService fixed = Executors.newFixedThreadPool(THREADS);
+        NetworkSocket.setServerExecutor(fixed);
+        NetworkSocket.setCallTimeout(3000);
+        List<NetworkSocket> clients = new ArrayList<>();
+        try {
+            NetworkSocket server = new NetworkSocket(0);
+            server.export("pong", "socket-test-ping");
+            // every client opens its connection before any request is sent
+            for (int i = 0; i < CLIENTS; i++)
+                clients.add(new NetworkSocket("localhost", server.getListeningPort()));
+            for (NetworkSocket client : clients)
+                assertEquals("pong", client.getExported("socket-test-ping"));
+        } finally {
+            clients.forEach(NetworkSocket::close);
+            NetworkSocket.setServerExecutor(null);
+            NetworkSocket.setCallTimeout(15000);
+            fixed.shutdownNow();
+        }
+    }
+
+    @Test
+    public void nonBlockingPortTaken() throws IOException {
+        NetworkSocket.setNonBlocking(1, 1);
+        try (ServerSocket taken = new ServerSocket(0)) {
+            NetworkSocket server = new NetworkSocket(taken.getLocalPort());
+            assertNull(server.getListeningPort());
+        } finally {
+            NetworkSocket.setNonBlocking(0, 0);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ServerTest;
+
+import org.junit.jupiter.api.Test;
+import server.concurrency.TimerWheel;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * checks that the timeouts of the wheel run in order, not before their delay, and never after being cancelled
+ */
+public class TimerWheelTest {
+
+    @Test
+    public void timeouts() throws Exception {
+        // a small wheel, so that the longest timeout needs many turns
+        TimerWheel wheel = new TimerWheel("test-wheel", 1, 8, Runnable::run);
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        long start = System.nanoTime();
+        long[] elapsed = new long[3];
+
+        TimerWheel.Timeout cancelled = wheel.schedule(() -> order.add(-1), 20);
+        wheel.schedule(() -> {
+            elapsed[2] = System.nanoTime() - start;
+            order.add(2);
+            done.countDown();
+        }, 90);
+        TimerWheel.Timeout first = wheel.schedule(() -> {
+            elapsed[0] = System.nanoTime() - start;
+            order.add(0);
+            done.countDown();
+        }, 5);
+        wheel.schedule(() -> {
+            elapsed[1] = System.nanoTime() - start;
+            order.add(1);
+            done.countDown();
+        }, 30);
+
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        wheel.stop();
+
+        assertEquals(3, order.size());
+        assertEquals(Integer.valueOf(0), order.get(0));
+        assertEquals(Integer.valueOf(1), order.get(1));
+        assertEquals(Integer.valueOf(2), order.get(2));
+        assertTrue(cancelled.isCancelled());
+        assertTrue(first.isExpired());
+        assertFalse(first.cancel());
+        assertTrue(elapsed[0] >= TimeUnit.MILLISECONDS.toNanos(5));
+        assertTrue(elapsed[1] >= TimeUnit.MILLISECONDS.toNanos(30));
+        assertTrue(elapsed[2] >= TimeUnit.MILLISECONDS.toNanos(90));
+    }
+}
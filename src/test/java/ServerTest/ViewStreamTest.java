@@ -0,0 +1,197 @@
+package ServerTest;
+
+import org.junit.jupiter.api.Test;
+import server.ViewStream;
+import shared.Cell;
+import shared.Dice;
+import shared.Position;
+import shared.TransferObjects.GameDeltaT;
+import shared.TransferObjects.GameManagerT;
+import shared.TransferObjects.PlayerT;
+import shared.TransferObjects.ToolCT;
+import shared.TransferObjects.WindowT;
+import shared.network.socket.BinaryCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * checks that the deltas sent by the server rebuild on the client the same status of a full snapshot
+ */
+public class ViewStreamTest {
+
+    private Dice[][] overlay1 = new Dice[4][5];
+    private Dice[][] overlay2 = new Dice[4][5];
+    private List<Dice> pool = new ArrayList<>(Arrays.asList(new Dice('r', 1), new Dice('g', 4), new Dice('b', 6)));
+    private List<ArrayList<Dice>> roundTrack = new ArrayList<>();
+    private List<ToolCT> tools = new ArrayList<>(Arrays.asList(new ToolCT("tool1", 1), new ToolCT("tool2", 1)));
+    private Integer tokens1 = 3;
+    private List<String> online = new ArrayList<>(Arrays.asList("a", "b"));
+
+    private GameManagerT view() {
+        WindowT window = new WindowT("Window", new Cell[4][5]);
+        List<PlayerT> players = Arrays.asList(
+                new PlayerT("a", 'r', window, overlay1, tokens1, 1, 0, 1, null),
+                new PlayerT("b", 'g', window, overlay2, 4, 0, 0, 1, new Position(0, 0)));
+        return new GameManagerT(players, Arrays.asList("pub1", "pub2", "pub3"), tools, roundTrack, pool,
+                online, new ArrayList<>(), 0);
+    }
+
+    private GameDeltaT wire(GameDeltaT delta) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        BinaryCodec.getInstance().encode(delta, baos);
+        return (GameDeltaT) BinaryCodec.getInstance().decode(new ByteArrayInputStream(baos.toByteArray()));
+    }
+
+    private void assertSameView(GameManagerT expected, GameManagerT actual) {
+        assertEquals(expected.pool, actual.pool);
+        assertEquals(expected.roundTrack, actual.roundTrack);
+        assertEquals(expected.online, actual.online);
+        assertEquals(expected.offline, actual.offline);
+        for (int i = 0; i < expected.toolCards.size(); i++)
+            assertEquals(expected.toolCards.get(i).tokensRequired, actual.toolCards.get(i).tokensRequired);
+        for (int i = 0; i < expected.vPlayers.size(); i++) {
+            PlayerT e = expected.vPlayers.get(i);
+            PlayerT a = actual.vPlayers.get(i);
+            assertEquals(e.tokens, a.tokens);
+            assertEquals(e.lastPlaced, a.lastPlaced);
+            for (int r = 0; r < e.overlay.length; r++)
+                assertArrayEquals(e.overlay[r], a.overlay[r]);
+        }
+    }
+
+    @Test
+    public void deltas() throws Exception {
+        ViewStream stream = new ViewStream();
+        GameDeltaT first = wire(stream.next("a", view()));
+        assertTrue(first.isSnapshot());
+        GameManagerT client = first.applyTo(null);
+
+        // place a dice, taking it from the pool
+        overlay1[1][2] = pool.remove(0);
+        tokens1 = 2;
+        tools.set(0, new ToolCT("tool1", 2));
+        GameDeltaT second = wire(stream.next("a", view()));
+        assertFalse(second.isSnapshot());
+        assertEquals(first.version, second.baseVersion);
+        assertEquals(1, second.players.size());
+        assertEquals(1, second.players.get(0).cells.size());
+        assertNull(second.online);
+        client = second.applyTo(client);
+        assertSameView(view(), client);
+
+        // end of round, and a dice of an overlay is turned after being sent
+        roundTrack.add(new ArrayList<>(pool));
+        pool.clear();
+        online.remove("b");
+        overlay1[1][2] = overlay1[1][2].withValue(6);
+        GameDeltaT third = wire(stream.next("a", view()));
+        assertEquals(Integer.valueOf(0), third.roundTrackFrom);
+        assertEquals(1, third.players.get(0).cells.size());
+        client = third.applyTo(client);
+        assertSameView(view(), client);
+
+        // nothing changed
+        GameDeltaT fourth = wire(stream.next("a", view()));
+        assertTrue(fourth.players.isEmpty());
+        assertNull(fourth.pool);
+        assertNull(fourth.roundTrackFrom);
+
+        // after a reset a full snapshot is sent again, with a newer version
+        stream.reset("a");
+        GameDeltaT fifth = wire(stream.next("a", view()));
+        assertTrue(fifth.isSnapshot());
+        assertTrue(fifth.version > fourth.version);
+        assertSameView(view(), fifth.applyTo(client));
+    }
+
+    @Test
+    public void sharedBetweenPlayers() throws Exception {
+        ViewStream stream = new ViewStream();
+        stream.publish(view());
+        GameDeltaT firstA = wire(stream.next("a", 0));
+        GameDeltaT firstB = wire(stream.next("b", 1));
+        assertEquals(Integer.valueOf(0), firstA.snapshot.pos);
+        assertEquals(Integer.valueOf(1), firstB.snapshot.pos);
+        GameManagerT clientA = firstA.applyTo(null);
+        GameManagerT clientB = firstB.applyTo(null);
+
+        overlay2[0][0] = pool.remove(1);
+        stream.publish(view());
+        GameDeltaT secondA = stream.next("a", 0);
+        GameDeltaT secondB = stream.next("b", 1);
+        assertSame(secondA, secondB);
+        byte[] bytes = encode(secondA);
+        assertArrayEquals(bytes, encode(secondB));
+        clientA = wire(secondA).applyTo(clientA);
+        clientB = wire(secondB).applyTo(clientB);
+        assertSameView(view(), clientA);
+        assertSameView(view(), clientB);
+        assertEquals(Integer.valueOf(1), clientB.pos);
+
+        // b lost an update: he alone gets a snapshot, a keeps getting the changes
+        stream.reset("b");
+        pool.clear();
+        stream.publish(view());
+        GameDeltaT thirdA = wire(stream.next("a", 0));
+        GameDeltaT thirdB = wire(stream.next("b", 1));
+        assertFalse(thirdA.isSnapshot());
+        assertTrue(thirdB.isSnapshot());
+        assertEquals(thirdA.version, thirdB.version);
+        assertSameView(view(), thirdA.applyTo(clientA));
+        assertSameView(view(), thirdB.applyTo(clientB));
+    }
+
+    @Test
+    public void publishIfChanged() throws Exception {
+        ViewStream stream = new ViewStream();
+        assertTrue(stream.publishIfChanged(view()));
+        GameManagerT clientA = stream.next("a", 0).applyTo(null);
+        stream.next("b", 1);
+
+        overlay1[2][2] = pool.remove(0);
+        assertTrue(stream.publishIfChanged(view()));
+        GameDeltaT changes = stream.next("a", 0);
+        assertEquals(1, changes.players.size());
+
+        // a view asked while nothing changed keeps the version and the changes computed for the others
+        assertFalse(stream.publishIfChanged(view()));
+        assertSame(changes, stream.next("b", 1));
+        assertSameView(view(), wire(changes).applyTo(clientA));
+    }
+
+    @Test
+    public void askedTwiceWithoutChanges() throws Exception {
+        ViewStream stream = new ViewStream();
+        stream.publishIfChanged(view());
+        GameDeltaT first = stream.next("a", 0);
+        GameManagerT clientA = first.applyTo(null);
+
+        // the client shows again the status it holds, instead of dropping the answer
+        assertFalse(stream.publishIfChanged(view()));
+        GameDeltaT again = wire(stream.next("a", 0));
+        assertEquals(first.version, again.version);
+        assertTrue(again.isEmpty());
+        assertFalse(again.isStaleFor(first.version));
+        assertSameView(view(), again.applyTo(clientA));
+
+        // while an update older than the one held, or the same one sent again, is still dropped
+        overlay1[2][2] = pool.remove(0);
+        assertTrue(stream.publishIfChanged(view()));
+        GameDeltaT changes = stream.next("a", 0);
+        assertTrue(first.isStaleFor(changes.version));
+        assertTrue(changes.isStaleFor(changes.version));
+        assertFalse(changes.isStaleFor(first.version));
+    }
+
+    private byte[] encode(GameDeltaT delta) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        BinaryCodec.getInstance().encode(delta, baos);
+        return baos.toByteArray();
+    }
+}
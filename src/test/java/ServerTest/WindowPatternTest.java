@@ -0,0 +1,77 @@
+package ServerTest;
+
+import org.junit.jupiter.api.Test;
+import server.Overlay;
+import server.Window;
+import server.WindowPattern;
+import shared.Cell;
+import shared.Dice;
+import shared.Packed;
+import shared.Position;
+import shared.TransferObjects.WindowT;
+import shared.network.socket.BinaryCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * checks the catalog of the windows: the windows built on a pattern answer as the ones built on their own cells,
+ * a window changed by its player leaves the pattern alone, and the cached encoding is the same as a fresh one
+ */
+public class WindowPatternTest {
+
+    @Test
+    public void catalog() throws IOException {
+        List<WindowPattern> patterns = WindowPattern.loadCatalog();
+        assertEquals(25, patterns.size());
+        assertEquals("Window0", patterns.get(0).getName());
+        assertEquals(Integer.valueOf(50), patterns.get(0).getTokens());
+        assertEquals("Window24", patterns.get(24).getName());
+        assertEquals(Cell.of('y'), patterns.get(1).getCell(0, 0));
+        assertEquals(Cell.of(4), patterns.get(1).getCell(1, 4));
+        assertEquals(Cell.of(), patterns.get(1).getCell(0, 2));
+
+        Random rand = new Random(23);
+        for (WindowPattern pattern : patterns) {
+            Window shared = new Window(pattern);
+            Cell[][] cells = new Cell[4][5];
+            for (int r = 0; r < 4; r++)
+                for (int c = 0; c < 5; c++)
+                    cells[r][c] = pattern.getCell(r, c);
+            Window own = new Window(cells, pattern.getName(), pattern.getTokens());
+            Overlay overlay = new Overlay();
+            for (int step = 0; step < 6; step++) {
+                Dice dice = Dice.of(Packed.COLORS.charAt(rand.nextInt(5)), 1 + rand.nextInt(6));
+                for (boolean first : new boolean[]{true, false})
+                    assertEquals(own.legalCells(overlay, first, dice, true, true),
+                            shared.legalCells(overlay, first, dice, true, true));
+                overlay.setDicePosition(dice, Position.of(rand.nextInt(4), rand.nextInt(5)));
+            }
+            for (int cell = 0; cell < 20; cell++)
+                assertEquals(own.getPacked(cell), shared.getPacked(cell));
+
+            assertSame(pattern.getTransfer(), shared.getTransfer());
+            WindowT fresh = new WindowT(pattern.getName(), cells);
+            assertArrayEquals(encode(fresh), encode(pattern.getTransfer()));
+        }
+
+        WindowPattern pattern = patterns.get(3);
+        Window changed = new Window(pattern);
+        Cell before = pattern.getCell(1, 4);
+        changed.getMatrices()[1][4] = Cell.of('b');
+        assertSame(before, pattern.getCell(1, 4));
+        assertSame(before, new Window(pattern).getCell(Position.of(1, 4)));
+        assertNotSame(pattern.getTransfer(), changed.getTransfer());
+        assertEquals(Cell.of('b'), changed.getTransfer().cells[1][4]);
+    }
+
+    private static byte[] encode(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryCodec.getInstance().encode(value, bytes);
+        return bytes.toByteArray();
+    }
+}